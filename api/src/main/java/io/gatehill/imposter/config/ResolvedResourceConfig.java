@@ -55,12 +55,31 @@ public class ResolvedResourceConfig {
     private final Map<String, String> pathParams;
     private final Map<String, String> queryParams;
     private final Map<String, String> requestHeaders;
+    private final int specificity;
 
     public ResolvedResourceConfig(RestResourceConfig config, Map<String, String> pathParams, Map<String, String> queryParams, Map<String, String> requestHeaders) {
         this.config = config;
         this.pathParams = pathParams;
         this.queryParams = queryParams;
         this.requestHeaders = requestHeaders;
+        this.specificity = calculateSpecificity(pathParams, queryParams, requestHeaders);
+    }
+
+    /**
+     * Path parameters outrank query parameters, which outrank request headers.
+     */
+    private static int calculateSpecificity(Map<String, String> pathParams, Map<String, String> queryParams, Map<String, String> requestHeaders) {
+        int specificity = 0;
+        if (!pathParams.isEmpty()) {
+            specificity |= 4;
+        }
+        if (!queryParams.isEmpty()) {
+            specificity |= 2;
+        }
+        if (!requestHeaders.isEmpty()) {
+            specificity |= 1;
+        }
+        return specificity;
     }
 
     public RestResourceConfig getConfig() {
@@ -78,4 +97,11 @@ public class ResolvedResourceConfig {
     public Map<String, String> getRequestHeaders() {
         return requestHeaders;
     }
+
+    /**
+     * @return the rank of this resource when more than one resource matches a request - higher is more specific
+     */
+    public int getSpecificity() {
+        return specificity;
+    }
 }
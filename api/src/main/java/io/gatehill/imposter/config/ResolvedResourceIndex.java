@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.config;
+
+import io.gatehill.imposter.plugin.config.resource.ResourceMethod;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Indexes resolved resource configurations by HTTP method and path, so that matching
+ * a request only needs to consider those resources that could apply to it.
+ * <p>
+ * Candidates for each method and path are held in descending order of
+ * {@link ResolvedResourceConfig#getSpecificity()}, then in configuration order.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class ResolvedResourceIndex {
+    private final List<ResolvedResourceConfig> resources;
+    private final Map<ResolvedResourceConfig, Integer> ordinals = new IdentityHashMap<>();
+    private final Map<ResourceMethod, Map<String, List<ResolvedResourceConfig>>> candidates = new EnumMap<>(ResourceMethod.class);
+    private final Comparator<ResolvedResourceConfig> precedence = Comparator
+            .comparingInt(ResolvedResourceConfig::getSpecificity).reversed()
+            .thenComparing(ordinals::get);
+
+    public ResolvedResourceIndex(List<ResolvedResourceConfig> resources) {
+        this.resources = Collections.unmodifiableList(resources);
+
+        for (int i = 0; i < resources.size(); i++) {
+            final ResolvedResourceConfig resource = resources.get(i);
+            ordinals.put(resource, i);
+
+            // resources without a method or path can never match a request
+            final ResourceMethod method = resource.getConfig().getMethod();
+            final String path = resource.getConfig().getPath();
+            if (nonNull(method) && nonNull(path)) {
+                candidates.computeIfAbsent(method, m -> new HashMap<>())
+                        .computeIfAbsent(path, p -> new ArrayList<>())
+                        .add(resource);
+            }
+        }
+
+        candidates.values().forEach(byPath -> byPath.replaceAll((path, list) -> {
+            list.sort(precedence);
+            return Collections.unmodifiableList(list);
+        }));
+    }
+
+    /**
+     * @return all resolved resource configurations, in configuration order
+     */
+    public List<ResolvedResourceConfig> getResources() {
+        return resources;
+    }
+
+    /**
+     * Find the resources that could match a request, based on its method and path.
+     *
+     * @param method       the HTTP method of the request
+     * @param path         the path of the request
+     * @param pathTemplate the path template of the route, which may be {@code null}
+     * @return the candidate resources, most specific first
+     */
+    public List<ResolvedResourceConfig> findCandidates(ResourceMethod method, String path, String pathTemplate) {
+        final Map<String, List<ResolvedResourceConfig>> byPath = candidates.getOrDefault(method, emptyMap());
+
+        final List<ResolvedResourceConfig> pathCandidates = byPath.getOrDefault(path, emptyList());
+        if (isNull(pathTemplate) || pathTemplate.equals(path)) {
+            return pathCandidates;
+        }
+
+        final List<ResolvedResourceConfig> templateCandidates = byPath.getOrDefault(pathTemplate, emptyList());
+        if (pathCandidates.isEmpty()) {
+            return templateCandidates;
+        } else if (templateCandidates.isEmpty()) {
+            return pathCandidates;
+        }
+
+        final List<ResolvedResourceConfig> merged = new ArrayList<>(pathCandidates.size() + templateCandidates.size());
+        merged.addAll(pathCandidates);
+        merged.addAll(templateCandidates);
+        merged.sort(precedence);
+        return merged;
+    }
+}
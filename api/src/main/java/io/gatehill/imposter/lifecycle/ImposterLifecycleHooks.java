@@ -79,6 +79,13 @@ public class ImposterLifecycleHooks {
         return listeners.stream().allMatch(listenerConsumer);
     }
 
+    public boolean anyMatch(Predicate<ImposterLifecycleListener> listenerConsumer) {
+        if (listeners.isEmpty()) {
+            return false;
+        }
+        return listeners.stream().anyMatch(listenerConsumer);
+    }
+
     public boolean isEmpty() {
         return listeners.isEmpty();
     }
@@ -45,10 +45,12 @@ package io.gatehill.imposter.lifecycle;
 
 import io.gatehill.imposter.ImposterConfig;
 import io.gatehill.imposter.config.ResolvedResourceConfig;
+import io.gatehill.imposter.http.TemplatePlaceholder;
 import io.gatehill.imposter.plugin.config.PluginConfig;
 import io.gatehill.imposter.plugin.config.resource.ResponseConfigHolder;
 import io.gatehill.imposter.script.ExecutionContext;
 import io.gatehill.imposter.script.ReadWriteResponseBehaviour;
+import io.vertx.core.Future;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 
@@ -72,6 +74,18 @@ public interface ImposterLifecycleListener {
         // no op
     }
 
+    /**
+     * Invoked when building a route to determine if handling a request for the resource might block,
+     * and so must be handled on a worker thread, rather than the event loop.
+     *
+     * @param pluginConfig   the plugin configuration
+     * @param resourceConfig the resource configuration
+     * @return {@code true} if handling the resource might block, otherwise {@code false}
+     */
+    default boolean isBlockingRequired(PluginConfig pluginConfig, ResponseConfigHolder resourceConfig) {
+        return false;
+    }
+
     /**
      * Invoked on each request to determine if the request is permitted to proceed.
      *
@@ -111,26 +125,46 @@ public interface ImposterLifecycleListener {
         // no op
     }
 
+    /**
+     * Invoked once for each placeholder when a response template is compiled, for resources
+     * with templating enabled. The first listener to return a non-null value resolves the placeholder.
+     *
+     * @param placeholder the placeholder expression, without the enclosing <code>${</code> and <code>}</code>
+     * @return the compiled placeholder, or {@code null} if this listener does not resolve the placeholder
+     */
+    default TemplatePlaceholder compileTemplatePlaceholder(String placeholder) {
+        // no op
+        return null;
+    }
+
     /**
      * Invoked before sending response content when templating is enabled for the active resource.
+     * The content has already been rendered, so any placeholders compiled by
+     * {@link #compileTemplatePlaceholder(String)} have been replaced.
      *
-     * @param routingContext the routing context
+     * @param routingContext   the routing context
      * @param responseTemplate the response content
      * @return the transformed response content
+     * @deprecated use {@link #compileTemplatePlaceholder(String)}, which is invoked once per placeholder,
+     * rather than once per response
      */
+    @Deprecated
     default String beforeTransmittingTemplate(RoutingContext routingContext, String responseTemplate) {
         // no op
         return responseTemplate;
     }
 
     /**
-     * Invoked before building the response.
+     * Invoked before building the response. The response is built once the returned future completes,
+     * so listeners can perform I/O without blocking the calling thread.
      *
      * @param routingContext the routing context
      * @param resourceConfig the active resource
+     * @return a future that completes when the listener is ready for the response to be built
      */
-    default void beforeBuildingResponse(RoutingContext routingContext, ResponseConfigHolder resourceConfig) {
+    default Future<Void> beforeBuildingResponse(RoutingContext routingContext, ResponseConfigHolder resourceConfig) {
         // no op
+        return Future.succeededFuture();
     }
 
     /**
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.plugin.config.system;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Configures a local cache of store items, held by each Imposter instance in front
+ * of an external store, and kept consistent with the other instances by the store.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class NearCacheConfig {
+    /**
+     * The maximum number of items held in the local cache. Zero means unbounded.
+     */
+    @JsonProperty("maxItems")
+    private Integer maxItems;
+
+    /**
+     * The policy used to evict items from the local cache when it is full, such as
+     * <code>LRU</code>, <code>LFU</code>, <code>SOFT</code>, <code>WEAK</code> or <code>NONE</code>.
+     */
+    @JsonProperty("evictionPolicy")
+    private String evictionPolicy;
+
+    /**
+     * How changes made by other instances are applied to the local cache, such as
+     * <code>INVALIDATE</code>, <code>UPDATE</code> or <code>NONE</code>.
+     */
+    @JsonProperty("syncStrategy")
+    private String syncStrategy;
+
+    /**
+     * The number of seconds after which items are removed from the local cache.
+     */
+    @JsonProperty("timeToLive")
+    private Integer timeToLive;
+
+    /**
+     * The number of seconds after which items that have not been read are removed from the local cache.
+     */
+    @JsonProperty("maxIdle")
+    private Integer maxIdle;
+
+    public Integer getMaxItems() {
+        return maxItems;
+    }
+
+    public String getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    public String getSyncStrategy() {
+        return syncStrategy;
+    }
+
+    public Integer getTimeToLive() {
+        return timeToLive;
+    }
+
+    public Integer getMaxIdle() {
+        return maxIdle;
+    }
+}
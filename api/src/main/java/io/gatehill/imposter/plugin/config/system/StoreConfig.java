@@ -57,6 +57,39 @@ public class StoreConfig {
     @JsonProperty("preloadFile")
     private String preloadFile;
 
+    /**
+     * A binary snapshot file, written by the snapshot API. If the file exists, the
+     * store is restored from it on start, instead of being preloaded.
+     */
+    @JsonProperty("snapshotFile")
+    private String snapshotFile;
+
+    /**
+     * The maximum number of items held by an in-memory store, after which the
+     * least recently used items are evicted.
+     */
+    @JsonProperty("maxItems")
+    private Integer maxItems;
+
+    /**
+     * The maximum estimated size in bytes of the items held by an in-memory store,
+     * after which the least recently used items are evicted.
+     */
+    @JsonProperty("maxBytes")
+    private Long maxBytes;
+
+    /**
+     * The number of seconds after which items saved to an in-memory store expire.
+     */
+    @JsonProperty("expiry")
+    private Integer expiry;
+
+    /**
+     * Enables a local cache of items in front of an external store, if supported by the store implementation.
+     */
+    @JsonProperty("nearCache")
+    private NearCacheConfig nearCache;
+
     public Map<String, Object> getPreloadData() {
         return preloadData;
     }
@@ -64,4 +97,24 @@ public class StoreConfig {
     public String getPreloadFile() {
         return preloadFile;
     }
+
+    public String getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    public Integer getMaxItems() {
+        return maxItems;
+    }
+
+    public Long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public Integer getExpiry() {
+        return expiry;
+    }
+
+    public NearCacheConfig getNearCache() {
+        return nearCache;
+    }
 }
@@ -47,6 +47,19 @@ package io.gatehill.imposter.server;
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
 public enum RequestHandlingMode {
+    /**
+     * All requests are handled on a worker thread. This is the default.
+     */
     ASYNC,
-    SYNC
+
+    /**
+     * All requests are handled on the event loop.
+     */
+    SYNC,
+
+    /**
+     * Requests for resources that might block, such as those with a script, are handled
+     * on a worker thread. All other requests are handled on the event loop.
+     */
+    HYBRID
 }
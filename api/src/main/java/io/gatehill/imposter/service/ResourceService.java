@@ -45,6 +45,7 @@ package io.gatehill.imposter.service;
 
 import io.gatehill.imposter.ImposterConfig;
 import io.gatehill.imposter.config.ResolvedResourceConfig;
+import io.gatehill.imposter.config.ResolvedResourceIndex;
 import io.gatehill.imposter.plugin.config.PluginConfig;
 import io.gatehill.imposter.plugin.config.resource.ResponseConfigHolder;
 import io.vertx.core.Handler;
@@ -56,7 +57,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
+import java.util.function.Function;
 
 /**
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
@@ -70,28 +71,38 @@ public interface ResourceService {
      */
     List<ResolvedResourceConfig> resolveResourceConfigs(PluginConfig pluginConfig);
 
+    /**
+     * Extract the resource configurations from the plugin configuration, if present,
+     * and index them for matching against requests.
+     *
+     * @param pluginConfig the plugin configuration
+     * @return the indexed resource configurations
+     */
+    ResolvedResourceIndex indexResourceConfigs(PluginConfig pluginConfig);
+
     /**
      * Search for a resource configuration matching the current request.
      *
-     * @param resources      the resources from the response configuration
+     * @param resources      the indexed resources from the response configuration
      * @param method         the HTTP method of the current request
      * @param pathTemplate   request path template
      * @param path           the path of the current request
      * @param pathParams     the path parameters of the current request
      * @param queryParams    the query parameters of the current request
      * @param requestHeaders the headers of the current request
-     * @param bodySupplier   supplies the request body
+     * @param bodyReader     reads the value at a JsonPath expression from the request body, returning
+     *                       {@code null} if the request has no body or the path does not exist
      * @return a matching resource configuration or else empty
      */
     Optional<ResponseConfigHolder> matchResourceConfig(
-            List<ResolvedResourceConfig> resources,
+            ResolvedResourceIndex resources,
             HttpMethod method,
             String pathTemplate,
             String path,
             Map<String, String> pathParams,
             Map<String, String> queryParams,
             Map<String, String> requestHeaders,
-            Supplier<String> bodySupplier
+            Function<String, Object> bodyReader
     );
 
     /**
@@ -103,6 +114,9 @@ public interface ResourceService {
      * If it is {@link io.gatehill.imposter.server.RequestHandlingMode#ASYNC}, then upon receiving a request,
      * the {@code routingContextConsumer} is invoked on a worker thread, passing the {@code routingContext}.
      * <p>
+     * If it is {@link io.gatehill.imposter.server.RequestHandlingMode#HYBRID}, then the {@code routingContextConsumer}
+     * is invoked on a worker thread only if the matched resource might block, otherwise on the calling thread.
+     * <p>
      * Example:
      * <pre>
      * router.get("/example").handler(handleRoute(imposterConfig, allPluginConfigs, vertx, routingContext -> {
@@ -132,6 +146,9 @@ public interface ResourceService {
      * If it is {@link io.gatehill.imposter.server.RequestHandlingMode#ASYNC}, then upon receiving a request,
      * the {@code routingContextConsumer} is invoked on a worker thread, passing the {@code routingContext}.
      * <p>
+     * If it is {@link io.gatehill.imposter.server.RequestHandlingMode#HYBRID}, then the {@code routingContextConsumer}
+     * is invoked on a worker thread only if the matched resource might block, otherwise on the calling thread.
+     * <p>
      * Example:
      * <pre>
      * router.get("/example").handler(handleRoute(imposterConfig, pluginConfig, vertx, routingContext -> {
@@ -161,6 +178,9 @@ public interface ResourceService {
      * If it is {@link io.gatehill.imposter.server.RequestHandlingMode#ASYNC}, then upon receiving a request,
      * the {@code routingContextHandler} is invoked on a worker thread, passing the {@code routingContext}.
      * <p>
+     * If it is {@link io.gatehill.imposter.server.RequestHandlingMode#HYBRID}, then the {@code routingContextHandler}
+     * is invoked on a worker thread only if the matched resource might block, otherwise on the calling thread.
+     * <p>
      * Example:
      * <pre>
      * router.get("/example").handler(handleRoute(imposterConfig, allPluginConfigs, vertx, routingContextHandler);
@@ -179,6 +199,16 @@ public interface ResourceService {
             Handler<RoutingContext> routingContextHandler
     );
 
+    /**
+     * Executes the {@code runnable} on a worker thread, without ordering it behind other
+     * blocking executions, failing the {@code routingContext} if it throws an exception.
+     *
+     * @param vertx          the current Vert.x instance
+     * @param routingContext the routing context of the request being handled
+     * @param runnable       the work to execute
+     */
+    void executeOnWorker(Vertx vertx, RoutingContext routingContext, Runnable runnable);
+
     /**
      * Catches unhandled exceptions.
      *
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.benchmarks;
+
+import io.gatehill.imposter.util.FeatureUtil;
+import io.gatehill.imposter.util.MetricsUtil;
+import io.gatehill.imposter.util.ResourceUtil;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Common set up for benchmarks.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+final class BenchmarkUtil {
+    private BenchmarkUtil() {
+    }
+
+    /**
+     * Metrics require a running Vert.x instance, so are disabled for benchmarks.
+     */
+    static void disableMetrics() {
+        FeatureUtil.disableFeature(MetricsUtil.FEATURE_NAME_METRICS);
+    }
+
+    /**
+     * @param requestId   the unique ID of the request
+     * @param queryParams the query parameters of the request
+     * @return a routing context for a GET request
+     */
+    static RoutingContext mockRoutingContext(String requestId, Map<String, String> queryParams) {
+        final HttpServerRequest request = mock(HttpServerRequest.class);
+        when(request.method()).thenReturn(HttpMethod.GET);
+        when(request.path()).thenReturn("/example");
+        when(request.absoluteURI()).thenReturn("http://localhost:8080/example");
+        when(request.headers()).thenReturn(new CaseInsensitiveHeaders());
+        when(request.params()).thenReturn(new CaseInsensitiveHeaders().addAll(queryParams));
+
+        final RoutingContext routingContext = mock(RoutingContext.class);
+        when(routingContext.request()).thenReturn(request);
+        when(routingContext.pathParams()).thenReturn(emptyMap());
+        when(routingContext.getBodyAsString()).thenReturn("");
+        when(routingContext.<String>get(ResourceUtil.RC_REQUEST_ID_KEY)).thenReturn(requestId);
+        return routingContext;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.benchmarks;
+
+import io.gatehill.imposter.store.inmem.InMemoryStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link InMemoryStore} operations, for stores holding a varying number of items.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InMemoryStoreBenchmark {
+    @Param({"100", "10000"})
+    private int itemCount;
+
+    private InMemoryStore store;
+    private String[] keys;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        store = new InMemoryStore("bench");
+        keys = new String[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            keys[i] = "key" + i;
+            store.save(keys[i], "value" + i);
+        }
+    }
+
+    private String nextKey() {
+        next = (next + 1) % itemCount;
+        return keys[next];
+    }
+
+    @Benchmark
+    public void save() {
+        store.save(nextKey(), "updated");
+    }
+
+    @Benchmark
+    public Object load() {
+        return store.load(nextKey());
+    }
+
+    @Benchmark
+    public boolean hasItemWithKey() {
+        return store.hasItemWithKey(nextKey());
+    }
+
+    @Benchmark
+    public Map<String, Object> loadAll() {
+        return store.loadAll();
+    }
+}
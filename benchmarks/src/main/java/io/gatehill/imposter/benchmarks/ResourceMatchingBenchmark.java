@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.benchmarks;
+
+import io.gatehill.imposter.config.ResolvedResourceConfig;
+import io.gatehill.imposter.config.ResolvedResourceIndex;
+import io.gatehill.imposter.plugin.config.resource.ResponseConfigHolder;
+import io.gatehill.imposter.plugin.config.resource.RestResourceConfig;
+import io.gatehill.imposter.service.ResourceServiceImpl;
+import io.gatehill.imposter.util.MapUtil;
+import io.vertx.core.http.HttpMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Benchmarks {@link ResourceServiceImpl#matchResourceConfig} as the number of configured resources grows.
+ * Half of the resources have static paths, and half have path templates with a query parameter to match.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResourceMatchingBenchmark {
+    @Param({"10", "100", "1000"})
+    private int resourceCount;
+
+    private final ResourceServiceImpl resourceService = new ResourceServiceImpl();
+    private ResolvedResourceIndex index;
+    private String staticPath;
+    private String pathTemplate;
+    private String path;
+    private Map<String, String> pathParams;
+    private Map<String, String> queryParams;
+
+    @Setup
+    public void setUp() {
+        final List<ResolvedResourceConfig> resources = new ArrayList<>();
+        for (int i = 0; i < resourceCount / 2; i++) {
+            resources.add(resolve("/static" + i, emptyMap()));
+            resources.add(resolve("/templated" + i + "/:id", singletonMap("page", "1")));
+        }
+        index = new ResolvedResourceIndex(resources);
+
+        // match the last resources, so all preceding resources are considered
+        final int last = (resourceCount / 2) - 1;
+        staticPath = "/static" + last;
+        pathTemplate = "/templated" + last + "/:id";
+        path = "/templated" + last + "/1";
+        pathParams = singletonMap("id", "1");
+        queryParams = singletonMap("page", "1");
+    }
+
+    private static ResolvedResourceConfig resolve(String path, Map<String, String> queryParams) {
+        final Map<String, Object> raw = new HashMap<>();
+        raw.put("method", "GET");
+        raw.put("path", path);
+        raw.put("queryParams", queryParams);
+
+        final RestResourceConfig config = MapUtil.JSON_MAPPER.convertValue(raw, RestResourceConfig.class);
+        return new ResolvedResourceConfig(config, emptyMap(), queryParams, emptyMap());
+    }
+
+    @Benchmark
+    public Optional<ResponseConfigHolder> matchStaticPath() {
+        return resourceService.matchResourceConfig(
+                index, HttpMethod.GET, null, staticPath, emptyMap(), emptyMap(), emptyMap(), jsonPath -> null);
+    }
+
+    @Benchmark
+    public Optional<ResponseConfigHolder> matchPathTemplate() {
+        return resourceService.matchResourceConfig(
+                index, HttpMethod.GET, pathTemplate, path, pathParams, queryParams, emptyMap(), jsonPath -> null);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.benchmarks;
+
+import io.gatehill.imposter.plugin.openapi.model.ContentTypedHolder;
+import io.gatehill.imposter.plugin.openapi.service.SchemaServiceImpl;
+import io.gatehill.imposter.util.HttpUtil;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.DateTimeSchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.vertx.core.http.HttpServerRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Benchmarks {@link SchemaServiceImpl#collectExamples} for an array of objects
+ * referring to a schema component.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SchemaExamplesBenchmark {
+    private final SchemaServiceImpl schemaService = new SchemaServiceImpl();
+    private HttpServerRequest request;
+    private OpenAPI spec;
+    private ContentTypedHolder<Schema<?>> schema;
+
+    @Setup
+    public void setUp() {
+        request = BenchmarkUtil.mockRoutingContext("benchmark-request", emptyMap()).request();
+
+        final ObjectSchema pet = new ObjectSchema();
+        pet.addProperties("id", new IntegerSchema());
+        pet.addProperties("name", new StringSchema().example("Fluffy"));
+        pet.addProperties("createdAt", new DateTimeSchema());
+        pet.addProperties("tags", new ArraySchema().items(new StringSchema()));
+
+        spec = new OpenAPI().components(new Components().addSchemas("Pet", pet));
+        schema = new ContentTypedHolder<>(HttpUtil.CONTENT_TYPE_JSON,
+                new ArraySchema().items(new Schema<>().$ref("#/components/schemas/Pet")));
+    }
+
+    @Benchmark
+    public ContentTypedHolder<?> collectExamples() {
+        return schemaService.collectExamples(request, spec, schema);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.benchmarks;
+
+import io.gatehill.imposter.plugin.config.PluginConfigImpl;
+import io.gatehill.imposter.script.ExecutionContext;
+import io.gatehill.imposter.script.ReadWriteResponseBehaviour;
+import io.gatehill.imposter.script.RuntimeContext;
+import io.gatehill.imposter.script.ScriptUtil;
+import io.gatehill.imposter.scripting.graalvm.service.GraalvmScriptServiceImpl;
+import io.gatehill.imposter.scripting.groovy.service.GroovyScriptServiceImpl;
+import io.gatehill.imposter.scripting.nashorn.service.NashornScriptServiceImpl;
+import io.gatehill.imposter.service.ScriptService;
+import io.gatehill.imposter.util.MapUtil;
+import org.apache.logging.log4j.LogManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.script.ScriptEngineManager;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Benchmarks execution of a cached script by each {@link ScriptService}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ScriptExecutionBenchmark {
+    private static final String GROOVY_SCRIPT = "if (context.request.queryParams.name == 'bench') {\n" +
+            "    respond().withStatusCode(200).withHeader('X-Name', context.request.queryParams.name)\n" +
+            "} else {\n" +
+            "    respond().withStatusCode(404)\n" +
+            "}\n";
+
+    private static final String JS_SCRIPT = "if (context.request.queryParams.name === 'bench') {\n" +
+            "    respond().withStatusCode(200).withHeader('X-Name', context.request.queryParams.name);\n" +
+            "} else {\n" +
+            "    respond().withStatusCode(404);\n" +
+            "}\n";
+
+    @Param({"groovy", "nashorn", "graalvm"})
+    private String engine;
+
+    private ScriptService scriptService;
+    private PluginConfigImpl config;
+    private RuntimeContext runtimeContext;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkUtil.disableMetrics();
+
+        final String scriptName;
+        final String script;
+        switch (engine) {
+            case "groovy":
+                scriptService = new GroovyScriptServiceImpl();
+                scriptName = "bench.groovy";
+                script = GROOVY_SCRIPT;
+                break;
+            case "nashorn":
+                scriptService = new NashornScriptServiceImpl(new ScriptEngineManager());
+                scriptName = "bench.js";
+                script = JS_SCRIPT;
+                break;
+            case "graalvm":
+                scriptService = new GraalvmScriptServiceImpl();
+                scriptName = "bench.js";
+                script = JS_SCRIPT;
+                break;
+            default:
+                throw new IllegalStateException("Unsupported script engine: " + engine);
+        }
+
+        final Path scriptDir = Files.createTempDirectory("imposter-benchmark");
+        final Path scriptFile = scriptDir.resolve(scriptName);
+        Files.write(scriptFile, script.getBytes(StandardCharsets.UTF_8));
+        scriptFile.toFile().deleteOnExit();
+        scriptDir.toFile().deleteOnExit();
+
+        config = MapUtil.JSON_MAPPER.convertValue(
+                singletonMap("response", singletonMap("scriptFile", scriptName)), PluginConfigImpl.class);
+        config.setParentDir(scriptDir.toFile());
+
+        final ExecutionContext executionContext = ScriptUtil.buildContext(
+                BenchmarkUtil.mockRoutingContext("benchmark-request", singletonMap("name", "bench")), null);
+
+        runtimeContext = new RuntimeContext(
+                emptyMap(), LogManager.getLogger("script-benchmark"), config, emptyMap(), executionContext);
+    }
+
+    @Benchmark
+    public ReadWriteResponseBehaviour executeScript() {
+        return scriptService.executeScript(config, config, runtimeContext);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.benchmarks;
+
+import io.gatehill.imposter.http.ResponseTemplate;
+import io.gatehill.imposter.lifecycle.ImposterLifecycleHooks;
+import io.gatehill.imposter.store.inmem.InMemoryStore;
+import io.gatehill.imposter.store.inmem.InMemoryStoreFactoryImpl;
+import io.gatehill.imposter.store.model.Store;
+import io.gatehill.imposter.store.model.StoreFactory;
+import io.gatehill.imposter.store.service.StoreServiceImpl;
+import io.gatehill.imposter.store.util.StoreUtil;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.RoutingContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyMap;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmarks compiling and rendering a response template, with placeholders
+ * resolved from stores by {@link StoreServiceImpl}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TemplateRenderingBenchmark {
+    private static final String REQUEST_ID = "benchmark-request";
+
+    private static final String TEMPLATE = "{\n" +
+            "  \"id\": \"${request.id}\",\n" +
+            "  \"name\": \"${bench.name}\",\n" +
+            "  \"city\": \"${bench.person:$.address.city}\",\n" +
+            "  \"nickname\": \"${bench.nickname:-none}\",\n" +
+            "  \"description\": \"Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor " +
+            "incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation ullamco " +
+            "laboris nisi ut aliquip ex ea commodo consequat.\"\n" +
+            "}";
+
+    private StoreServiceImpl storeService;
+    private RoutingContext routingContext;
+    private ResponseTemplate template;
+
+    @Setup
+    public void setUp() {
+        BenchmarkUtil.disableMetrics();
+
+        final StoreFactory storeFactory = new InMemoryStoreFactoryImpl();
+        storeService = new StoreServiceImpl(null, new ImposterLifecycleHooks(), null, storeFactory);
+
+        final Map<String, Object> address = new HashMap<>();
+        address.put("city", "London");
+        final Map<String, Object> person = new HashMap<>();
+        person.put("address", address);
+
+        final Store store = storeFactory.getStoreByName("bench", false);
+        store.save("name", "Imposter");
+        store.save("person", person);
+
+        final Store requestStore = new InMemoryStore(StoreUtil.REQUEST_SCOPED_STORE_NAME);
+        requestStore.save("id", "12345");
+
+        routingContext = BenchmarkUtil.mockRoutingContext(REQUEST_ID, emptyMap());
+        when(routingContext.<Store>get(StoreUtil.RC_REQUEST_STORE_KEY)).thenReturn(requestStore);
+        template = compile();
+    }
+
+    @Benchmark
+    public ResponseTemplate compile() {
+        return ResponseTemplate.compile(TEMPLATE, storeService::compileTemplatePlaceholder);
+    }
+
+    @Benchmark
+    public Buffer render() {
+        return template.render(routingContext);
+    }
+}
@@ -47,7 +47,9 @@ import com.google.inject.Injector;
 import com.google.inject.Module;
 import io.gatehill.imposter.plugin.PluginDependencies;
 import io.gatehill.imposter.plugin.PluginManager;
+import io.gatehill.imposter.server.RequestHandlingMode;
 import io.gatehill.imposter.util.ConfigUtil;
+import io.gatehill.imposter.util.EnvVars;
 import io.gatehill.imposter.util.InjectorUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -120,6 +122,10 @@ public class Imposter {
     private void processConfiguration() {
         imposterConfig.setServerUrl(buildServerUrl().toString());
 
+        ofNullable(EnvVars.getEnv("IMPOSTER_REQUEST_HANDLING_MODE"))
+                .map(mode -> RequestHandlingMode.valueOf(mode.toUpperCase()))
+                .ifPresent(imposterConfig::setRequestHandlingMode);
+
         final String[] configDirs = imposterConfig.getConfigDirs();
 
         // resolve relative config paths
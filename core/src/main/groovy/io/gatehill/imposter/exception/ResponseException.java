@@ -55,7 +55,7 @@ public class ResponseException extends RuntimeException {
         super(cause);
     }
 
-    public ResponseException(String message, Exception cause) {
+    public ResponseException(String message, Throwable cause) {
         super(message, cause);
     }
 }
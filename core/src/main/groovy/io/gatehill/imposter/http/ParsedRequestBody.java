@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Strings;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.PathNotFoundException;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import io.gatehill.imposter.util.JsonPathUtil;
+import io.gatehill.imposter.util.MapUtil;
+import io.vertx.ext.web.RoutingContext;
+
+import java.io.IOException;
+
+import static java.util.Objects.isNull;
+
+/**
+ * The body of the current request, decoded and parsed lazily, at most once per request.
+ * <p>
+ * Obtain the instance for a request using {@link #forRequest(RoutingContext)}, so that
+ * request matching, data capture, validation and scripts all share the same parsed body.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class ParsedRequestBody {
+    private static final String RC_PARSED_REQUEST_BODY_KEY = "io.gatehill.imposter.parsedRequestBody";
+
+    private static final Configuration JSONPATH_CONFIG = Configuration.builder()
+            .jsonProvider(new JacksonJsonNodeJsonProvider(MapUtil.JSON_MAPPER))
+            .mappingProvider(new JacksonMappingProvider(MapUtil.JSON_MAPPER))
+            .build();
+
+    private final RoutingContext routingContext;
+    private boolean bodyRead;
+    private String body;
+    private JsonNode jsonNode;
+
+    private ParsedRequestBody(RoutingContext routingContext) {
+        this.routingContext = routingContext;
+    }
+
+    /**
+     * Returns the body holder for the request, creating it on first use.
+     *
+     * @param routingContext the routing context of the request
+     * @return the body holder
+     */
+    public static ParsedRequestBody forRequest(RoutingContext routingContext) {
+        ParsedRequestBody parsed = routingContext.get(RC_PARSED_REQUEST_BODY_KEY);
+        if (isNull(parsed)) {
+            parsed = new ParsedRequestBody(routingContext);
+            routingContext.put(RC_PARSED_REQUEST_BODY_KEY, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * @return the request body as a string, or {@code null} if there is no body
+     */
+    public String getBody() {
+        if (!bodyRead) {
+            body = routingContext.getBodyAsString();
+            bodyRead = true;
+        }
+        return body;
+    }
+
+    /**
+     * @return {@code true} if the request has no body, otherwise {@code false}
+     */
+    public boolean isEmpty() {
+        return Strings.isNullOrEmpty(getBody());
+    }
+
+    /**
+     * @return the request body parsed as JSON, or {@code null} if there is no body
+     * @throws IOException if the body is not valid JSON
+     */
+    public JsonNode getJsonNode() throws IOException {
+        if (isNull(jsonNode) && !isEmpty()) {
+            jsonNode = MapUtil.JSON_MAPPER.readTree(getBody());
+        }
+        return jsonNode;
+    }
+
+    /**
+     * Evaluate the JsonPath expression against the request body.
+     *
+     * @param jsonPath the JsonPath expression
+     * @return the value at the path, or {@code null} if there is no body
+     * @throws PathNotFoundException if the path does not exist in the body
+     */
+    public Object readJsonPath(String jsonPath) {
+        final JsonNode root;
+        try {
+            root = getJsonNode();
+        } catch (IOException e) {
+            throw new RuntimeException("Error parsing request body as JSON", e);
+        }
+        if (isNull(root)) {
+            return null;
+        }
+
+        final Object value = JsonPathUtil.compile(jsonPath).read(root, JSONPATH_CONFIG);
+        if (value instanceof JsonNode) {
+            // convert to plain types, such as String, Map or List
+            return MapUtil.JSON_MAPPER.convertValue(value, Object.class);
+        }
+        return value;
+    }
+}
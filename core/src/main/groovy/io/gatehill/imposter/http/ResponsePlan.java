@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.http;
+
+import com.google.common.base.Strings;
+import io.gatehill.imposter.plugin.config.ContentTypedConfig;
+import io.gatehill.imposter.plugin.config.resource.ResponseConfig;
+import io.gatehill.imposter.plugin.config.resource.ResponseConfigHolder;
+import io.gatehill.imposter.script.ResponseBehaviour;
+import io.gatehill.imposter.util.HttpUtil;
+import io.gatehill.imposter.util.ResourceUtil;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * A precomputed response for a resource with static, non-templated, response data.
+ * The status code, headers (including content type) and encoded body are computed once,
+ * and the body is shared by all requests for the resource.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public final class ResponsePlan {
+    private final int statusCode;
+    private final Map<String, String> configuredHeaders;
+    private final MultiMap headers;
+    private final String responseData;
+    private final Buffer body;
+
+    private ResponsePlan(
+            int statusCode,
+            Map<String, String> configuredHeaders,
+            MultiMap headers,
+            String responseData,
+            Buffer body
+    ) {
+        this.statusCode = statusCode;
+        this.configuredHeaders = configuredHeaders;
+        this.headers = headers;
+        this.responseData = responseData;
+        this.body = body;
+    }
+
+    /**
+     * Build a plan for the resource, if its response can be precomputed.
+     *
+     * @param resourceConfig the resource configuration
+     * @return the plan, or {@code null} if the response cannot be precomputed
+     */
+    public static ResponsePlan build(ResponseConfigHolder resourceConfig) {
+        final ResponseConfig responseConfig = resourceConfig.getResponseConfig();
+        if (!isPlannable(responseConfig)) {
+            return null;
+        }
+
+        final Map<String, String> configuredHeaders = ofNullable(responseConfig.getHeaders()).orElse(Collections.emptyMap());
+        final MultiMap headers = MultiMap.caseInsensitiveMultiMap().addAll(configuredHeaders);
+
+        // explicit content type takes precedence over headers
+        if (resourceConfig instanceof ContentTypedConfig) {
+            final String contentType = ((ContentTypedConfig) resourceConfig).getContentType();
+            if (!Strings.isNullOrEmpty(contentType)) {
+                headers.set(HttpUtil.CONTENT_TYPE, contentType);
+            }
+        }
+
+        final String responseData = responseConfig.getStaticData();
+        return new ResponsePlan(
+                ofNullable(responseConfig.getStatusCode()).orElse(HttpUtil.HTTP_OK),
+                configuredHeaders,
+                headers,
+                responseData,
+                Buffer.buffer(responseData.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    private static boolean isPlannable(ResponseConfig responseConfig) {
+        return nonNull(responseConfig) &&
+                !Strings.isNullOrEmpty(responseConfig.getStaticData()) &&
+                Strings.isNullOrEmpty(responseConfig.getStaticFile()) &&
+                Strings.isNullOrEmpty(responseConfig.getScriptFile()) &&
+                !responseConfig.isTemplate();
+    }
+
+    /**
+     * Determine if the response behaviour is the one described by this plan, such
+     * as when it was not altered by a script or plugin.
+     *
+     * @param responseBehaviour the response behaviour for the current request
+     * @return {@code true} if the plan can be used to send the response, otherwise {@code false}
+     */
+    public boolean isApplicable(ResponseBehaviour responseBehaviour) {
+        return !responseBehaviour.isTemplate() &&
+                Strings.isNullOrEmpty(responseBehaviour.getResponseFile()) &&
+                responseData.equals(responseBehaviour.getResponseData()) &&
+                statusCode == responseBehaviour.getStatusCode() &&
+                configuredHeaders.equals(responseBehaviour.getResponseHeaders());
+    }
+
+    /**
+     * Send the precomputed response. The shared body is not copied.
+     *
+     * @param routingContext the Vert.x routing context
+     */
+    public void send(RoutingContext routingContext) {
+        routingContext.put(ResourceUtil.RESPONSE_BODY_KEY, body);
+
+        final HttpServerResponse response = routingContext.response();
+        response.setStatusCode(statusCode);
+        headers.forEach(header -> response.putHeader(header.getKey(), header.getValue()));
+        response.end(body);
+    }
+
+    public int getLength() {
+        return body.length();
+    }
+}
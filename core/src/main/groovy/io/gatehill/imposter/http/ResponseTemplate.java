@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.http;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.RoutingContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A response template, parsed once into a list of literal chunks and placeholders.
+ * <p>
+ * Placeholders take the form <code>${expression}</code>, or <code>${expression:-default}</code>
+ * to provide a default value. A placeholder is escaped by doubling the dollar, as in <code>$${expression}</code>.
+ * Placeholders that cannot be compiled, or that resolve to {@code null} without a default, are
+ * written as-is.
+ * <p>
+ * Rendering writes each segment into a single {@link Buffer}, with the literal chunks already encoded.
+ * When rendering asynchronously, all placeholders are resolved concurrently before the buffer is written.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public final class ResponseTemplate {
+    private static final String PLACEHOLDER_PREFIX = "${";
+    private static final String PLACEHOLDER_SUFFIX = "}";
+    private static final String DEFAULT_VALUE_DELIMITER = ":-";
+    private static final char ESCAPE_CHAR = '$';
+
+    /**
+     * Estimated size of a resolved placeholder, used to size the output buffer.
+     */
+    private static final int PLACEHOLDER_SIZE_ESTIMATE = 16;
+
+    private final String source;
+    private final List<Segment> segments;
+    private final int placeholderCount;
+    private final int sizeEstimate;
+
+    private ResponseTemplate(String source, List<Segment> segments, int sizeEstimate) {
+        this.source = source;
+        this.segments = segments;
+        this.placeholderCount = (int) segments.stream().filter(s -> s instanceof PlaceholderSegment).count();
+        this.sizeEstimate = sizeEstimate;
+    }
+
+    /**
+     * Parse the template.
+     *
+     * @param source              the template content
+     * @param placeholderCompiler compiles a placeholder expression, returning {@code null} if the expression is not recognised
+     * @return the compiled template
+     */
+    public static ResponseTemplate compile(String source, Function<String, TemplatePlaceholder> placeholderCompiler) {
+        final List<Segment> segments = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        int sizeEstimate = 0;
+
+        int position = 0;
+        while (position < source.length()) {
+            final int prefixIndex = source.indexOf(PLACEHOLDER_PREFIX, position);
+            if (prefixIndex < 0) {
+                break;
+            }
+
+            // escaped placeholder
+            if (prefixIndex > position && source.charAt(prefixIndex - 1) == ESCAPE_CHAR) {
+                literal.append(source, position, prefixIndex - 1).append(PLACEHOLDER_PREFIX);
+                position = prefixIndex + PLACEHOLDER_PREFIX.length();
+                continue;
+            }
+
+            final int suffixIndex = source.indexOf(PLACEHOLDER_SUFFIX, prefixIndex + PLACEHOLDER_PREFIX.length());
+            if (suffixIndex < 0) {
+                break;
+            }
+
+            literal.append(source, position, prefixIndex);
+            final String text = source.substring(prefixIndex, suffixIndex + PLACEHOLDER_SUFFIX.length());
+            final PlaceholderSegment placeholder = compilePlaceholder(
+                    text, source.substring(prefixIndex + PLACEHOLDER_PREFIX.length(), suffixIndex), placeholderCompiler
+            );
+
+            if (nonNull(placeholder)) {
+                if (literal.length() > 0) {
+                    sizeEstimate += addLiteral(segments, literal);
+                }
+                segments.add(placeholder);
+                sizeEstimate += PLACEHOLDER_SIZE_ESTIMATE;
+            } else {
+                literal.append(text);
+            }
+            position = suffixIndex + PLACEHOLDER_SUFFIX.length();
+        }
+
+        literal.append(source, position, source.length());
+        if (literal.length() > 0) {
+            sizeEstimate += addLiteral(segments, literal);
+        }
+        return new ResponseTemplate(source, Collections.unmodifiableList(segments), sizeEstimate);
+    }
+
+    private static PlaceholderSegment compilePlaceholder(
+            String text,
+            String expression,
+            Function<String, TemplatePlaceholder> placeholderCompiler
+    ) {
+        final String defaultValue;
+        final int delimiterIndex = expression.indexOf(DEFAULT_VALUE_DELIMITER);
+        if (delimiterIndex >= 0) {
+            defaultValue = expression.substring(delimiterIndex + DEFAULT_VALUE_DELIMITER.length());
+            expression = expression.substring(0, delimiterIndex);
+        } else {
+            defaultValue = null;
+        }
+
+        final TemplatePlaceholder placeholder = placeholderCompiler.apply(expression);
+        if (isNull(placeholder)) {
+            return null;
+        }
+        return new PlaceholderSegment(placeholder, text, defaultValue);
+    }
+
+    private static int addLiteral(List<Segment> segments, StringBuilder literal) {
+        final Buffer encoded = Buffer.buffer(literal.toString().getBytes(StandardCharsets.UTF_8));
+        segments.add((routingContext, output) -> output.appendBuffer(encoded));
+        literal.setLength(0);
+        return encoded.length();
+    }
+
+    /**
+     * Resolve the placeholders for the current request and write the response body.
+     *
+     * @param routingContext the routing context of the current request
+     * @return the rendered response body
+     */
+    public Buffer render(RoutingContext routingContext) {
+        final Buffer output = Buffer.buffer(sizeEstimate);
+        for (Segment segment : segments) {
+            segment.render(routingContext, output);
+        }
+        return output;
+    }
+
+    /**
+     * Resolve the placeholders for the current request without blocking the calling thread,
+     * then write the response body.
+     *
+     * @param routingContext the routing context of the current request
+     * @return a future for the rendered response body
+     */
+    @SuppressWarnings("rawtypes")
+    public Future<Buffer> renderAsync(RoutingContext routingContext) {
+        if (placeholderCount == 0) {
+            return Future.succeededFuture(render(routingContext));
+        }
+        final List<Future> values = new ArrayList<>(placeholderCount);
+        for (Segment segment : segments) {
+            if (segment instanceof PlaceholderSegment) {
+                values.add(((PlaceholderSegment) segment).placeholder.resolveAsync(routingContext));
+            }
+        }
+        return CompositeFuture.all(values).map(resolved -> {
+            final Buffer output = Buffer.buffer(sizeEstimate);
+            int valueIndex = 0;
+            for (Segment segment : segments) {
+                if (segment instanceof PlaceholderSegment) {
+                    ((PlaceholderSegment) segment).write(resolved.resultAt(valueIndex++), output);
+                } else {
+                    segment.render(routingContext, output);
+                }
+            }
+            return output;
+        });
+    }
+
+    /**
+     * @return the template content from which this template was compiled
+     */
+    public String getSource() {
+        return source;
+    }
+
+    @FunctionalInterface
+    private interface Segment {
+        void render(RoutingContext routingContext, Buffer output);
+    }
+
+    private static class PlaceholderSegment implements Segment {
+        private final TemplatePlaceholder placeholder;
+        private final String text;
+        private final String defaultValue;
+
+        private PlaceholderSegment(TemplatePlaceholder placeholder, String text, String defaultValue) {
+            this.placeholder = placeholder;
+            this.text = text;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        public void render(RoutingContext routingContext, Buffer output) {
+            write(placeholder.resolve(routingContext), output);
+        }
+
+        private void write(Object value, Buffer output) {
+            if (nonNull(value)) {
+                output.appendString(value.toString(), StandardCharsets.UTF_8.name());
+            } else if (nonNull(defaultValue)) {
+                output.appendString(defaultValue, StandardCharsets.UTF_8.name());
+            } else {
+                output.appendString(text, StandardCharsets.UTF_8.name());
+            }
+        }
+    }
+}
@@ -43,6 +43,7 @@
 
 package io.gatehill.imposter.script
 
+import io.gatehill.imposter.http.ParsedRequestBody
 import io.gatehill.imposter.util.CollectionUtil
 import io.gatehill.imposter.util.EnvVars
 import io.vertx.ext.web.RoutingContext
@@ -80,7 +81,7 @@ final class ScriptUtil {
         }
         final pathParamsSupplier = { -> routingContext.pathParams() }
         final queryParamsSupplier = { -> vertxRequest.params().collectEntries() }
-        final bodySupplier = { -> routingContext.getBodyAsString() }
+        final bodySupplier = { -> ParsedRequestBody.forRequest(routingContext).body }
 
         def deprecatedParams = {
             LOGGER.warn("Deprecation notice: 'context.params' is deprecated and will be removed " +
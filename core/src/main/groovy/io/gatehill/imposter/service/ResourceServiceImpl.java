@@ -44,10 +44,11 @@
 package io.gatehill.imposter.service;
 
 import com.google.common.base.Strings;
-import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 import io.gatehill.imposter.ImposterConfig;
 import io.gatehill.imposter.config.ResolvedResourceConfig;
+import io.gatehill.imposter.config.ResolvedResourceIndex;
+import io.gatehill.imposter.http.ParsedRequestBody;
 import io.gatehill.imposter.lifecycle.ImposterLifecycleHooks;
 import io.gatehill.imposter.plugin.config.PluginConfig;
 import io.gatehill.imposter.plugin.config.ResourcesHolder;
@@ -75,13 +76,15 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.inject.Inject;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -132,6 +135,21 @@ public class ResourceServiceImpl implements ResourceService {
         return emptyList();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResolvedResourceIndex indexResourceConfigs(PluginConfig pluginConfig) {
+        final List<ResolvedResourceConfig> resolvedResourceConfigs = resolveResourceConfigs(pluginConfig);
+
+        resolvedResourceConfigs.stream()
+                .map(ResolvedResourceConfig::getConfig)
+                .filter(res -> isNull(res.getMethod()))
+                .forEach(res -> LOGGER.warn("Resource configuration for '{}' is missing HTTP method - will not correctly match response behaviour", res.getPath()));
+
+        return new ResolvedResourceIndex(resolvedResourceConfigs);
+    }
+
     private Map<String, String> findPathParams(ResourceConfig resourceConfig) {
         if (resourceConfig instanceof PathParamsResourceConfig) {
             final Map<String, String> params = ((PathParamsResourceConfig) resourceConfig).getPathParams();
@@ -161,93 +179,68 @@ public class ResourceServiceImpl implements ResourceService {
      */
     @Override
     public Optional<ResponseConfigHolder> matchResourceConfig(
-            List<ResolvedResourceConfig> resources,
+            ResolvedResourceIndex resources,
             HttpMethod method,
             String pathTemplate,
             String path,
             Map<String, String> pathParams,
             Map<String, String> queryParams,
             Map<String, String> requestHeaders,
-            Supplier<String> bodySupplier
+            Function<String, Object> bodyReader
     ) {
         final ResourceMethod resourceMethod = ResourceUtil.convertMethodFromVertx(method);
 
-        List<ResolvedResourceConfig> resourceConfigs = resources.stream()
-                .filter(res -> isRequestMatch(res, resourceMethod, pathTemplate, path, pathParams, queryParams, requestHeaders, bodySupplier))
-                .collect(Collectors.toList());
-
-        // find the most specific, by filtering those that match by those that specify parameters
-        resourceConfigs = filterByPairs(resourceConfigs, ResolvedResourceConfig::getPathParams);
-        resourceConfigs = filterByPairs(resourceConfigs, ResolvedResourceConfig::getQueryParams);
-        resourceConfigs = filterByPairs(resourceConfigs, ResolvedResourceConfig::getRequestHeaders);
+        // candidates are ordered most specific first, so the first match is the best match
+        ResolvedResourceConfig matched = null;
+        boolean ambiguous = false;
+        for (ResolvedResourceConfig candidate : resources.findCandidates(resourceMethod, path, pathTemplate)) {
+            if (nonNull(matched) && candidate.getSpecificity() < matched.getSpecificity()) {
+                break;
+            }
+            if (isRequestMatch(candidate, pathParams, queryParams, requestHeaders, bodyReader)) {
+                if (isNull(matched)) {
+                    matched = candidate;
+                } else {
+                    ambiguous = true;
+                    break;
+                }
+            }
+        }
 
-        if (resourceConfigs.isEmpty()) {
+        if (isNull(matched)) {
             return empty();
         }
 
-        if (resourceConfigs.size() == 1) {
+        if (!ambiguous) {
             LOGGER.debug("Matched response config for {} {}", resourceMethod, path);
         } else {
             LOGGER.warn("More than one response config found for {} {} - this is probably a configuration error. Choosing first response configuration.", resourceMethod, path);
         }
-        return of(resourceConfigs.get(0).getConfig());
-    }
-
-    private List<ResolvedResourceConfig> filterByPairs(
-            List<ResolvedResourceConfig> resourceConfigs,
-            Function<ResolvedResourceConfig, Map<String, String>> pairsSupplier
-    ) {
-        final List<ResolvedResourceConfig> configsWithPairs = resourceConfigs.stream()
-                .filter(res -> !pairsSupplier.apply(res).isEmpty())
-                .collect(Collectors.toList());
-
-        if (configsWithPairs.isEmpty()) {
-            // no resource configs specified params - don't filter
-            return resourceConfigs;
-        } else {
-            return configsWithPairs;
-        }
+        return of(matched.getConfig());
     }
 
     /**
-     * Determine if the resource configuration matches the current request.
+     * Determine if the resource configuration matches the current request. The HTTP method
+     * and path are not checked, as these are determined by the {@link ResolvedResourceIndex}.
      *
      * @param resource       the resource configuration
-     * @param resourceMethod the HTTP method of the current request
-     * @param pathTemplate   request path template
-     * @param path           the path of the current request
      * @param pathParams     the path parameters of the current request
      * @param queryParams    the query parameters of the current request
      * @param requestHeaders the headers of the current request
-     * @param bodySupplier   supplies the request body
+     * @param bodyReader     reads values from the request body
      * @return {@code true} if the resource matches the request, otherwise {@code false}
      */
     private boolean isRequestMatch(
             ResolvedResourceConfig resource,
-            ResourceMethod resourceMethod,
-            String pathTemplate,
-            String path,
             Map<String, String> pathParams,
             Map<String, String> queryParams,
             Map<String, String> requestHeaders,
-            Supplier<String> bodySupplier
+            Function<String, Object> bodyReader
     ) {
-        final RestResourceConfig resourceConfig = resource.getConfig();
-
-        // path template can be null when a regex route is used
-        final boolean pathMatch = path.equals(resourceConfig.getPath()) ||
-                ofNullable(pathTemplate).map(pt -> pt.equals(resourceConfig.getPath())).orElse(false);
-
-        if (isNull(resourceConfig.getMethod())) {
-            LOGGER.warn("Resource configuration for '{}' is missing HTTP method - will not correctly match response behaviour", resourceConfig.getPath());
-        }
-
-        return pathMatch &&
-                resourceMethod.equals(resourceConfig.getMethod()) &&
-                matchPairs(pathParams, resource.getPathParams(), true) &&
+        return matchPairs(pathParams, resource.getPathParams(), true) &&
                 matchPairs(queryParams, resource.getQueryParams(), true) &&
                 matchPairs(requestHeaders, resource.getRequestHeaders(), false) &&
-                matchRequestBody(bodySupplier, resource.getConfig().getRequestBody());
+                matchRequestBody(bodyReader, resource.getConfig().getRequestBody());
     }
 
     /**
@@ -283,28 +276,32 @@ public class ResourceServiceImpl implements ResourceService {
     /**
      * Match the request body against the supplied configuration.
      *
-     * @param bodySupplier      supplies the request body
+     * @param bodyReader        reads values from the request body
      * @param requestBodyConfig the match configuration
      * @return {@code true} if the configuration is empty, or the request body matches the configuration, otherwise {@code false}
      */
-    private boolean matchRequestBody(Supplier<String> bodySupplier, RequestBodyConfig requestBodyConfig) {
+    private boolean matchRequestBody(Function<String, Object> bodyReader, RequestBodyConfig requestBodyConfig) {
         // none configured - implies any match
         if (isNull(requestBodyConfig) || Strings.isNullOrEmpty(requestBodyConfig.getJsonPath())) {
             return true;
         }
-        final String body = bodySupplier.get();
+        final Object bodyValue = bodyReader.apply(requestBodyConfig.getJsonPath());
+        return StringUtil.safeEquals(requestBodyConfig.getValue(), bodyValue);
+    }
 
-        Object bodyValue;
-        if (Strings.isNullOrEmpty(body)) {
-            bodyValue = null;
-        } else {
-            try {
-                bodyValue = JsonPath.read(body, requestBodyConfig.getJsonPath());
-            } catch (PathNotFoundException ignored) {
-                bodyValue = null;
-            }
+    /**
+     * Read the value at the JsonPath expression from the request body.
+     *
+     * @param routingContext the routing context of the request
+     * @param jsonPath       the JsonPath expression
+     * @return the value, or {@code null} if the request has no body or the path does not exist
+     */
+    private Object readRequestBody(RoutingContext routingContext, String jsonPath) {
+        try {
+            return ParsedRequestBody.forRequest(routingContext).readJsonPath(jsonPath);
+        } catch (PathNotFoundException ignored) {
+            return null;
         }
-        return StringUtil.safeEquals(requestBodyConfig.getValue(), bodyValue);
     }
 
     /**
@@ -331,43 +328,136 @@ public class ResourceServiceImpl implements ResourceService {
             Vertx vertx,
             Consumer<RoutingContext> routingContextConsumer
     ) {
-        final List<ResolvedResourceConfig> resolvedResourceConfigs = resolveResourceConfigs(pluginConfig);
+        final ResolvedResourceIndex resolvedResourceConfigs = indexResourceConfigs(pluginConfig);
 
         switch (imposterConfig.getRequestHandlingMode()) {
             case SYNC:
-                return routingContext -> {
-                    try {
-                        handleResource(pluginConfig, routingContextConsumer, routingContext, resolvedResourceConfigs);
-                    } catch (Exception e) {
-                        handleFailure(routingContext, e);
-                    }
-                };
+                return routingContext -> handleSync(pluginConfig, routingContextConsumer, routingContext, resolvedResourceConfigs);
 
             case ASYNC:
-                return routingContext -> {
-                    final Handler<Future<Object>> handler = future -> {
-                        try {
-                            handleResource(pluginConfig, routingContextConsumer, routingContext, resolvedResourceConfigs);
-                            future.complete();
-                        } catch (Exception e) {
-                            future.fail(e);
-                        }
-                    };
-
-                    // explicitly disable ordered execution - responses should not block each other
-                    // as this causes head of line blocking performance issues
-                    vertx.getOrCreateContext().executeBlocking(handler, false, result -> {
-                        if (result.failed()) {
-                            handleFailure(routingContext, result.cause());
-                        }
-                    });
-                };
+                return routingContext -> handleAsync(pluginConfig, vertx, routingContextConsumer, routingContext, resolvedResourceConfigs);
+
+            case HYBRID:
+                return buildHybridHandler(pluginConfig, vertx, routingContextConsumer, resolvedResourceConfigs);
 
             default:
                 throw new UnsupportedOperationException("Unsupported request handling mode: " + imposterConfig.getRequestHandlingMode());
         }
     }
 
+    private void handleSync(
+            PluginConfig pluginConfig,
+            Consumer<RoutingContext> routingContextConsumer,
+            RoutingContext routingContext,
+            ResolvedResourceIndex resolvedResourceConfigs
+    ) {
+        try {
+            handleResource(pluginConfig, routingContextConsumer, routingContext, resolvedResourceConfigs);
+        } catch (Exception e) {
+            handleFailure(routingContext, e);
+        }
+    }
+
+    private void handleAsync(
+            PluginConfig pluginConfig,
+            Vertx vertx,
+            Consumer<RoutingContext> routingContextConsumer,
+            RoutingContext routingContext,
+            ResolvedResourceIndex resolvedResourceConfigs
+    ) {
+        executeOnWorker(vertx, routingContext, () ->
+                handleResource(pluginConfig, routingContextConsumer, routingContext, resolvedResourceConfigs)
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void executeOnWorker(Vertx vertx, RoutingContext routingContext, Runnable runnable) {
+        final Handler<Future<Object>> handler = future -> {
+            try {
+                runnable.run();
+                future.complete();
+            } catch (Exception e) {
+                future.fail(e);
+            }
+        };
+
+        // explicitly disable ordered execution - responses should not block each other
+        // as this causes head of line blocking performance issues
+        vertx.getOrCreateContext().executeBlocking(handler, false, result -> {
+            if (result.failed()) {
+                handleFailure(routingContext, result.cause());
+            }
+        });
+    }
+
+    /**
+     * Determines which resources might block when the route is built, so requests for other
+     * resources can be handled on the event loop, avoiding the cost of a worker thread hand-off.
+     */
+    private Handler<RoutingContext> buildHybridHandler(
+            PluginConfig pluginConfig,
+            Vertx vertx,
+            Consumer<RoutingContext> routingContextConsumer,
+            ResolvedResourceIndex resolvedResourceConfigs
+    ) {
+        final Set<ResponseConfigHolder> blockingConfigs = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        final ResponseConfigHolder rootResourceConfig = (ResponseConfigHolder) pluginConfig;
+        if (isBlockingRequired(pluginConfig, rootResourceConfig)) {
+            blockingConfigs.add(rootResourceConfig);
+        }
+        resolvedResourceConfigs.getResources().stream()
+                .map(ResolvedResourceConfig::getConfig)
+                .filter(resourceConfig -> isBlockingRequired(pluginConfig, resourceConfig))
+                .forEach(blockingConfigs::add);
+
+        if (blockingConfigs.isEmpty()) {
+            return routingContext -> handleSync(pluginConfig, routingContextConsumer, routingContext, resolvedResourceConfigs);
+        }
+
+        return routingContext -> {
+            final ResponseConfigHolder resourceConfig;
+            try {
+                resourceConfig = selectResourceConfig(pluginConfig, routingContext, resolvedResourceConfigs);
+            } catch (Exception e) {
+                handleFailure(routingContext, e);
+                return;
+            }
+
+            if (blockingConfigs.contains(resourceConfig)) {
+                executeOnWorker(vertx, routingContext, () ->
+                        handleResource(pluginConfig, routingContextConsumer, routingContext, resolvedResourceConfigs, resourceConfig)
+                );
+            } else {
+                try {
+                    handleResource(pluginConfig, routingContextConsumer, routingContext, resolvedResourceConfigs, resourceConfig);
+                } catch (Exception e) {
+                    handleFailure(routingContext, e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Determine if handling a request for the resource might block, such as
+     * when executing a script, or reading a response file.
+     *
+     * @param pluginConfig   the plugin configuration
+     * @param resourceConfig the resource configuration
+     * @return {@code true} if the request must be handled on a worker thread, otherwise {@code false}
+     */
+    private boolean isBlockingRequired(PluginConfig pluginConfig, ResponseConfigHolder resourceConfig) {
+        final boolean scriptedOrFile = ofNullable(resourceConfig.getResponseConfig())
+                .map(responseConfig -> !Strings.isNullOrEmpty(responseConfig.getScriptFile()) ||
+                        !Strings.isNullOrEmpty(responseConfig.getStaticFile()))
+                .orElse(false);
+
+        return scriptedOrFile || lifecycleHooks.anyMatch(listener -> listener.isBlockingRequired(pluginConfig, resourceConfig));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -404,7 +494,21 @@ public class ResourceServiceImpl implements ResourceService {
             PluginConfig pluginConfig,
             Consumer<RoutingContext> routingContextConsumer,
             RoutingContext routingContext,
-            List<ResolvedResourceConfig> resolvedResourceConfigs
+            ResolvedResourceIndex resolvedResourceConfigs
+    ) {
+        final ResponseConfigHolder resourceConfig = selectResourceConfig(pluginConfig, routingContext, resolvedResourceConfigs);
+        handleResource(pluginConfig, routingContextConsumer, routingContext, resolvedResourceConfigs, resourceConfig);
+    }
+
+    /**
+     * Assigns the request an ID and determines the resource configuration for the request.
+     *
+     * @return the matched resource configuration, or the root resource configuration if none matched
+     */
+    private ResponseConfigHolder selectResourceConfig(
+            PluginConfig pluginConfig,
+            RoutingContext routingContext,
+            ResolvedResourceIndex resolvedResourceConfigs
     ) {
         // every request has a unique ID
         final String requestId = UUID.randomUUID().toString();
@@ -417,21 +521,35 @@ public class ResourceServiceImpl implements ResourceService {
         final ResponseConfigHolder rootResourceConfig = (ResponseConfigHolder) pluginConfig;
 
         final HttpServerRequest request = routingContext.request();
+        final String routePath = ofNullable(routingContext.<String>get(ResourceUtil.ROUTE_PATH_KEY))
+                .orElseGet(() -> routingContext.currentRoute().getPath());
+
         final ResponseConfigHolder resourceConfig = matchResourceConfig(
                 resolvedResourceConfigs,
                 request.method(),
-                routingContext.currentRoute().getPath(),
+                routePath,
                 request.path(),
                 routingContext.pathParams(),
                 convertMultiMapToHashMap(request.params()),
                 convertMultiMapToHashMap(request.headers()),
-                routingContext::getBodyAsString
+                jsonPath -> readRequestBody(routingContext, jsonPath)
         ).orElse(rootResourceConfig);
 
         // allows plugins to customise behaviour
         routingContext.put(ResourceUtil.RESPONSE_CONFIG_HOLDER_KEY, resourceConfig);
+        return resourceConfig;
+    }
+
+    private void handleResource(
+            PluginConfig pluginConfig,
+            Consumer<RoutingContext> routingContextConsumer,
+            RoutingContext routingContext,
+            ResolvedResourceIndex resolvedResourceConfigs,
+            ResponseConfigHolder resourceConfig
+    ) {
+        final ResponseConfigHolder rootResourceConfig = (ResponseConfigHolder) pluginConfig;
 
-        if (lifecycleHooks.allMatch(listener -> listener.isRequestPermitted(rootResourceConfig, resourceConfig, resolvedResourceConfigs, routingContext))) {
+        if (lifecycleHooks.allMatch(listener -> listener.isRequestPermitted(rootResourceConfig, resourceConfig, resolvedResourceConfigs.getResources(), routingContext))) {
             // request is permitted to continue
             try {
                 routingContextConsumer.accept(routingContext);
@@ -440,7 +558,7 @@ public class ResourceServiceImpl implements ResourceService {
                 lifecycleHooks.forEach(listener -> listener.afterRoutingContextHandled(routingContext));
             }
         } else {
-            LOGGER.trace("Request {} was not permitted to continue", LogUtil.describeRequest(routingContext, requestId));
+            LOGGER.trace("Request {} was not permitted to continue", LogUtil.describeRequest(routingContext, routingContext.get(ResourceUtil.RC_REQUEST_ID_KEY)));
         }
     }
 
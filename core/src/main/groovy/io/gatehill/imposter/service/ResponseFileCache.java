@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+import io.gatehill.imposter.http.ResponseTemplate;
+import io.vertx.core.buffer.Buffer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Caches the contents of response files, up to a maximum total size in bytes.
+ * Templates are compiled on first use and cached with the file contents.
+ * <p>
+ * The directory containing each cached file is watched, and entries are
+ * invalidated when their files change.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class ResponseFileCache {
+    private static final Logger LOGGER = LogManager.getLogger(ResponseFileCache.class);
+
+    private final long maxBytes;
+    private final Cache<Path, CachedFile> cache;
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final Set<Path> watchedDirs = ConcurrentHashMap.newKeySet();
+    private WatchService watchService;
+
+    public ResponseFileCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.cache = CacheBuilder.newBuilder()
+                // the maximum weight is divided between segments, so a single segment
+                // ensures any file up to the maximum size can be held
+                .concurrencyLevel(1)
+                .maximumWeight(maxBytes)
+                .weigher((Path path, CachedFile file) -> file.contents.length())
+                .removalListener((RemovalListener<Path, CachedFile>) notification ->
+                        totalBytes.addAndGet(-notification.getValue().contents.length())
+                )
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Load the contents of the file, from the cache if present.
+     *
+     * @param path the path of the file
+     * @return the file contents
+     */
+    public Buffer load(Path path) throws ExecutionException {
+        return loadFile(path).contents;
+    }
+
+    /**
+     * Load the template compiled from the contents of the file, compiling it if this is
+     * the first use of the cached contents.
+     *
+     * @param path     the path of the file
+     * @param compiler compiles the template from the file contents
+     * @return the compiled template
+     */
+    public ResponseTemplate loadTemplate(Path path, Function<String, ResponseTemplate> compiler) throws ExecutionException {
+        final CachedFile file = loadFile(path);
+        ResponseTemplate template = file.template;
+        if (isNull(template)) {
+            // concurrent compilation is harmless, as the result is the same
+            template = compiler.apply(file.contents.toString(StandardCharsets.UTF_8));
+            file.template = template;
+        }
+        return template;
+    }
+
+    private CachedFile loadFile(Path path) throws ExecutionException {
+        final Path normalisedPath = path.toAbsolutePath().normalize();
+        return cache.get(normalisedPath, () -> readFile(normalisedPath));
+    }
+
+    /**
+     * Load the contents of the file, from the cache if present, unless the file is
+     * larger than the cache, in which case it should be streamed instead.
+     *
+     * @param path the path of the file
+     * @return the file contents, or {@code null} if the file is too large to cache
+     */
+    public Buffer loadIfCacheable(Path path) throws ExecutionException {
+        final Path normalisedPath = path.toAbsolutePath().normalize();
+        try {
+            // check the size in the loader, so each lookup is only counted once in the stats
+            return cache.get(normalisedPath, () -> {
+                if (Files.size(normalisedPath) > maxBytes) {
+                    throw new FileTooLargeException();
+                }
+                return readFile(normalisedPath);
+            }).contents;
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof FileTooLargeException) {
+                LOGGER.trace("Response file {} is larger than the cache - skipping cache", normalisedPath);
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private CachedFile readFile(Path path) throws IOException {
+        // watch before reading, so changes made while reading are not missed
+        watch(path.getParent());
+
+        final Buffer contents = Buffer.buffer(Files.readAllBytes(path));
+        totalBytes.addAndGet(contents.length());
+        LOGGER.trace("Cached response file {} ({} bytes)", path, contents.length());
+        return new CachedFile(contents);
+    }
+
+    private void watch(Path dir) {
+        if (!watchedDirs.add(dir)) {
+            return;
+        }
+        try {
+            dir.register(
+                    getWatchService(),
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE
+            );
+            LOGGER.trace("Watching response file directory: {}", dir);
+        } catch (IOException e) {
+            watchedDirs.remove(dir);
+            LOGGER.warn("Unable to watch response file directory: {} - changes to its files will not be detected", dir, e);
+        }
+    }
+
+    private synchronized WatchService getWatchService() throws IOException {
+        if (isNull(watchService)) {
+            watchService = FileSystems.getDefault().newWatchService();
+
+            final Thread watcher = new Thread(this::processEvents, "imposter-response-file-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+        return watchService;
+    }
+
+    private void processEvents() {
+        while (true) {
+            final WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            final Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (StandardWatchEventKinds.OVERFLOW.equals(event.kind())) {
+                    LOGGER.trace("Events lost for response file directory: {} - invalidating its files", dir);
+                    cache.asMap().keySet().removeIf(path -> dir.equals(path.getParent()));
+                } else {
+                    final Path changed = dir.resolve((Path) event.context());
+                    LOGGER.trace("Response file changed: {}", changed);
+                    cache.invalidate(changed);
+                }
+            }
+
+            if (!key.reset()) {
+                // directory no longer accessible
+                watchedDirs.remove(dir);
+                cache.asMap().keySet().removeIf(path -> dir.equals(path.getParent()));
+            }
+        }
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Indicates that a file should be streamed, rather than cached.
+     */
+    private static class FileTooLargeException extends Exception {
+        private FileTooLargeException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static class CachedFile {
+        private final Buffer contents;
+        private volatile ResponseTemplate template;
+
+        private CachedFile(Buffer contents) {
+            this.contents = contents;
+        }
+    }
+}
@@ -47,10 +47,15 @@ import com.google.common.base.Strings;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.inject.Injector;
+import io.gatehill.imposter.ImposterConfig;
 import io.gatehill.imposter.exception.ResponseException;
 import io.gatehill.imposter.http.ResponseBehaviourFactory;
+import io.gatehill.imposter.http.ResponsePlan;
+import io.gatehill.imposter.http.ResponseTemplate;
 import io.gatehill.imposter.http.StatusCodeFactory;
+import io.gatehill.imposter.http.TemplatePlaceholder;
 import io.gatehill.imposter.lifecycle.ImposterLifecycleHooks;
+import io.gatehill.imposter.lifecycle.ImposterLifecycleListener;
 import io.gatehill.imposter.plugin.config.ContentTypedConfig;
 import io.gatehill.imposter.plugin.config.PluginConfig;
 import io.gatehill.imposter.plugin.config.ResourcesHolder;
@@ -65,46 +70,55 @@ import io.gatehill.imposter.util.EnvVars;
 import io.gatehill.imposter.util.HttpUtil;
 import io.gatehill.imposter.util.LogUtil;
 import io.gatehill.imposter.util.MetricsUtil;
+import io.gatehill.imposter.util.ResourceUtil;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.http.impl.MimeMapping;
 import io.vertx.core.json.JsonArray;
+import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
-import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.inject.Inject;
-import java.io.File;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
 
 /**
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
-public class ResponseServiceImpl implements ResponseService {
+public class ResponseServiceImpl implements ResponseService, ImposterLifecycleListener {
     private static final Logger LOGGER = LogManager.getLogger(ResponseServiceImpl.class);
-    private static final String ENV_RESPONSE_FILE_CACHE_ENTRIES = "IMPOSTER_RESPONSE_FILE_CACHE_ENTRIES";
-    private static final int DEFAULT_RESPONSE_FILE_CACHE_ENTRIES = 20;
+    private static final String ENV_RESPONSE_FILE_CACHE_MAX_BYTES = "IMPOSTER_RESPONSE_FILE_CACHE_MAX_BYTES";
+    private static final long DEFAULT_RESPONSE_FILE_CACHE_MAX_BYTES = 50 * 1024 * 1024;
     private static final String METRIC_RESPONSE_FILE_CACHE_ENTRIES = "response.file.cache.entries";
+    private static final String METRIC_RESPONSE_FILE_CACHE_BYTES = "response.file.cache.bytes";
+    private static final String METRIC_RESPONSE_FILE_CACHE_HITS = "response.file.cache.hits";
+    private static final String METRIC_RESPONSE_FILE_CACHE_MISSES = "response.file.cache.misses";
+    private static final String METRIC_RESPONSE_FILE_CACHE_EVICTIONS = "response.file.cache.evictions";
 
-    @Inject
-    private ImposterLifecycleHooks lifecycleHooks;
+    private final ImposterLifecycleHooks lifecycleHooks;
 
     @Inject
     private ScriptedResponseService scriptedResponseService;
@@ -113,19 +127,86 @@ public class ResponseServiceImpl implements ResponseService {
     private Vertx vertx;
 
     /**
-     * Holds response files, with maximum number of entries determined by the environment
-     * variable {@link #ENV_RESPONSE_FILE_CACHE_ENTRIES}.
+     * Holds response files, with maximum total size in bytes determined by the environment
+     * variable {@link #ENV_RESPONSE_FILE_CACHE_MAX_BYTES}.
+     */
+    private final ResponseFileCache responseFileCache = new ResponseFileCache(
+            ofNullable(EnvVars.getEnv(ENV_RESPONSE_FILE_CACHE_MAX_BYTES)).map(Long::parseLong).orElse(DEFAULT_RESPONSE_FILE_CACHE_MAX_BYTES)
+    );
+
+    /**
+     * Holds precomputed responses for resources with static response data.
+     */
+    private final Cache<ResourceConfig, ResponsePlan> responsePlans = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    /**
+     * Holds compiled templates for resources with templated response data.
+     * Templates for response files are held by the {@link #responseFileCache}.
      */
-    private final Cache<Path, String> responseFileCache = CacheBuilder.newBuilder()
-            .maximumSize(ofNullable(EnvVars.getEnv(ENV_RESPONSE_FILE_CACHE_ENTRIES)).map(Integer::parseInt).orElse(DEFAULT_RESPONSE_FILE_CACHE_ENTRIES))
+    private final Cache<ResourceConfig, ResponseTemplate> dataTemplates = CacheBuilder.newBuilder()
+            .weakKeys()
             .build();
 
+    /**
+     * Whether each listener class overrides the deprecated
+     * {@link ImposterLifecycleListener#beforeTransmittingTemplate(RoutingContext, String)}.
+     */
+    private final Map<Class<?>, Boolean> templateTransformers = new ConcurrentHashMap<>();
+
     @Inject
-    public ResponseServiceImpl() {
-        MetricsUtil.doIfMetricsEnabled(METRIC_RESPONSE_FILE_CACHE_ENTRIES, registry ->
-                Gauge.builder(METRIC_RESPONSE_FILE_CACHE_ENTRIES, responseFileCache::size)
-                        .description("The number of cached response files")
-                        .register(registry)
+    public ResponseServiceImpl(ImposterLifecycleHooks lifecycleHooks) {
+        this.lifecycleHooks = lifecycleHooks;
+        lifecycleHooks.registerListener(this);
+
+        MetricsUtil.doIfMetricsEnabled(METRIC_RESPONSE_FILE_CACHE_ENTRIES, registry -> {
+            Gauge.builder(METRIC_RESPONSE_FILE_CACHE_ENTRIES, responseFileCache::size)
+                    .description("The number of cached response files")
+                    .register(registry);
+
+            Gauge.builder(METRIC_RESPONSE_FILE_CACHE_BYTES, responseFileCache::getTotalBytes)
+                    .description("The total size in bytes of cached response files")
+                    .baseUnit("bytes")
+                    .register(registry);
+
+            FunctionCounter.builder(METRIC_RESPONSE_FILE_CACHE_HITS, responseFileCache, cache -> cache.stats().hitCount())
+                    .description("The number of response file loads served from the cache")
+                    .register(registry);
+
+            FunctionCounter.builder(METRIC_RESPONSE_FILE_CACHE_MISSES, responseFileCache, cache -> cache.stats().missCount())
+                    .description("The number of response file loads read from disk")
+                    .register(registry);
+
+            FunctionCounter.builder(METRIC_RESPONSE_FILE_CACHE_EVICTIONS, responseFileCache, cache -> cache.stats().evictionCount())
+                    .description("The number of response files evicted from the cache to stay within its size limit")
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Precompute responses for resources with static response data.
+     */
+    @Override
+    public void afterRoutesConfigured(ImposterConfig imposterConfig, List<PluginConfig> allPluginConfigs, Router router) {
+        allPluginConfigs.forEach(pluginConfig -> {
+            if (pluginConfig instanceof ResponseConfigHolder) {
+                planResponse((ResponseConfigHolder) pluginConfig);
+            }
+            if (pluginConfig instanceof ResourcesHolder) {
+                ofNullable(((ResourcesHolder<?>) pluginConfig).getResources()).ifPresent(resources ->
+                        resources.forEach(this::planResponse)
+                );
+            }
+        });
+    }
+
+    private void planResponse(ResponseConfigHolder resourceConfig) {
+        if (nonNull(responsePlans.getIfPresent(resourceConfig))) {
+            return;
+        }
+        ofNullable(ResponsePlan.build(resourceConfig)).ifPresent(plan ->
+                responsePlans.put(resourceConfig, plan)
         );
     }
 
@@ -140,9 +221,58 @@ public class ResponseServiceImpl implements ResponseService {
             ResponseBehaviourFactory responseBehaviourFactory,
             Consumer<ResponseBehaviour> defaultBehaviourHandler
     ) {
+        final boolean onWorker = Context.isOnWorkerThread();
+
+        invokeBeforeBuildingResponse(routingContext, resourceConfig).setHandler(ready -> {
+            if (ready.failed()) {
+                final String msg = String.format("Error preparing mock response for %s", LogUtil.describeRequest(routingContext));
+                LOGGER.error(msg, ready.cause());
+                routingContext.fail(new ResponseException(msg, ready.cause()));
+
+            } else if (onWorker && !Context.isOnWorkerThread()) {
+                // a listener completed asynchronously - resume on a worker, as building the response might block
+                routingContext.vertx().executeBlocking(future -> {
+                    respond(pluginConfig, resourceConfig, routingContext, additionalContext, statusCodeFactory, responseBehaviourFactory, defaultBehaviourHandler);
+                    future.complete();
+                }, false, result -> {
+                    // errors are handled by respond
+                });
+
+            } else {
+                respond(pluginConfig, resourceConfig, routingContext, additionalContext, statusCodeFactory, responseBehaviourFactory, defaultBehaviourHandler);
+            }
+        });
+    }
+
+    /**
+     * Invoke each listener before building the response.
+     *
+     * @return a future that completes when all listeners are ready
+     */
+    @SuppressWarnings("rawtypes")
+    private Future<Void> invokeBeforeBuildingResponse(RoutingContext routingContext, ResponseConfigHolder resourceConfig) {
+        if (lifecycleHooks.isEmpty()) {
+            return Future.succeededFuture();
+        }
+        final List<Future> listenerFutures = new ArrayList<>();
         try {
-            lifecycleHooks.forEach(listener -> listener.beforeBuildingResponse(routingContext, resourceConfig));
+            lifecycleHooks.forEach(listener -> listenerFutures.add(listener.beforeBuildingResponse(routingContext, resourceConfig)));
+        } catch (Exception e) {
+            return Future.failedFuture(e);
+        }
+        return CompositeFuture.all(listenerFutures).mapEmpty();
+    }
 
+    private void respond(
+            PluginConfig pluginConfig,
+            ResponseConfigHolder resourceConfig,
+            RoutingContext routingContext,
+            Map<String, Object> additionalContext,
+            StatusCodeFactory statusCodeFactory,
+            ResponseBehaviourFactory responseBehaviourFactory,
+            Consumer<ResponseBehaviour> defaultBehaviourHandler
+    ) {
+        try {
             final ResponseBehaviour responseBehaviour = buildResponseBehaviour(
                     routingContext,
                     pluginConfig,
@@ -287,6 +417,17 @@ public class ResponseServiceImpl implements ResponseService {
                 responseBehaviour.getStatusCode());
 
         try {
+            final ResponsePlan responsePlan = responsePlans.getIfPresent(resourceConfig);
+            if (nonNull(responsePlan) && responsePlan.isApplicable(responseBehaviour)) {
+                LOGGER.info("Serving response data ({} bytes) for URI {} with status code {}",
+                        responsePlan.getLength(),
+                        routingContext.request().absoluteURI(),
+                        responseBehaviour.getStatusCode());
+
+                responsePlan.send(routingContext);
+                return;
+            }
+
             final HttpServerResponse response = routingContext.response();
             response.setStatusCode(responseBehaviour.getStatusCode());
 
@@ -331,12 +472,22 @@ public class ResponseServiceImpl implements ResponseService {
         final Path normalisedPath = normalisePath(pluginConfig, responseBehaviour.getResponseFile());
 
         if (responseBehaviour.isTemplate()) {
-            final String responseData = responseFileCache.get(normalisedPath, () ->
-                    FileUtils.readFileToString(normalisedPath.toFile(), StandardCharsets.UTF_8)
-            );
-            writeResponseData(resourceConfig, routingContext, normalisedPath.getFileName().toString(), responseData);
+            final ResponseTemplate template = responseFileCache.loadTemplate(normalisedPath, this::compileTemplate);
+            writeResponseTemplate(resourceConfig, routingContext, normalisedPath.getFileName().toString(), template);
         } else {
-            response.sendFile(normalisedPath.toString());
+            final Buffer contents = responseFileCache.loadIfCacheable(normalisedPath);
+            if (nonNull(contents)) {
+                // as per sendFile, infer content type from the file name
+                if (!response.headers().contains(HttpUtil.CONTENT_TYPE)) {
+                    ofNullable(MimeMapping.getMimeTypeForFilename(normalisedPath.getFileName().toString()))
+                            .ifPresent(contentType -> response.putHeader(HttpUtil.CONTENT_TYPE, contentType));
+                }
+                routingContext.put(ResourceUtil.RESPONSE_BODY_KEY, contents);
+                response.end(contents);
+            } else {
+                routingContext.put(ResourceUtil.RESPONSE_BODY_STREAMED_KEY, true);
+                response.sendFile(normalisedPath.toString());
+            }
         }
     }
 
@@ -358,34 +509,117 @@ public class ResponseServiceImpl implements ResponseService {
                 routingContext.request().absoluteURI(),
                 routingContext.response().getStatusCode());
 
-        writeResponseData(resourceConfig, routingContext, null, responseBehaviour.getResponseData());
+        final String responseData = responseBehaviour.getResponseData();
+        if (responseBehaviour.isTemplate()) {
+            writeResponseTemplate(resourceConfig, routingContext, null, loadDataTemplate(resourceConfig, responseData));
+        } else {
+            final HttpServerResponse response = routingContext.response();
+            setContentTypeIfAbsent(resourceConfig, response, null);
+            final Buffer body = Buffer.buffer(responseData);
+            routingContext.put(ResourceUtil.RESPONSE_BODY_KEY, body);
+            response.end(body);
+        }
     }
 
     /**
-     * Write the response data, optionally resolving placeholders if templating is enabled.
+     * Load the compiled template for the response data. The template is cached if the
+     * data is the static data of the resource, otherwise, such as when the data is set
+     * by a script, it is compiled for this request only.
      *
-     * @param routingContext the Vert.x routing context
-     * @param responseData   the data
+     * @param resourceConfig the resource configuration
+     * @param responseData   the response data
+     * @return the compiled template
      */
-    private void writeResponseData(
+    private ResponseTemplate loadDataTemplate(ResourceConfig resourceConfig, String responseData) {
+        final ResponseTemplate cached = dataTemplates.getIfPresent(resourceConfig);
+        if (nonNull(cached) && cached.getSource().equals(responseData)) {
+            return cached;
+        }
+        final ResponseTemplate template = compileTemplate(responseData);
+        if (resourceConfig instanceof ResponseConfigHolder && responseData.equals(
+                ((ResponseConfigHolder) resourceConfig).getResponseConfig().getStaticData())) {
+            dataTemplates.put(resourceConfig, template);
+        }
+        return template;
+    }
+
+    /**
+     * Compile the template, with each placeholder compiled by the first listener that recognises it.
+     *
+     * @param source the template content
+     * @return the compiled template
+     */
+    private ResponseTemplate compileTemplate(String source) {
+        return ResponseTemplate.compile(source, placeholder -> {
+            final AtomicReference<TemplatePlaceholder> compiled = new AtomicReference<>();
+            lifecycleHooks.forEach(listener -> {
+                if (isNull(compiled.get())) {
+                    compiled.set(listener.compileTemplatePlaceholder(placeholder));
+                }
+            });
+            return compiled.get();
+        });
+    }
+
+    /**
+     * Write the response, once the placeholders in the template have been resolved.
+     *
+     * @param resourceConfig             the resource configuration
+     * @param routingContext             the Vert.x routing context
+     * @param filenameHintForContentType the file name from which to infer the content type, if not set
+     * @param template                   the compiled template
+     */
+    private void writeResponseTemplate(
             ResourceConfig resourceConfig,
             RoutingContext routingContext,
             String filenameHintForContentType,
-            String responseData
+            ResponseTemplate template
     ) {
         final HttpServerResponse response = routingContext.response();
         setContentTypeIfAbsent(resourceConfig, response, filenameHintForContentType);
 
-        // listeners may transform response data
-        if (!lifecycleHooks.isEmpty()) {
-            final AtomicReference<String> dataHolder = new AtomicReference<>(responseData);
-            lifecycleHooks.forEach(listener ->
-                    dataHolder.set(listener.beforeTransmittingTemplate(routingContext, dataHolder.get()))
-            );
-            responseData = dataHolder.get();
+        template.renderAsync(routingContext).setHandler(rendered -> {
+            if (rendered.succeeded()) {
+                final Buffer body = transformTemplate(routingContext, rendered.result());
+                routingContext.put(ResourceUtil.RESPONSE_BODY_KEY, body);
+                response.end(body);
+            } else {
+                routingContext.fail(new ResponseException(String.format(
+                        "Error rendering response template for %s", LogUtil.describeRequest(routingContext)), rendered.cause()));
+            }
+        });
+    }
+
+    /**
+     * Listeners implementing the deprecated
+     * {@link ImposterLifecycleListener#beforeTransmittingTemplate(RoutingContext, String)} may
+     * transform the rendered template. The rendered content is only decoded if such a listener exists.
+     *
+     * @param routingContext the Vert.x routing context
+     * @param rendered       the rendered template
+     * @return the transformed content
+     */
+    @SuppressWarnings("deprecation")
+    private Buffer transformTemplate(RoutingContext routingContext, Buffer rendered) {
+        if (!lifecycleHooks.anyMatch(this::isTemplateTransformer)) {
+            return rendered;
         }
+        final AtomicReference<String> dataHolder = new AtomicReference<>(rendered.toString());
+        lifecycleHooks.forEach(listener ->
+                dataHolder.set(listener.beforeTransmittingTemplate(routingContext, dataHolder.get()))
+        );
+        return Buffer.buffer(dataHolder.get());
+    }
 
-        response.end(Buffer.buffer(responseData));
+    private boolean isTemplateTransformer(ImposterLifecycleListener listener) {
+        return templateTransformers.computeIfAbsent(listener.getClass(), listenerClass -> {
+            try {
+                return !ImposterLifecycleListener.class.equals(listenerClass.getMethod(
+                        "beforeTransmittingTemplate", RoutingContext.class, String.class).getDeclaringClass());
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        });
     }
 
     private void setContentTypeIfAbsent(ResourceConfig resourceConfig, HttpServerResponse response, String filenameHintForContentType) {
@@ -447,9 +681,8 @@ public class ResponseServiceImpl implements ResponseService {
         }
 
         try {
-            final File configPath = normalisePath(config, responseFile).toFile();
-            return new JsonArray(FileUtils.readFileToString(configPath, StandardCharsets.UTF_8));
-        } catch (IOException e) {
+            return new JsonArray(responseFileCache.load(normalisePath(config, responseFile)));
+        } catch (ExecutionException e) {
             throw new RuntimeException(e);
         }
     }
@@ -63,6 +63,23 @@ public final class ResourceUtil {
     public static final String RESPONSE_CONFIG_HOLDER_KEY = "io.gatehill.imposter.responseConfigHolder";
     public static final String RC_REQUEST_ID_KEY = "request.id";
 
+    /**
+     * Overrides the path of the current route, for handlers that dispatch
+     * to more than one path template from a single route.
+     */
+    public static final String ROUTE_PATH_KEY = "io.gatehill.imposter.routePath";
+
+    /**
+     * The body of the response, as a {@link io.vertx.core.buffer.Buffer}, if it was sent from memory.
+     */
+    public static final String RESPONSE_BODY_KEY = "io.gatehill.imposter.responseBody";
+
+    /**
+     * Set to {@code true} if the body of the response was streamed, such as from a file,
+     * so is not available under {@link #RESPONSE_BODY_KEY}.
+     */
+    public static final String RESPONSE_BODY_STREAMED_KEY = "io.gatehill.imposter.responseBodyStreamed";
+
     private static final BiMap<ResourceMethod, HttpMethod> METHODS = HashBiMap.create();
     private static final Pattern PATH_PARAM_PLACEHOLDER = Pattern.compile("\\{([a-zA-Z0-9._\\-]+)}");
 
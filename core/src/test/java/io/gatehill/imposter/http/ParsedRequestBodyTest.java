@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.vertx.ext.web.RoutingContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link ParsedRequestBody}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class ParsedRequestBodyTest {
+    private final Map<String, Object> data = new HashMap<>();
+    private final AtomicInteger bodyReads = new AtomicInteger();
+    private String requestBody;
+    private RoutingContext routingContext;
+
+    @Before
+    public void setUp() {
+        // stubs only the methods used to read and hold the parsed body
+        routingContext = (RoutingContext) Proxy.newProxyInstance(
+                RoutingContext.class.getClassLoader(),
+                new Class<?>[]{RoutingContext.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "get":
+                            return data.get((String) args[0]);
+                        case "put":
+                            data.put((String) args[0], args[1]);
+                            return proxy;
+                        case "getBodyAsString":
+                            bodyReads.incrementAndGet();
+                            return requestBody;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                }
+        );
+    }
+
+    @Test
+    public void testJsonBody() throws Exception {
+        requestBody = "{ \"name\": \"Cat\", \"tags\": [\"a\", \"b\"] }";
+        final ParsedRequestBody body = ParsedRequestBody.forRequest(routingContext);
+
+        assertFalse(body.isEmpty());
+        assertEquals("Cat", body.getJsonNode().get("name").asText());
+
+        // values are converted to plain types
+        assertEquals("Cat", body.readJsonPath("$.name"));
+        assertEquals(Arrays.asList("a", "b"), body.readJsonPath("$.tags"));
+    }
+
+    @Test
+    public void testParsedOnceAndReused() throws Exception {
+        requestBody = "{ \"name\": \"Cat\" }";
+
+        final ParsedRequestBody first = ParsedRequestBody.forRequest(routingContext);
+        final ParsedRequestBody second = ParsedRequestBody.forRequest(routingContext);
+        assertSame(first, second);
+
+        final JsonNode node = first.getJsonNode();
+        assertSame(node, second.getJsonNode());
+        assertEquals("Cat", first.readJsonPath("$.name"));
+        assertEquals("Cat", second.readJsonPath("$.name"));
+
+        assertEquals(1, bodyReads.get());
+    }
+
+    @Test
+    public void testEmptyBody() throws Exception {
+        requestBody = "";
+        final ParsedRequestBody body = ParsedRequestBody.forRequest(routingContext);
+
+        assertTrue(body.isEmpty());
+        assertNull(body.getJsonNode());
+        assertNull(body.readJsonPath("$.name"));
+    }
+
+    @Test
+    public void testNullBody() throws Exception {
+        requestBody = null;
+        final ParsedRequestBody body = ParsedRequestBody.forRequest(routingContext);
+
+        assertTrue(body.isEmpty());
+        assertNull(body.getBody());
+        assertNull(body.getJsonNode());
+        assertNull(body.readJsonPath("$.name"));
+    }
+
+    @Test
+    public void testNonJsonBody() {
+        requestBody = "not json";
+        final ParsedRequestBody body = ParsedRequestBody.forRequest(routingContext);
+
+        assertFalse(body.isEmpty());
+        assertEquals("not json", body.getBody());
+        try {
+            body.getJsonNode();
+            fail("Expected non-JSON body to fail parsing");
+        } catch (IOException expected) {
+        }
+        try {
+            body.readJsonPath("$.name");
+            fail("Expected non-JSON body to fail JsonPath evaluation");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+}
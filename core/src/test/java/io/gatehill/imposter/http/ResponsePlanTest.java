@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.http;
+
+import io.gatehill.imposter.plugin.config.resource.RestResourceConfig;
+import io.gatehill.imposter.script.ReadWriteResponseBehaviour;
+import io.gatehill.imposter.util.HttpUtil;
+import io.gatehill.imposter.util.MapUtil;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ResponsePlan}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class ResponsePlanTest {
+    @Test
+    public void testBuildForStaticData() {
+        final RestResourceConfig resource = buildResource("h\u00e9llo", false);
+
+        final ResponsePlan plan = ResponsePlan.build(resource);
+        assertNotNull(plan);
+        assertEquals("encoded as UTF-8", 6, plan.getLength());
+    }
+
+    @Test
+    public void testNoPlanForTemplate() {
+        assertNull(ResponsePlan.build(buildResource("hello ${stores.example.foo}", true)));
+    }
+
+    @Test
+    public void testIsApplicable() {
+        final RestResourceConfig resource = buildResource("hello", false);
+        final ResponsePlan plan = ResponsePlan.build(resource);
+        assertNotNull(plan);
+
+        final ReadWriteResponseBehaviour unaltered = DefaultResponseBehaviourFactory.getInstance()
+                .build(HttpUtil.HTTP_OK, resource.getResponseConfig());
+        assertTrue(plan.isApplicable(unaltered));
+
+        final ReadWriteResponseBehaviour alteredStatus = DefaultResponseBehaviourFactory.getInstance()
+                .build(HttpUtil.HTTP_OK, resource.getResponseConfig());
+        alteredStatus.withStatusCode(HttpUtil.HTTP_NOT_FOUND);
+        assertFalse(plan.isApplicable(alteredStatus));
+
+        final ReadWriteResponseBehaviour alteredHeaders = DefaultResponseBehaviourFactory.getInstance()
+                .build(HttpUtil.HTTP_OK, resource.getResponseConfig());
+        alteredHeaders.withHeader("X-Extra", "bar");
+        assertFalse(plan.isApplicable(alteredHeaders));
+
+        final ReadWriteResponseBehaviour alteredData = DefaultResponseBehaviourFactory.getInstance()
+                .build(HttpUtil.HTTP_OK, resource.getResponseConfig());
+        alteredData.withData("goodbye");
+        assertFalse(plan.isApplicable(alteredData));
+    }
+
+    private RestResourceConfig buildResource(String staticData, boolean template) {
+        final Map<String, Object> response = new HashMap<>();
+        response.put("staticData", staticData);
+        response.put("template", template);
+        response.put("headers", singletonMap("X-Example", "foo"));
+
+        final Map<String, Object> raw = new HashMap<>();
+        raw.put("path", "/example");
+        raw.put("method", "GET");
+        raw.put("response", response);
+
+        return MapUtil.JSON_MAPPER.convertValue(raw, RestResourceConfig.class);
+    }
+}
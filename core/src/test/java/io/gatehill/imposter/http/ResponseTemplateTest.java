@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.http;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.RoutingContext;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ResponseTemplate}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class ResponseTemplateTest {
+    @Test
+    public void testRenderPlaceholders() {
+        final ResponseTemplate template = ResponseTemplate.compile("h\u00e9llo ${name}, from ${place}!", placeholder ->
+                routingContext -> placeholder.toUpperCase()
+        );
+        assertEquals("h\u00e9llo NAME, from PLACE!", render(template));
+    }
+
+    @Test
+    public void testPlaceholdersCompiledOnce() {
+        final AtomicInteger compilations = new AtomicInteger();
+        final ResponseTemplate template = ResponseTemplate.compile("${a} ${b}", placeholder -> {
+            compilations.incrementAndGet();
+            return routingContext -> placeholder;
+        });
+
+        assertEquals("a b", render(template));
+        assertEquals("a b", render(template));
+        assertEquals(2, compilations.get());
+    }
+
+    @Test
+    public void testUnresolvedPlaceholders() {
+        final ResponseTemplate template = ResponseTemplate.compile("${unknown} ${empty} ${empty:-fallback}", placeholder ->
+                "unknown".equals(placeholder) ? null : routingContext -> null
+        );
+        assertEquals("${unknown} ${empty} fallback", render(template));
+    }
+
+    @Test
+    public void testEscapedPlaceholder() {
+        final ResponseTemplate template = ResponseTemplate.compile("$${name} ${name} ${unterminated", placeholder ->
+                routingContext -> "value"
+        );
+        assertEquals("${name} value ${unterminated", render(template));
+    }
+
+    @Test
+    public void testRenderAsyncWaitsForAllPlaceholders() {
+        final Future<Object> pending = Future.future();
+        final ResponseTemplate template = ResponseTemplate.compile("${sync}, ${async:-fallback}!", placeholder ->
+                new TemplatePlaceholder() {
+                    @Override
+                    public Object resolve(RoutingContext routingContext) {
+                        return placeholder;
+                    }
+
+                    @Override
+                    public Future<Object> resolveAsync(RoutingContext routingContext) {
+                        return "async".equals(placeholder) ? pending : TemplatePlaceholder.super.resolveAsync(routingContext);
+                    }
+                }
+        );
+
+        final Future<Buffer> rendered = template.renderAsync(null);
+        assertFalse(rendered.isComplete());
+
+        pending.complete(null);
+        assertTrue(rendered.succeeded());
+        assertEquals("sync, fallback!", rendered.result().toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRenderAsyncFailure() {
+        final ResponseTemplate template = ResponseTemplate.compile("${fail}", placeholder -> routingContext -> {
+            throw new IllegalStateException("failed");
+        });
+        final Future<Buffer> rendered = template.renderAsync(null);
+        assertTrue(rendered.failed());
+        assertEquals("failed", rendered.cause().getMessage());
+    }
+
+    private static String render(ResponseTemplate template) {
+        return template.render(null).toString(StandardCharsets.UTF_8);
+    }
+}
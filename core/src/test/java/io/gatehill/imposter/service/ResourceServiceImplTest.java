@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.service;
+
+import io.gatehill.imposter.config.ResolvedResourceConfig;
+import io.gatehill.imposter.config.ResolvedResourceIndex;
+import io.gatehill.imposter.plugin.config.resource.ResponseConfigHolder;
+import io.gatehill.imposter.plugin.config.resource.RestResourceConfig;
+import io.gatehill.imposter.util.MapUtil;
+import io.vertx.core.http.HttpMethod;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ResourceServiceImpl}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class ResourceServiceImplTest {
+    private final ResourceServiceImpl resourceService = new ResourceServiceImpl();
+
+    @Test
+    public void testMatchByPathAndMethod() {
+        final ResolvedResourceIndex index = new ResolvedResourceIndex(newArrayList(
+                resolve("GET", "/cats", emptyMap(), emptyMap()),
+                resolve("POST", "/cats", emptyMap(), emptyMap()),
+                resolve("GET", "/dogs", emptyMap(), emptyMap())
+        ));
+
+        final Optional<ResponseConfigHolder> matched = match(index, HttpMethod.POST, null, "/cats", emptyMap(), emptyMap());
+        assertTrue(matched.isPresent());
+        assertEquals(index.getResources().get(1).getConfig(), matched.get());
+
+        assertFalse(match(index, HttpMethod.DELETE, null, "/cats", emptyMap(), emptyMap()).isPresent());
+        assertFalse(match(index, HttpMethod.GET, null, "/birds", emptyMap(), emptyMap()).isPresent());
+    }
+
+    @Test
+    public void testMatchByPathTemplate() {
+        final ResolvedResourceIndex index = new ResolvedResourceIndex(newArrayList(
+                resolve("GET", "/cats/:id", emptyMap(), emptyMap())
+        ));
+
+        final Optional<ResponseConfigHolder> matched = match(index, HttpMethod.GET, "/cats/:id", "/cats/1", emptyMap(), emptyMap());
+        assertTrue(matched.isPresent());
+        assertEquals(index.getResources().get(0).getConfig(), matched.get());
+    }
+
+    @Test
+    public void testMatchMostSpecific() {
+        final ResolvedResourceIndex index = new ResolvedResourceIndex(newArrayList(
+                resolve("GET", "/cats/:id", emptyMap(), emptyMap()),
+                resolve("GET", "/cats/:id", emptyMap(), singletonMap("page", "1")),
+                resolve("GET", "/cats/:id", singletonMap("id", "2"), emptyMap()),
+                resolve("GET", "/cats/:id", singletonMap("id", "2"), singletonMap("page", "1"))
+        ));
+
+        // path and query params outrank path params alone
+        assertEquals(index.getResources().get(3).getConfig(),
+                match(index, HttpMethod.GET, "/cats/:id", "/cats/2", singletonMap("id", "2"), singletonMap("page", "1")).orElse(null));
+
+        // path params outrank query params
+        assertEquals(index.getResources().get(2).getConfig(),
+                match(index, HttpMethod.GET, "/cats/:id", "/cats/2", singletonMap("id", "2"), emptyMap()).orElse(null));
+
+        assertEquals(index.getResources().get(1).getConfig(),
+                match(index, HttpMethod.GET, "/cats/:id", "/cats/3", singletonMap("id", "3"), singletonMap("page", "1")).orElse(null));
+
+        // falls back to least specific
+        assertEquals(index.getResources().get(0).getConfig(),
+                match(index, HttpMethod.GET, "/cats/:id", "/cats/3", singletonMap("id", "3"), emptyMap()).orElse(null));
+    }
+
+    @Test
+    public void testMatchFirstWhenAmbiguous() {
+        final ResolvedResourceIndex index = new ResolvedResourceIndex(newArrayList(
+                resolve("GET", "/cats", emptyMap(), emptyMap()),
+                resolve("GET", "/cats", emptyMap(), emptyMap())
+        ));
+
+        assertEquals(index.getResources().get(0).getConfig(),
+                match(index, HttpMethod.GET, null, "/cats", emptyMap(), emptyMap()).orElse(null));
+    }
+
+    private Optional<ResponseConfigHolder> match(
+            ResolvedResourceIndex index,
+            HttpMethod method,
+            String pathTemplate,
+            String path,
+            Map<String, String> pathParams,
+            Map<String, String> queryParams
+    ) {
+        return resourceService.matchResourceConfig(index, method, pathTemplate, path, pathParams, queryParams, emptyMap(), jsonPath -> null);
+    }
+
+    private static ResolvedResourceConfig resolve(String method, String path, Map<String, String> pathParams, Map<String, String> queryParams) {
+        final Map<String, Object> raw = new HashMap<>();
+        raw.put("method", method);
+        raw.put("path", path);
+        raw.put("pathParams", pathParams);
+        raw.put("queryParams", queryParams);
+
+        final RestResourceConfig config = MapUtil.JSON_MAPPER.convertValue(raw, RestResourceConfig.class);
+        return new ResolvedResourceConfig(config, pathParams, queryParams, emptyMap());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.service;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link ResponseFileCache}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class ResponseFileCacheTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testLoadCachesFile() throws Exception {
+        final ResponseFileCache cache = new ResponseFileCache(1024);
+        final Path file = writeFile("example.txt", "hello");
+
+        assertEquals("hello", cache.load(file).toString(StandardCharsets.UTF_8));
+        assertEquals("hello", cache.load(file).toString(StandardCharsets.UTF_8));
+
+        assertEquals(1, cache.size());
+        assertEquals(5, cache.getTotalBytes());
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void testSkipsFileLargerThanCache() throws Exception {
+        final ResponseFileCache cache = new ResponseFileCache(4);
+        final Path file = writeFile("example.txt", "hello");
+
+        assertNull(cache.loadIfCacheable(file));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLoadIfCacheableCountsEachLookupOnce() throws Exception {
+        final ResponseFileCache cache = new ResponseFileCache(1024);
+        final Path file = writeFile("example.txt", "hello");
+
+        assertEquals("hello", cache.loadIfCacheable(file).toString(StandardCharsets.UTF_8));
+        assertEquals("hello", cache.loadIfCacheable(file).toString(StandardCharsets.UTF_8));
+
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void testCachesFileUpToMaximumSize() throws Exception {
+        final ResponseFileCache cache = new ResponseFileCache(5);
+        final Path file = writeFile("example.txt", "hello");
+
+        // a file the size of the whole cache should be held, not evicted on insertion
+        assertEquals("hello", cache.loadIfCacheable(file).toString(StandardCharsets.UTF_8));
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.stats().evictionCount());
+    }
+
+    @Test
+    public void testInvalidatesChangedFile() throws Exception {
+        final ResponseFileCache cache = new ResponseFileCache(1024);
+        final Path file = writeFile("example.txt", "hello");
+        assertEquals("hello", cache.load(file).toString(StandardCharsets.UTF_8));
+
+        Files.write(file, "goodbye".getBytes(StandardCharsets.UTF_8));
+
+        // file change notifications are asynchronous, and polled on some platforms
+        final long deadline = System.currentTimeMillis() + 30_000;
+        while (cache.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals("goodbye", cache.load(file).toString(StandardCharsets.UTF_8));
+        assertEquals(7, cache.getTotalBytes());
+    }
+
+    private Path writeFile(String name, String contents) throws Exception {
+        final Path file = temporaryFolder.getRoot().toPath().resolve(name);
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
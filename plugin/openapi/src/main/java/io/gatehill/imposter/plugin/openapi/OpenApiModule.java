@@ -49,6 +49,8 @@ import io.gatehill.imposter.plugin.openapi.service.ExampleService;
 import io.gatehill.imposter.plugin.openapi.service.ExampleServiceImpl;
 import io.gatehill.imposter.plugin.openapi.service.ResponseTransmissionService;
 import io.gatehill.imposter.plugin.openapi.service.ResponseTransmissionServiceImpl;
+import io.gatehill.imposter.plugin.openapi.service.ResponseValidationService;
+import io.gatehill.imposter.plugin.openapi.service.ResponseValidationServiceImpl;
 import io.gatehill.imposter.plugin.openapi.service.SchemaService;
 import io.gatehill.imposter.plugin.openapi.service.SchemaServiceImpl;
 import io.gatehill.imposter.plugin.openapi.service.SpecificationService;
@@ -64,5 +66,6 @@ public class OpenApiModule extends AbstractModule {
         bind(ExampleService.class).to(ExampleServiceImpl.class).in(Singleton.class);
         bind(SchemaService.class).to(SchemaServiceImpl.class).in(Singleton.class);
         bind(ResponseTransmissionService.class).to(ResponseTransmissionServiceImpl.class).in(Singleton.class);
+        bind(ResponseValidationService.class).to(ResponseValidationServiceImpl.class).in(Singleton.class);
     }
 }
@@ -53,12 +53,17 @@ import io.gatehill.imposter.plugin.config.ConfiguredPlugin;
 import io.gatehill.imposter.plugin.config.resource.ResponseConfigHolder;
 import io.gatehill.imposter.plugin.openapi.config.OpenApiPluginConfig;
 import io.gatehill.imposter.plugin.openapi.http.OpenApiResponseBehaviourFactory;
+import io.gatehill.imposter.plugin.openapi.http.OperationDispatcher;
 import io.gatehill.imposter.plugin.openapi.loader.SpecificationLoader;
+import io.gatehill.imposter.plugin.openapi.model.OperationResponses;
+import io.gatehill.imposter.plugin.openapi.model.OperationResponses.IndexedResponse;
 import io.gatehill.imposter.plugin.openapi.service.ExampleService;
+import io.gatehill.imposter.plugin.openapi.service.ResponseValidationService;
 import io.gatehill.imposter.plugin.openapi.service.SpecificationService;
 import io.gatehill.imposter.script.ResponseBehaviour;
 import io.gatehill.imposter.service.ResourceService;
 import io.gatehill.imposter.service.ResponseService;
+import io.gatehill.imposter.util.EnvVars;
 import io.gatehill.imposter.util.HttpUtil;
 import io.gatehill.imposter.util.LogUtil;
 import io.gatehill.imposter.util.MapUtil;
@@ -66,8 +71,6 @@ import io.gatehill.imposter.util.ResourceUtil;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
-import io.swagger.v3.oas.models.responses.ApiResponse;
-import io.swagger.v3.oas.models.responses.ApiResponses;
 import io.swagger.v3.oas.models.servers.Server;
 import io.vertx.core.Handler;
 import io.vertx.core.http.HttpMethod;
@@ -82,12 +85,15 @@ import org.apache.logging.log4j.Logger;
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 import static com.google.common.collect.Maps.newHashMap;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
 
@@ -103,12 +109,13 @@ public class OpenApiPluginImpl extends ConfiguredPlugin<OpenApiPluginConfig> imp
     private static final String UI_WEB_ROOT = "swagger-ui";
 
     /**
-     * 'default' is a special case in OpenAPI that does not have a status code.
+     * Enables dispatch of operations using a path trie instead of a route per operation.
      */
-    private static final String DEFAULT_RESPONSE_KEY = "default";
+    private static final String ENV_TRIE_DISPATCH = "IMPOSTER_OPENAPI_TRIE_DISPATCH";
 
     static final String SPECIFICATION_PATH = "/_spec";
     static final String COMBINED_SPECIFICATION_PATH = SPECIFICATION_PATH + "/combined.json";
+    static final String RESPONSE_VALIDATION_REPORT_PATH = "/system/openapi/response-validation";
 
     @Inject
     private ImposterConfig imposterConfig;
@@ -122,6 +129,9 @@ public class OpenApiPluginImpl extends ConfiguredPlugin<OpenApiPluginConfig> imp
     @Inject
     private ExampleService exampleService;
 
+    @Inject
+    private ResponseValidationService responseValidationService;
+
     @Inject
     private ResponseService responseService;
 
@@ -131,6 +141,11 @@ public class OpenApiPluginImpl extends ConfiguredPlugin<OpenApiPluginConfig> imp
     private List<OpenApiPluginConfig> configs;
     private List<OpenAPI> allSpecs;
 
+    /**
+     * The parsed specification for each configuration, shared by all server instances.
+     */
+    private Map<OpenApiPluginConfig, OpenAPI> parsedSpecs;
+
     @Override
     protected Class<OpenApiPluginConfig> getConfigClass() {
         return OpenApiPluginConfig.class;
@@ -147,32 +162,64 @@ public class OpenApiPluginImpl extends ConfiguredPlugin<OpenApiPluginConfig> imp
 
     @Override
     public void configureRoutes(Router router) {
-        parseSpecs(router);
+        parseSpecs();
+        addSpecRoutes(router);
 
         // serve specification and UI
         LOGGER.debug("Adding specification UI at: {}{}", imposterConfig.getServerUrl(), SPECIFICATION_PATH);
         router.get(COMBINED_SPECIFICATION_PATH).handler(resourceService.handleRoute(imposterConfig, configs, vertx, this::handleCombinedSpec));
         router.getWithRegex(SPECIFICATION_PATH + "$").handler(resourceService.handleRoute(imposterConfig, configs, vertx, routingContext -> routingContext.response().putHeader("Location", SPECIFICATION_PATH + "/").setStatusCode(HttpUtil.HTTP_MOVED_PERM).end()));
         router.get(SPECIFICATION_PATH + "/*").handler(StaticHandler.create(UI_WEB_ROOT));
+
+        // sampled response validation failures
+        router.get(RESPONSE_VALIDATION_REPORT_PATH).handler(resourceService.handleRoute(imposterConfig, configs, vertx, this::handleResponseValidationReport));
+        router.delete(RESPONSE_VALIDATION_REPORT_PATH).handler(resourceService.handleRoute(imposterConfig, configs, vertx, routingContext -> {
+            responseValidationService.clearFailures();
+            routingContext.response().setStatusCode(HttpUtil.HTTP_NO_CONTENT).end();
+        }));
     }
 
-    private void parseSpecs(Router router) {
-        allSpecs = Lists.newArrayListWithExpectedSize(configs.size());
+    /**
+     * Parse the specifications, if not already parsed. Specifications are only parsed once,
+     * even though routes are configured for each server instance.
+     */
+    private void parseSpecs() {
+        if (nonNull(parsedSpecs)) {
+            return;
+        }
 
-        // specification mock endpoints
+        final Map<OpenApiPluginConfig, OpenAPI> specs = new LinkedHashMap<>();
         configs.forEach(config -> {
             final OpenAPI spec = SpecificationLoader.parseSpecification(config);
 
             if (null != spec) {
-                allSpecs.add(spec);
-                spec.getPaths().forEach((path, pathConfig) ->
-                        handlePathOperations(router, config, spec, path, pathConfig)
-                );
-
+                specs.put(config, spec);
+                exampleService.precomputeSchemaExamples(spec);
             } else {
                 throw new RuntimeException(String.format("Unable to load API specification: %s", config.getSpecFile()));
             }
         });
+
+        parsedSpecs = specs;
+        allSpecs = Lists.newArrayList(specs.values());
+    }
+
+    private void addSpecRoutes(Router router) {
+        if (isTrieDispatchEnabled()) {
+            addDispatcherRoutes(router);
+            return;
+        }
+
+        // specification mock endpoints
+        parsedSpecs.forEach((config, spec) ->
+                spec.getPaths().forEach((path, pathConfig) ->
+                        handlePathOperations(router, config, spec, path, pathConfig)
+                )
+        );
+    }
+
+    private static boolean isTrieDispatchEnabled() {
+        return Boolean.parseBoolean(EnvVars.getEnv(ENV_TRIE_DISPATCH));
     }
 
     /**
@@ -195,6 +242,43 @@ public class OpenApiPluginImpl extends ConfiguredPlugin<OpenApiPluginConfig> imp
         });
     }
 
+    /**
+     * Bind a single dispatcher for each base path, which resolves the
+     * operation for each request using a trie of path segments.
+     *
+     * @param router the Vert.x router
+     */
+    private void addDispatcherRoutes(Router router) {
+        final Map<String, OperationDispatcher> dispatchers = new LinkedHashMap<>();
+
+        parsedSpecs.forEach((config, spec) -> {
+            final String basePath = buildBasePath(config, spec);
+            final OperationDispatcher dispatcher = dispatchers.computeIfAbsent(basePath, OperationDispatcher::new);
+
+            spec.getPaths().forEach((path, pathConfig) ->
+                    pathConfig.readOperationsMap().forEach((httpMethod, operation) -> {
+                        final String specPath = joinPaths(basePath, path);
+                        final String fullPath = ResourceUtil.convertPathToVertx(specPath);
+                        LOGGER.debug("Adding dispatched mock endpoint: {} -> {}", httpMethod, fullPath);
+
+                        final HttpMethod method = HttpMethod.valueOf(httpMethod.name());
+                        dispatcher.addOperation(method, specPath, fullPath, buildHandler(config, operation, spec));
+                    })
+            );
+        });
+
+        dispatchers.values().forEach(dispatcher -> {
+            final String basePath = dispatcher.getBasePath().replaceAll("/+$", "");
+            LOGGER.debug("Adding operation dispatcher at: {}/", basePath);
+
+            if (basePath.isEmpty()) {
+                router.route().handler(dispatcher);
+            } else {
+                router.routeWithRegex(Pattern.quote(basePath) + "(?:/.*)?").handler(dispatcher);
+            }
+        });
+    }
+
     /**
      * Construct the full path from the base path and the operation path.
      *
@@ -203,7 +287,10 @@ public class OpenApiPluginImpl extends ConfiguredPlugin<OpenApiPluginConfig> imp
      * @return the full path
      */
     private String buildFullPath(String basePath, String specOperationPath) {
-        final String operationPath = ResourceUtil.convertPathToVertx(specOperationPath);
+        return joinPaths(basePath, ResourceUtil.convertPathToVertx(specOperationPath));
+    }
+
+    private static String joinPaths(String basePath, String operationPath) {
         if (basePath.endsWith("/")) {
             if (operationPath.startsWith("/")) {
                 return basePath + operationPath.substring(1);
@@ -263,6 +350,22 @@ public class OpenApiPluginImpl extends ConfiguredPlugin<OpenApiPluginConfig> imp
         }
     }
 
+    /**
+     * Returns the most recent response validation failures.
+     *
+     * @param routingContext the Vert.x routing context
+     */
+    private void handleResponseValidationReport(RoutingContext routingContext) {
+        try {
+            routingContext.response()
+                    .putHeader(HttpUtil.CONTENT_TYPE, HttpUtil.CONTENT_TYPE_JSON)
+                    .end(MapUtil.JSON_MAPPER.writeValueAsString(responseValidationService.getFailures()));
+
+        } catch (Exception e) {
+            routingContext.fail(e);
+        }
+    }
+
     /**
      * Build a handler for the given operation.
      *
@@ -273,12 +376,14 @@ public class OpenApiPluginImpl extends ConfiguredPlugin<OpenApiPluginConfig> imp
      */
     private Handler<RoutingContext> buildHandler(OpenApiPluginConfig pluginConfig, Operation operation, OpenAPI spec) {
         // statically calculate as much as possible
-        final StatusCodeFactory statusCodeFactory = buildStatusCodeCalculator(operation);
+        final OperationResponses operationResponses = OperationResponses.build(spec, operation);
+        final StatusCodeFactory statusCodeFactory = buildStatusCodeCalculator(operationResponses);
 
         return resourceService.handleRoute(imposterConfig, pluginConfig, vertx, routingContext -> {
-            if (!specificationService.isValidRequest(imposterConfig, pluginConfig, routingContext, allSpecs)) {
+            if (!specificationService.isValidRequest(imposterConfig, pluginConfig, spec, operation, routingContext)) {
                 return;
             }
+            responseValidationService.sampleResponse(imposterConfig, pluginConfig, spec, operation, routingContext);
 
             final Map<String, Object> context = newHashMap();
             context.put("operation", operation);
@@ -287,20 +392,20 @@ public class OpenApiPluginImpl extends ConfiguredPlugin<OpenApiPluginConfig> imp
             final ResponseConfigHolder resourceConfig = routingContext.get(ResourceUtil.RESPONSE_CONFIG_HOLDER_KEY);
 
             final Consumer<ResponseBehaviour> defaultBehaviourHandler = responseBehaviour -> {
-                final Optional<ApiResponse> optionalResponse = findApiResponse(operation, responseBehaviour.getStatusCode());
+                final IndexedResponse specResponse = operationResponses.find(responseBehaviour.getStatusCode());
 
                 // set status code regardless of response strategy
                 final HttpServerResponse response = routingContext.response()
                         .setStatusCode(responseBehaviour.getStatusCode());
 
-                if (optionalResponse.isPresent()) {
+                if (nonNull(specResponse)) {
                     if (!responseBehaviour.getResponseHeaders().containsKey(HttpUtil.CONTENT_TYPE)) {
-                        setContentTypeFromSpec(routingContext, responseBehaviour, optionalResponse);
+                        setContentTypeFromSpec(routingContext, responseBehaviour, specResponse);
                     }
 
                     // build a response from the specification
                     final ResponseService.ResponseSender exampleSender = (rc, rb) ->
-                            exampleService.serveExample(imposterConfig, pluginConfig, rc, rb, optionalResponse.get(), spec);
+                            exampleService.serveExample(imposterConfig, pluginConfig, rc, rb, specResponse.getResponse(), spec);
 
                     // attempt to serve an example from the specification, falling back if not present
                     responseService.sendResponse(
@@ -330,71 +435,37 @@ public class OpenApiPluginImpl extends ConfiguredPlugin<OpenApiPluginConfig> imp
         });
     }
 
-    private void setContentTypeFromSpec(RoutingContext routingContext, ResponseBehaviour responseBehaviour, Optional<ApiResponse> optionalResponse) {
-        ofNullable(optionalResponse.get().getContent()).ifPresent(responseContent -> {
-            final Optional<String> firstContentType = responseContent.keySet().stream().findFirst();
-            switch (responseContent.size()) {
-                case 0:
-                    return;
-                case 1:
-                    LOGGER.debug(
-                            "Setting content type [{}] from specification for {}",
-                            firstContentType.get(),
-                            LogUtil.describeRequestShort(routingContext)
-                    );
-                    break;
-                default:
-                    LOGGER.warn(
-                            "Multiple content types in specification - selecting first [{}] for {}",
-                            firstContentType.get(),
-                            LogUtil.describeRequestShort(routingContext)
-                    );
-                    break;
-            }
-            responseBehaviour.getResponseHeaders().put(HttpUtil.CONTENT_TYPE, firstContentType.get());
-        });
+    private void setContentTypeFromSpec(RoutingContext routingContext, ResponseBehaviour responseBehaviour, IndexedResponse specResponse) {
+        final String contentType = specResponse.getContentType();
+        if (isNull(contentType)) {
+            return;
+        }
+        if (specResponse.getContentTypeCount() > 1) {
+            LOGGER.warn(
+                    "Multiple content types in specification - selecting first [{}] for {}",
+                    contentType,
+                    LogUtil.describeRequestShort(routingContext)
+            );
+        } else {
+            LOGGER.debug(
+                    "Setting content type [{}] from specification for {}",
+                    contentType,
+                    LogUtil.describeRequestShort(routingContext)
+            );
+        }
+        responseBehaviour.getResponseHeaders().put(HttpUtil.CONTENT_TYPE, contentType);
     }
 
-    private StatusCodeFactory buildStatusCodeCalculator(Operation operation) {
+    private StatusCodeFactory buildStatusCodeCalculator(OperationResponses operationResponses) {
+        final int defaultStatusCode = operationResponses.getDefaultStatusCode();
         return rc -> {
             if (nonNull(rc.getResponseConfig().getStatusCode())) {
                 return rc.getResponseConfig().getStatusCode();
-            } else {
-                // Choose the first response for this operation.
-                // Note: responses are keyed on their status code.
-                final ApiResponses responses = operation.getResponses();
-                if (nonNull(responses) && !responses.isEmpty()) {
-                    final String firstStatus = responses.keySet().iterator().next();
-
-                    // default is a special case in OpenAPI that does not have a status code
-                    if (!DEFAULT_RESPONSE_KEY.equalsIgnoreCase(firstStatus)) {
-                        return Integer.parseInt(firstStatus);
-                    }
-                }
             }
-            return HttpUtil.HTTP_OK;
+            return defaultStatusCode;
         };
     }
 
-    private Optional<ApiResponse> findApiResponse(Operation operation, Integer statusCode) {
-        // openapi statuses are represented as strings
-        final String status = String.valueOf(statusCode);
-
-        // look for a specification response based on the status code
-        final Optional<ApiResponse> optionalResponse = operation.getResponses().entrySet().parallelStream()
-                .filter(mockResponse -> mockResponse.getKey().equals(status))
-                .map(Map.Entry::getValue)
-                .findAny();
-
-        if (optionalResponse.isPresent()) {
-            return optionalResponse;
-        } else {
-            // fall back to default
-            LOGGER.debug("No response found for status code {}; falling back to default response if present", statusCode);
-            return ofNullable(operation.getResponses().getDefault());
-        }
-    }
-
     /**
      * Handles the scenario when no example is found.
      *
@@ -76,6 +76,21 @@ public class OpenApiPluginValidationConfig {
     private Boolean returnErrorsInResponse = true;
     private Map<String, String> levels;
 
+    /**
+     * Request bodies larger than this size, in bytes, are considered large.
+     */
+    private Long largeBodySize;
+
+    /**
+     * The proportion, between 0 and 1, of requests with large bodies for which the body is validated.
+     */
+    private Double largeBodySampleRate = 0.0;
+
+    /**
+     * The proportion, between 0 and 1, of responses that are validated.
+     */
+    private Double responseSampleRate = 1.0;
+
     /**
      * Cached default request validation issue behaviour.
      */
@@ -108,6 +123,18 @@ public class OpenApiPluginValidationConfig {
         return levels;
     }
 
+    public Long getLargeBodySize() {
+        return largeBodySize;
+    }
+
+    public Double getLargeBodySampleRate() {
+        return largeBodySampleRate;
+    }
+
+    public Double getResponseSampleRate() {
+        return responseSampleRate;
+    }
+
     /**
      * Supports backwards compatible boolean-style values, mapping
      * to {@link #IGNORE} and {@link #FAIL} respectively.
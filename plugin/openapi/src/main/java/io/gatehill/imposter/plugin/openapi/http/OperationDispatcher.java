@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.plugin.openapi.http;
+
+import io.gatehill.imposter.util.MetricsUtil;
+import io.gatehill.imposter.util.ResourceUtil;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.RoutingContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Dispatches requests under a base path to the handlers of OpenAPI operations,
+ * using a trie of path segments built when the routes are configured.
+ * <p>
+ * This avoids registering a separate route per operation, which the Vert.x
+ * router would otherwise test in turn for each request.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class OperationDispatcher implements Handler<RoutingContext> {
+    private static final Logger LOGGER = LogManager.getLogger(OperationDispatcher.class);
+    private static final String METRIC_DISPATCH_DURATION = "openapi.dispatch.duration";
+    private static final Pattern PATH_PARAM_PLACEHOLDER = Pattern.compile("\\{([^{}/]+)}");
+
+    private final String basePath;
+    private final Node root = new Node();
+    private Timer dispatchTimer;
+
+    /**
+     * @param basePath the base path under which all operations of this dispatcher reside
+     */
+    public OperationDispatcher(String basePath) {
+        this.basePath = basePath;
+
+        MetricsUtil.doIfMetricsEnabled(METRIC_DISPATCH_DURATION, registry -> {
+            dispatchTimer = Timer
+                    .builder(METRIC_DISPATCH_DURATION)
+                    .description("OpenAPI operation dispatch duration in seconds")
+                    .register(registry);
+
+        }).orElseDo(() -> {
+            dispatchTimer = null;
+        });
+    }
+
+    public String getBasePath() {
+        return basePath;
+    }
+
+    /**
+     * Add an operation to the trie.
+     *
+     * @param method    the HTTP method of the operation
+     * @param specPath  the full path of the operation, with OpenAPI style placeholders, such as {@code /pets/{petId}}
+     * @param routePath the full path of the operation, in Vert.x form, such as {@code /pets/:petId}
+     * @param handler   the handler for the operation
+     */
+    public void addOperation(HttpMethod method, String specPath, String routePath, Handler<RoutingContext> handler) {
+        final List<String> paramNames = new ArrayList<>();
+        Node node = root;
+
+        for (String segment : splitPath(specPath)) {
+            final Matcher matcher = PATH_PARAM_PLACEHOLDER.matcher(segment);
+            if (!matcher.find()) {
+                node = node.literals.computeIfAbsent(segment, s -> new Node());
+
+            } else if (matcher.start() == 0 && matcher.end() == segment.length()) {
+                paramNames.add(matcher.group(1));
+                if (isNull(node.wildcard)) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+
+            } else {
+                // segment mixes literals and placeholders, such as '{name}.json'
+                final StringBuilder regex = new StringBuilder();
+                int literalStart = 0;
+                do {
+                    if (matcher.start() > literalStart) {
+                        regex.append(Pattern.quote(segment.substring(literalStart, matcher.start())));
+                    }
+                    regex.append("(.+?)");
+                    paramNames.add(matcher.group(1));
+                    literalStart = matcher.end();
+                } while (matcher.find());
+
+                if (literalStart < segment.length()) {
+                    regex.append(Pattern.quote(segment.substring(literalStart)));
+                }
+                node = node.findOrAddPattern(regex.toString());
+            }
+        }
+
+        final Operation existing = node.operations.putIfAbsent(method, new Operation(routePath, paramNames, handler));
+        if (nonNull(existing)) {
+            LOGGER.warn("Duplicate operation {} {} - only the first will be dispatched", method, routePath);
+        }
+    }
+
+    /**
+     * Resolve the operation for the given request.
+     *
+     * @param method      the HTTP method of the request
+     * @param requestPath the path of the request
+     * @return the resolved operation, if any
+     */
+    public Optional<ResolvedOperation> resolve(HttpMethod method, String requestPath) {
+        final List<String> segments = splitPath(requestPath);
+        final List<String> paramValues = new ArrayList<>();
+        return ofNullable(match(root, segments, 0, method, paramValues));
+    }
+
+    private ResolvedOperation match(Node node, List<String> segments, int index, HttpMethod method, List<String> paramValues) {
+        if (index == segments.size()) {
+            final Operation operation = node.operations.get(method);
+            return nonNull(operation) ? new ResolvedOperation(operation, paramValues) : null;
+        }
+
+        // literal segments take precedence over placeholders
+        final String segment = segments.get(index);
+        final Node literal = node.literals.get(segment);
+        if (nonNull(literal)) {
+            final ResolvedOperation resolved = match(literal, segments, index + 1, method, paramValues);
+            if (nonNull(resolved)) {
+                return resolved;
+            }
+        }
+
+        final int mark = paramValues.size();
+        for (PatternChild child : node.patterns) {
+            final Matcher matcher = child.pattern.matcher(segment);
+            if (matcher.matches()) {
+                for (int i = 1; i <= matcher.groupCount(); i++) {
+                    paramValues.add(decode(matcher.group(i)));
+                }
+                final ResolvedOperation resolved = match(child.node, segments, index + 1, method, paramValues);
+                if (nonNull(resolved)) {
+                    return resolved;
+                }
+                paramValues.subList(mark, paramValues.size()).clear();
+            }
+        }
+
+        if (nonNull(node.wildcard)) {
+            paramValues.add(decode(segment));
+            final ResolvedOperation resolved = match(node.wildcard, segments, index + 1, method, paramValues);
+            if (nonNull(resolved)) {
+                return resolved;
+            }
+            paramValues.remove(mark);
+        }
+        return null;
+    }
+
+    @Override
+    public void handle(RoutingContext routingContext) {
+        final long startNanos = System.nanoTime();
+        final Optional<ResolvedOperation> resolved = resolve(routingContext.request().method(), routingContext.request().path());
+        if (nonNull(dispatchTimer)) {
+            dispatchTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        if (!resolved.isPresent()) {
+            // allow other routes to handle the request
+            routingContext.next();
+            return;
+        }
+
+        final ResolvedOperation operation = resolved.get();
+        routingContext.put(ResourceUtil.ROUTE_PATH_KEY, operation.getRoutePath());
+        routingContext.pathParams().putAll(operation.getPathParams());
+        routingContext.request().params().addAll(operation.getPathParams());
+        operation.getHandler().handle(routingContext);
+    }
+
+    private static List<String> splitPath(String path) {
+        final List<String> segments = new ArrayList<>();
+        if (isNull(path)) {
+            return segments;
+        }
+        int start = 0;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end > start) {
+                segments.add(path.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    private static String decode(String value) {
+        try {
+            // retain literal '+' characters, which are not spaces in a path
+            return URLDecoder.decode(value.replace("+", "%2B"), "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    private static class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final List<PatternChild> patterns = new ArrayList<>();
+        private final Map<HttpMethod, Operation> operations = new EnumMap<>(HttpMethod.class);
+        private Node wildcard;
+
+        private Node findOrAddPattern(String regex) {
+            for (PatternChild child : patterns) {
+                if (child.pattern.pattern().equals(regex)) {
+                    return child.node;
+                }
+            }
+            final PatternChild child = new PatternChild(Pattern.compile(regex));
+            patterns.add(child);
+            return child.node;
+        }
+    }
+
+    private static class PatternChild {
+        private final Pattern pattern;
+        private final Node node = new Node();
+
+        private PatternChild(Pattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+
+    private static class Operation {
+        private final String routePath;
+        private final List<String> paramNames;
+        private final Handler<RoutingContext> handler;
+
+        private Operation(String routePath, List<String> paramNames, Handler<RoutingContext> handler) {
+            this.routePath = routePath;
+            this.paramNames = paramNames;
+            this.handler = handler;
+        }
+    }
+
+    /**
+     * An operation matched to a request, with the values of its path parameters.
+     */
+    public static class ResolvedOperation {
+        private final Operation operation;
+        private final Map<String, String> pathParams;
+
+        private ResolvedOperation(Operation operation, List<String> paramValues) {
+            this.operation = operation;
+
+            final Map<String, String> params = new LinkedHashMap<>();
+            for (int i = 0; i < operation.paramNames.size(); i++) {
+                params.put(operation.paramNames.get(i), paramValues.get(i));
+            }
+            this.pathParams = Collections.unmodifiableMap(params);
+        }
+
+        public String getRoutePath() {
+            return operation.routePath;
+        }
+
+        public Map<String, String> getPathParams() {
+            return pathParams;
+        }
+
+        public Handler<RoutingContext> getHandler() {
+            return operation.handler;
+        }
+    }
+}
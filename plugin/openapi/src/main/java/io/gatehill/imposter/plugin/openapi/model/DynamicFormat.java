@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.plugin.openapi.model;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+import static java.util.Objects.isNull;
+
+/**
+ * String formats whose example values are generated for each response.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public enum DynamicFormat {
+    DATE {
+        @Override
+        public String generate() {
+            return DATE_FORMATTER.format(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        }
+    },
+    DATE_TIME {
+        @Override
+        public String generate() {
+            return DATE_TIME_FORMATTER.format(OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        }
+    },
+    UUID {
+        @Override
+        public String generate() {
+            return java.util.UUID.randomUUID().toString();
+        }
+    };
+
+    public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneId.from(ZoneOffset.UTC));
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneId.from(ZoneOffset.UTC));
+
+    /**
+     * @return a new value in this format
+     */
+    public abstract String generate();
+
+    /**
+     * @param format the schema format
+     * @return the dynamic format, or {@code null} if the format is not dynamic
+     */
+    public static DynamicFormat forSchemaFormat(String format) {
+        if (isNull(format)) {
+            return null;
+        }
+        // see https://swagger.io/docs/specification/data-models/data-types/
+        switch (format) {
+            case "date":
+                return DATE;
+            case "date-time":
+                return DATE_TIME;
+            case "uuid":
+            case "guid":
+                return UUID;
+            default:
+                return null;
+        }
+    }
+}
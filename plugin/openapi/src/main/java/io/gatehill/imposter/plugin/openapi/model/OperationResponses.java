@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.plugin.openapi.model;
+
+import io.gatehill.imposter.plugin.openapi.util.RefUtil;
+import io.gatehill.imposter.util.HttpUtil;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * The responses of an operation, indexed by status code when the route for the operation
+ * is created, so the response for a request can be found without searching the specification.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class OperationResponses {
+    private static final Logger LOGGER = LogManager.getLogger(OperationResponses.class);
+
+    /**
+     * 'default' is a special case in OpenAPI that does not have a status code.
+     */
+    private static final String DEFAULT_RESPONSE_KEY = "default";
+
+    private final Map<Integer, IndexedResponse> responsesByStatus;
+    private final IndexedResponse defaultResponse;
+    private final int defaultStatusCode;
+
+    private OperationResponses(Map<Integer, IndexedResponse> responsesByStatus, IndexedResponse defaultResponse, int defaultStatusCode) {
+        this.responsesByStatus = responsesByStatus;
+        this.defaultResponse = defaultResponse;
+        this.defaultStatusCode = defaultStatusCode;
+    }
+
+    /**
+     * @param spec      the OpenAPI specification
+     * @param operation the operation
+     * @return the indexed responses of the operation
+     */
+    public static OperationResponses build(OpenAPI spec, Operation operation) {
+        final ApiResponses responses = operation.getResponses();
+        if (isNull(responses) || responses.isEmpty()) {
+            return new OperationResponses(new HashMap<>(), null, HttpUtil.HTTP_OK);
+        }
+
+        // openapi statuses are represented as strings
+        final Map<Integer, IndexedResponse> responsesByStatus = new HashMap<>(responses.size() * 4 / 3 + 1);
+        responses.forEach((status, response) -> {
+            final Integer statusCode = parseStatusCode(status);
+            if (nonNull(statusCode)) {
+                responsesByStatus.put(statusCode, new IndexedResponse(spec, response));
+            }
+        });
+
+        final IndexedResponse defaultResponse = nonNull(responses.getDefault()) ?
+                new IndexedResponse(spec, responses.getDefault()) : null;
+
+        // the first response for the operation is used if no status code is configured,
+        // unless it is the default response, which does not have a status code
+        final Integer firstStatusCode = parseStatusCode(responses.keySet().iterator().next());
+        final int defaultStatusCode = nonNull(firstStatusCode) ? firstStatusCode : HttpUtil.HTTP_OK;
+
+        return new OperationResponses(responsesByStatus, defaultResponse, defaultStatusCode);
+    }
+
+    private static Integer parseStatusCode(String status) {
+        if (DEFAULT_RESPONSE_KEY.equalsIgnoreCase(status)) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(status);
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Unsupported response status: {} in specification", status);
+            return null;
+        }
+    }
+
+    /**
+     * @return the status code of the first response of the operation
+     */
+    public int getDefaultStatusCode() {
+        return defaultStatusCode;
+    }
+
+    /**
+     * @param statusCode the response status code
+     * @return the response for the status code, falling back to the default response, or
+     * {@code null} if there is neither
+     */
+    public IndexedResponse find(int statusCode) {
+        final IndexedResponse response = responsesByStatus.get(statusCode);
+        if (nonNull(response)) {
+            return response;
+        }
+        LOGGER.debug("No response found for status code {}; falling back to default response if present", statusCode);
+        return defaultResponse;
+    }
+
+    /**
+     * A response from the specification, with its content type.
+     */
+    public static class IndexedResponse {
+        private final ApiResponse response;
+        private final String contentType;
+        private final int contentTypeCount;
+
+        IndexedResponse(OpenAPI spec, ApiResponse response) {
+            this.response = response;
+
+            final Content content = resolveContent(spec, response);
+            if (nonNull(content) && !content.isEmpty()) {
+                this.contentType = content.keySet().iterator().next();
+                this.contentTypeCount = content.size();
+            } else {
+                this.contentType = null;
+                this.contentTypeCount = 0;
+            }
+        }
+
+        private static Content resolveContent(OpenAPI spec, ApiResponse response) {
+            if (isNull(response.get$ref())) {
+                return response.getContent();
+            }
+            try {
+                return RefUtil.lookupResponseRef(spec, response).getContent();
+            } catch (IllegalStateException e) {
+                LOGGER.warn("Unable to resolve response reference: {}", response.get$ref(), e);
+                return null;
+            }
+        }
+
+        public ApiResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * @return the first content type of the response, or {@code null} if it has no content
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+        public int getContentTypeCount() {
+            return contentTypeCount;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.plugin.openapi.model;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A serialised example, generated from a schema ahead of time.
+ * <p>
+ * Values in a {@link DynamicFormat} are generated when the schema example is collected,
+ * so they are represented in the example by placeholders. Each time the example is
+ * rendered, a new value is generated for each placeholder. An example without
+ * placeholders is rendered from the same buffer each time.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class PrecomputedExample {
+    /**
+     * Placeholders contain a random component, so they do not clash with literal values in the example.
+     */
+    private static final String PLACEHOLDER_PREFIX = "__imposter_" + UUID.randomUUID().toString().replace("-", "") + "_";
+    private static final String PLACEHOLDER_SUFFIX = "__";
+
+    private final String contentType;
+    private final String[] literals;
+    private final DynamicFormat[] formats;
+    private final Buffer staticBody;
+
+    private PrecomputedExample(String contentType, String[] literals, DynamicFormat[] formats) {
+        this.contentType = contentType;
+        this.literals = literals;
+        this.formats = formats;
+        this.staticBody = (formats.length == 0) ? Buffer.buffer(literals[0]) : null;
+    }
+
+    /**
+     * @param format the dynamic format
+     * @return the placeholder to use in place of a value in the format
+     */
+    public static String placeholderFor(DynamicFormat format) {
+        return PLACEHOLDER_PREFIX + format.name() + PLACEHOLDER_SUFFIX;
+    }
+
+    /**
+     * @param contentType the content type of the example
+     * @param serialised  the serialised example, which may contain placeholders
+     * @return the precomputed example
+     */
+    public static PrecomputedExample compile(String contentType, String serialised) {
+        final List<String> literals = new ArrayList<>();
+        final List<DynamicFormat> formats = new ArrayList<>();
+
+        int literalStart = 0;
+        int placeholderStart;
+        while ((placeholderStart = serialised.indexOf(PLACEHOLDER_PREFIX, literalStart)) >= 0) {
+            final int nameStart = placeholderStart + PLACEHOLDER_PREFIX.length();
+            final int nameEnd = serialised.indexOf(PLACEHOLDER_SUFFIX, nameStart);
+            literals.add(serialised.substring(literalStart, placeholderStart));
+            formats.add(DynamicFormat.valueOf(serialised.substring(nameStart, nameEnd)));
+            literalStart = nameEnd + PLACEHOLDER_SUFFIX.length();
+        }
+        literals.add(serialised.substring(literalStart));
+
+        return new PrecomputedExample(contentType, literals.toArray(new String[0]), formats.toArray(new DynamicFormat[0]));
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return the example, with a new value for each placeholder
+     */
+    public Buffer render() {
+        if (formats.length == 0) {
+            return staticBody;
+        }
+        final StringBuilder body = new StringBuilder(literals[0]);
+        for (int i = 0; i < formats.length; i++) {
+            body.append(formats[i].generate()).append(literals[i + 1]);
+        }
+        return Buffer.buffer(body.toString());
+    }
+}
@@ -70,4 +70,12 @@ public interface ExampleService {
                          ResponseBehaviour responseBehaviour,
                          ApiResponse mockResponse,
                          OpenAPI spec);
+
+    /**
+     * Generate and serialise examples from the response schemas of each operation in the
+     * specification, so they do not need to be generated for each request.
+     *
+     * @param spec the OpenAPI specification
+     */
+    void precomputeSchemaExamples(OpenAPI spec);
 }
@@ -44,14 +44,19 @@
 package io.gatehill.imposter.plugin.openapi.service;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.MapMaker;
 import io.gatehill.imposter.ImposterConfig;
 import io.gatehill.imposter.plugin.openapi.config.OpenApiPluginConfig;
 import io.gatehill.imposter.plugin.openapi.model.ContentTypedHolder;
+import io.gatehill.imposter.plugin.openapi.model.PrecomputedExample;
 import io.gatehill.imposter.plugin.openapi.util.RefUtil;
 import io.gatehill.imposter.script.ResponseBehaviour;
 import io.gatehill.imposter.util.HttpUtil;
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.responses.ApiResponse;
 import io.vertx.ext.web.RoutingContext;
@@ -60,11 +65,13 @@ import org.apache.logging.log4j.Logger;
 
 import javax.inject.Inject;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
@@ -82,6 +89,12 @@ public class ExampleServiceImpl implements ExampleService {
     @Inject
     private ResponseTransmissionService responseTransmissionService;
 
+    /**
+     * Examples generated from response schemas. Keys are compared by identity, as
+     * schema equality compares the whole schema tree.
+     */
+    private final Map<Schema<?>, PrecomputedExample> precomputedExamples = new MapMaker().weakKeys().makeMap();
+
     /**
      * {@inheritDoc}
      */
@@ -123,6 +136,56 @@ public class ExampleServiceImpl implements ExampleService {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void precomputeSchemaExamples(OpenAPI spec) {
+        final long startMillis = System.currentTimeMillis();
+        int exampleCount = 0;
+
+        for (PathItem pathItem : spec.getPaths().values()) {
+            for (Operation operation : pathItem.readOperations()) {
+                if (isNull(operation.getResponses())) {
+                    continue;
+                }
+                for (ApiResponse response : operation.getResponses().values()) {
+                    final Optional<Content> responseContent = findContent(spec, response);
+                    if (!responseContent.isPresent()) {
+                        continue;
+                    }
+                    for (Map.Entry<String, MediaType> mediaType : responseContent.get().entrySet()) {
+                        if (nonNull(mediaType.getValue().getSchema()) &&
+                                precomputeSchemaExample(spec, new ContentTypedHolder<>(mediaType.getKey(), mediaType.getValue().getSchema()))) {
+                            exampleCount++;
+                        }
+                    }
+                }
+            }
+        }
+
+        LOGGER.debug("Precomputed {} examples from response schemas in {}ms", exampleCount, System.currentTimeMillis() - startMillis);
+    }
+
+    private boolean precomputeSchemaExample(OpenAPI spec, ContentTypedHolder<Schema<?>> schema) {
+        if (precomputedExamples.containsKey(schema.getValue())) {
+            return false;
+        }
+        try {
+            final ContentTypedHolder<?> template = schemaService.collectExampleTemplate(spec, schema);
+            if (isNull(template.getValue())) {
+                return false;
+            }
+            final String serialised = responseTransmissionService.serialiseExample(template);
+            precomputedExamples.put(schema.getValue(), PrecomputedExample.compile(schema.getContentType(), serialised));
+            return true;
+
+        } catch (Exception | StackOverflowError e) {
+            LOGGER.debug("Unable to precompute example from {} schema - example will be generated for each request", schema.getContentType(), e);
+            return false;
+        }
+    }
+
     private Optional<Content> findContent(OpenAPI spec, ApiResponse response) {
         // $ref takes precedence, per spec:
         //   "Any sibling elements of a $ref are ignored. This is because
@@ -284,6 +347,11 @@ public class ExampleServiceImpl implements ExampleService {
     }
 
     private boolean serveFromSchema(RoutingContext routingContext, OpenAPI spec, ContentTypedHolder<Schema<?>> schema) {
+        final PrecomputedExample precomputed = precomputedExamples.get(schema.getValue());
+        if (nonNull(precomputed) && precomputed.getContentType().equals(schema.getContentType())) {
+            responseTransmissionService.transmitPrecomputedExample(routingContext, precomputed);
+            return true;
+        }
         try {
             final ContentTypedHolder<?> dynamicExamples = schemaService.collectExamples(routingContext.request(), spec, schema);
             responseTransmissionService.transmitExample(routingContext, dynamicExamples);
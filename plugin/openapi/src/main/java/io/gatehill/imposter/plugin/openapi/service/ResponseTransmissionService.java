@@ -44,6 +44,7 @@
 package io.gatehill.imposter.plugin.openapi.service;
 
 import io.gatehill.imposter.plugin.openapi.model.ContentTypedHolder;
+import io.gatehill.imposter.plugin.openapi.model.PrecomputedExample;
 import io.vertx.ext.web.RoutingContext;
 
 /**
@@ -53,4 +54,20 @@ import io.vertx.ext.web.RoutingContext;
  */
 public interface ResponseTransmissionService {
     <T> void transmitExample(RoutingContext routingContext, ContentTypedHolder<T> example);
+
+    /**
+     * Render and transmit an example generated ahead of time.
+     *
+     * @param routingContext the Vert.x routing context
+     * @param example        the example
+     */
+    void transmitPrecomputedExample(RoutingContext routingContext, PrecomputedExample example);
+
+    /**
+     * Serialise the example, based on its content type.
+     *
+     * @param example the example
+     * @return the serialised example
+     */
+    String serialiseExample(ContentTypedHolder<?> example);
 }
@@ -45,7 +45,10 @@ package io.gatehill.imposter.plugin.openapi.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.gatehill.imposter.plugin.openapi.model.ContentTypedHolder;
+import io.gatehill.imposter.plugin.openapi.model.PrecomputedExample;
+import io.gatehill.imposter.util.ResourceUtil;
 import io.swagger.v3.oas.models.examples.Example;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.ext.web.RoutingContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -87,11 +90,38 @@ public class ResponseTransmissionServiceImpl implements ResponseTransmissionServ
                     ofNullable(exampleResponse).map(String::length).orElse(0));
         }
 
+        final Buffer body = Buffer.buffer(exampleResponse);
+        routingContext.put(ResourceUtil.RESPONSE_BODY_KEY, body);
+
+        routingContext.response()
+                .putHeader(CONTENT_TYPE, example.getContentType())
+                .end(body);
+    }
+
+    @Override
+    public void transmitPrecomputedExample(RoutingContext routingContext, PrecomputedExample example) {
+        final Buffer exampleResponse = example.render();
+
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace("Serving precomputed mock example for URI {} with status code {}: {}",
+                    routingContext.request().absoluteURI(), routingContext.response().getStatusCode(), exampleResponse);
+        } else {
+            LOGGER.info("Serving precomputed mock example for URI {} with status code {} (response body {} bytes)",
+                    routingContext.request().absoluteURI(), routingContext.response().getStatusCode(), exampleResponse.length());
+        }
+
+        routingContext.put(ResourceUtil.RESPONSE_BODY_KEY, exampleResponse);
+
         routingContext.response()
                 .putHeader(CONTENT_TYPE, example.getContentType())
                 .end(exampleResponse);
     }
 
+    @Override
+    public String serialiseExample(ContentTypedHolder<?> example) {
+        return buildExampleResponse(example.getContentType(), example.getValue());
+    }
+
     /**
      * Construct a response body from the example, based on the content type.
      *
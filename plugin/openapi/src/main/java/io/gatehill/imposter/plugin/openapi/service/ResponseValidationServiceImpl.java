@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.plugin.openapi.service;
+
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import com.atlassian.oai.validator.model.Request;
+import com.atlassian.oai.validator.model.SimpleResponse;
+import com.atlassian.oai.validator.report.SimpleValidationReportFormat;
+import com.atlassian.oai.validator.report.ValidationReport;
+import io.gatehill.imposter.ImposterConfig;
+import io.gatehill.imposter.plugin.openapi.config.OpenApiPluginConfig;
+import io.gatehill.imposter.plugin.openapi.config.OpenApiPluginValidationConfig;
+import io.gatehill.imposter.plugin.openapi.model.ResponseValidationFailure;
+import io.gatehill.imposter.util.EnvVars;
+import io.gatehill.imposter.util.MetricsUtil;
+import io.gatehill.imposter.util.ResourceUtil;
+import io.micrometer.core.instrument.Counter;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.inject.Inject;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Validates a sample of responses on a dedicated worker pool, after they have been sent,
+ * so the cost of validation is not incurred by the request.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class ResponseValidationServiceImpl implements ResponseValidationService {
+    private static final Logger LOGGER = LogManager.getLogger(ResponseValidationServiceImpl.class);
+    private static final String WORKER_POOL_NAME = "imposter-openapi-response-validation";
+
+    private static final String ENV_POOL_SIZE = "IMPOSTER_OPENAPI_RESPONSE_VALIDATION_POOL_SIZE";
+    private static final String ENV_QUEUE_SIZE = "IMPOSTER_OPENAPI_RESPONSE_VALIDATION_QUEUE_SIZE";
+    private static final String ENV_REPORT_SIZE = "IMPOSTER_OPENAPI_RESPONSE_VALIDATION_REPORT_SIZE";
+    private static final int DEFAULT_POOL_SIZE = 2;
+    private static final int DEFAULT_QUEUE_SIZE = 1000;
+    private static final int DEFAULT_REPORT_SIZE = 100;
+
+    private static final String METRIC_VALIDATION_PASSED = "openapi.response.validation.passed";
+    private static final String METRIC_VALIDATION_FAILED = "openapi.response.validation.failed";
+    private static final String METRIC_VALIDATION_DROPPED = "openapi.response.validation.dropped";
+    private static final String METRIC_VALIDATION_SKIPPED = "openapi.response.validation.skipped";
+
+    private final SpecificationService specificationService;
+    private final WorkerExecutor workerExecutor;
+    private final SimpleValidationReportFormat reportFormatter = SimpleValidationReportFormat.getInstance();
+
+    /**
+     * The maximum number of responses waiting for validation, beyond which sampled responses are dropped.
+     */
+    private final int queueSize;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final int reportSize;
+    private final Deque<ResponseValidationFailure> failures = new ArrayDeque<>();
+
+    private Counter passedCounter;
+    private Counter failedCounter;
+    private Counter droppedCounter;
+    private Counter skippedCounter;
+
+    @Inject
+    public ResponseValidationServiceImpl(Vertx vertx, SpecificationService specificationService) {
+        this.specificationService = specificationService;
+
+        final int poolSize = ofNullable(EnvVars.getEnv(ENV_POOL_SIZE)).map(Integer::parseInt).orElse(DEFAULT_POOL_SIZE);
+        this.workerExecutor = vertx.createSharedWorkerExecutor(WORKER_POOL_NAME, poolSize);
+        this.queueSize = ofNullable(EnvVars.getEnv(ENV_QUEUE_SIZE)).map(Integer::parseInt).orElse(DEFAULT_QUEUE_SIZE);
+        this.reportSize = ofNullable(EnvVars.getEnv(ENV_REPORT_SIZE)).map(Integer::parseInt).orElse(DEFAULT_REPORT_SIZE);
+
+        MetricsUtil.doIfMetricsEnabled(METRIC_VALIDATION_PASSED, registry -> {
+            passedCounter = Counter.builder(METRIC_VALIDATION_PASSED)
+                    .description("The number of sampled responses that passed validation")
+                    .register(registry);
+
+            failedCounter = Counter.builder(METRIC_VALIDATION_FAILED)
+                    .description("The number of sampled responses that failed validation")
+                    .register(registry);
+
+            droppedCounter = Counter.builder(METRIC_VALIDATION_DROPPED)
+                    .description("The number of sampled responses not validated because the validation queue was full")
+                    .register(registry);
+
+            skippedCounter = Counter.builder(METRIC_VALIDATION_SKIPPED)
+                    .description("The number of sampled responses not validated because their body was streamed")
+                    .register(registry);
+        });
+    }
+
+    @Override
+    public void sampleResponse(
+            ImposterConfig imposterConfig,
+            OpenApiPluginConfig pluginConfig,
+            OpenAPI spec,
+            Operation operation,
+            RoutingContext routingContext
+    ) {
+        final OpenApiPluginValidationConfig validation = pluginConfig.getValidation();
+        if (isNull(validation) || OpenApiPluginValidationConfig.ValidationIssueBehaviour.IGNORE.equals(validation.getResponse())) {
+            return;
+        }
+        final double sampleRate = ofNullable(validation.getResponseSampleRate()).orElse(1.0);
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+
+        final HttpServerRequest request = routingContext.request();
+        final String method = request.method().name();
+        final String path = request.path();
+
+        routingContext.addBodyEndHandler(ignored -> {
+            // the body is not held in memory, so cannot be validated
+            if (Boolean.TRUE.equals(routingContext.get(ResourceUtil.RESPONSE_BODY_STREAMED_KEY))) {
+                LOGGER.trace("Response body was streamed - skipping validation of response for {} {}", method, path);
+                if (nonNull(skippedCounter)) {
+                    skippedCounter.increment();
+                }
+                return;
+            }
+
+            if (pending.incrementAndGet() > queueSize) {
+                pending.decrementAndGet();
+                LOGGER.trace("Response validation queue is full - skipping validation of response for {} {}", method, path);
+                if (nonNull(droppedCounter)) {
+                    droppedCounter.increment();
+                }
+                return;
+            }
+
+            // capture the response on the event loop, before validating on a worker
+            final HttpServerResponse response = routingContext.response();
+            final SimpleResponse validatorResponse = buildResponse(
+                    response.getStatusCode(),
+                    response.headers(),
+                    routingContext.get(ResourceUtil.RESPONSE_BODY_KEY)
+            );
+
+            workerExecutor.executeBlocking(future -> {
+                try {
+                    validateResponse(imposterConfig, pluginConfig, spec, operation, method, path, validatorResponse);
+                    future.complete();
+                } catch (Exception e) {
+                    future.fail(e);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }, false, result -> {
+                if (result.failed()) {
+                    LOGGER.warn("Error validating response for {} {}", method, path, result.cause());
+                }
+            });
+        });
+    }
+
+    private SimpleResponse buildResponse(int statusCode, MultiMap headers, Buffer body) {
+        final SimpleResponse.Builder builder = new SimpleResponse.Builder(statusCode);
+        headers.names().forEach(name -> builder.withHeader(name, headers.getAll(name)));
+        if (nonNull(body)) {
+            builder.withBody(body.getBytes());
+        }
+        return builder.build();
+    }
+
+    private void validateResponse(
+            ImposterConfig imposterConfig,
+            OpenApiPluginConfig pluginConfig,
+            OpenAPI spec,
+            Operation operation,
+            String method,
+            String path,
+            SimpleResponse response
+    ) throws Exception {
+        final OpenApiInteractionValidator validator = specificationService.getOperationValidator(
+                imposterConfig, pluginConfig, spec, operation
+        );
+        final ValidationReport report = validator.validateResponse(path, Request.Method.valueOf(method), response);
+
+        if (report.hasErrors()) {
+            LOGGER.warn("Response validation failed for {} {}: {}", method, path, reportFormatter.apply(report));
+            if (nonNull(failedCounter)) {
+                failedCounter.increment();
+            }
+
+            final List<String> messages = report.getMessages().stream()
+                    .map(message -> String.format("[%s] %s: %s", message.getLevel(), message.getKey(), message.getMessage()))
+                    .collect(Collectors.toList());
+
+            addFailure(new ResponseValidationFailure(
+                    Instant.now().toString(), method, path, response.getStatus(), messages
+            ));
+
+        } else {
+            LOGGER.debug("Response validation passed for {} {}", method, path);
+            if (nonNull(passedCounter)) {
+                passedCounter.increment();
+            }
+        }
+    }
+
+    private void addFailure(ResponseValidationFailure failure) {
+        synchronized (failures) {
+            if (failures.size() >= reportSize) {
+                failures.removeFirst();
+            }
+            failures.addLast(failure);
+        }
+    }
+
+    @Override
+    public List<ResponseValidationFailure> getFailures() {
+        synchronized (failures) {
+            return newArrayList(failures);
+        }
+    }
+
+    @Override
+    public void clearFailures() {
+        synchronized (failures) {
+            failures.clear();
+        }
+    }
+}
@@ -55,4 +55,14 @@ import io.vertx.core.http.HttpServerRequest;
  */
 public interface SchemaService {
     ContentTypedHolder<?> collectExamples(HttpServerRequest request, OpenAPI spec, ContentTypedHolder<Schema<?>> schema);
+
+    /**
+     * Collect an example from the schema, in which values in a {@link io.gatehill.imposter.plugin.openapi.model.DynamicFormat}
+     * are replaced by placeholders, for use in a {@link io.gatehill.imposter.plugin.openapi.model.PrecomputedExample}.
+     *
+     * @param spec   the OpenAPI specification
+     * @param schema the schema
+     * @return the example
+     */
+    ContentTypedHolder<?> collectExampleTemplate(OpenAPI spec, ContentTypedHolder<Schema<?>> schema);
 }
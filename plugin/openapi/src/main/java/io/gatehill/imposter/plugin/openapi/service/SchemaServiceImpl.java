@@ -44,6 +44,8 @@
 package io.gatehill.imposter.plugin.openapi.service;
 
 import io.gatehill.imposter.plugin.openapi.model.ContentTypedHolder;
+import io.gatehill.imposter.plugin.openapi.model.DynamicFormat;
+import io.gatehill.imposter.plugin.openapi.model.PrecomputedExample;
 import io.gatehill.imposter.plugin.openapi.util.RefUtil;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.media.ArraySchema;
@@ -56,18 +58,13 @@ import io.vertx.core.http.HttpServerRequest;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
-import java.time.ZoneId;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.util.Collections.emptyMap;
@@ -83,9 +80,6 @@ import static java.util.Optional.ofNullable;
  */
 public class SchemaServiceImpl implements SchemaService {
     private static final Logger LOGGER = LogManager.getLogger(SchemaServiceImpl.class);
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneId.from(ZoneOffset.UTC));
-    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneId.from(ZoneOffset.UTC));
-
     private static final Map<String, DefaultValueProvider<?>> DEFAULT_VALUE_PROVIDERS = new HashMap<String, DefaultValueProvider<?>>() {{
         put("string", new StringDefaultValueProvider());
         put("number", new NumberDefaultValueProvider());
@@ -95,13 +89,19 @@ public class SchemaServiceImpl implements SchemaService {
 
     @Override
     public ContentTypedHolder<?> collectExamples(HttpServerRequest request, OpenAPI spec, ContentTypedHolder<Schema<?>> schema) {
-        final Object example = collectSchemaExample(spec, schema.getValue());
+        final Object example = collectSchemaExample(spec, schema.getValue(), DynamicFormat::generate);
         LOGGER.trace("Collected example from {} schema for {} {}: {}", schema.getContentType(), request.method(), request.absoluteURI(), example);
 
         return new ContentTypedHolder<>(schema.getContentType(), example);
     }
 
-    private Object collectSchemaExample(OpenAPI spec, Schema<?> schema) {
+    @Override
+    public ContentTypedHolder<?> collectExampleTemplate(OpenAPI spec, ContentTypedHolder<Schema<?>> schema) {
+        final Object example = collectSchemaExample(spec, schema.getValue(), PrecomputedExample::placeholderFor);
+        return new ContentTypedHolder<>(schema.getContentType(), example);
+    }
+
+    private Object collectSchemaExample(OpenAPI spec, Schema<?> schema, Function<DynamicFormat, String> dynamicValues) {
         final Object example;
 
         // $ref takes precedence, per spec:
@@ -111,47 +111,47 @@ public class SchemaServiceImpl implements SchemaService {
         // See: https://swagger.io/docs/specification/using-ref/
         if (nonNull(schema.get$ref())) {
             final Schema<?> referent = RefUtil.lookupSchemaRef(spec, schema);
-            example = collectSchemaExample(spec, referent);
+            example = collectSchemaExample(spec, referent, dynamicValues);
 
         } else if (nonNull(schema.getExample())) {
             if (schema instanceof DateTimeSchema) {
-                example = DATE_TIME_FORMATTER.format((OffsetDateTime) schema.getExample());
+                example = DynamicFormat.DATE_TIME_FORMATTER.format((OffsetDateTime) schema.getExample());
             } else if (schema instanceof DateSchema) {
-                example = DATE_FORMATTER.format(((Date) schema.getExample()).toInstant());
+                example = DynamicFormat.DATE_FORMATTER.format(((Date) schema.getExample()).toInstant());
             } else {
                 example = schema.getExample();
             }
 
         } else if (nonNull(schema.getProperties())) {
-            example = buildFromProperties(spec, schema.getProperties());
+            example = buildFromProperties(spec, schema.getProperties(), dynamicValues);
 
         } else if (ObjectSchema.class.isAssignableFrom(schema.getClass())) {
             final ObjectSchema objectSchema = (ObjectSchema) schema;
-            example = buildFromProperties(spec, objectSchema.getProperties());
+            example = buildFromProperties(spec, objectSchema.getProperties(), dynamicValues);
 
         } else if (ArraySchema.class.isAssignableFrom(schema.getClass())) {
-            example = buildFromArraySchema(spec, (ArraySchema) schema);
+            example = buildFromArraySchema(spec, (ArraySchema) schema, dynamicValues);
 
         } else if (ComposedSchema.class.isAssignableFrom(schema.getClass())) {
-            example = buildFromComposedSchema(spec, (ComposedSchema) schema);
+            example = buildFromComposedSchema(spec, (ComposedSchema) schema, dynamicValues);
 
         } else {
-            example = getPropertyDefault(schema);
+            example = getPropertyDefault(schema, dynamicValues);
         }
 
         return example;
     }
 
-    private List<Object> buildFromArraySchema(OpenAPI spec, ArraySchema schema) {
+    private List<Object> buildFromArraySchema(OpenAPI spec, ArraySchema schema, Function<DynamicFormat, String> dynamicValues) {
         // items may be a schema type with multiple children
         final Schema<?> items = schema.getItems();
         final List<Object> examples = new ArrayList<>();
-        examples.add(collectSchemaExample(spec, items));
+        examples.add(collectSchemaExample(spec, items, dynamicValues));
         return examples;
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private Object buildFromComposedSchema(OpenAPI spec, ComposedSchema schema) {
+    private Object buildFromComposedSchema(OpenAPI spec, ComposedSchema schema, Function<DynamicFormat, String> dynamicValues) {
         final Object example;
         if (nonNull(schema.getAllOf()) && !schema.getAllOf().isEmpty()) {
             final List<Schema> allOf = schema.getAllOf();
@@ -160,7 +160,7 @@ public class SchemaServiceImpl implements SchemaService {
             // See: https://swagger.io/docs/specification/data-models/oneof-anyof-allof-not/
             final Map<String, Object> combinedExampleProperties = new HashMap<>();
             allOf.forEach(s -> {
-                final Object exampleMap = collectSchemaExample(spec, s);
+                final Object exampleMap = collectSchemaExample(spec, s, dynamicValues);
                 if (nonNull(exampleMap) && exampleMap instanceof Map) {
                     // FIXME code defensively around this cast
                     combinedExampleProperties.putAll((Map<String, Object>) exampleMap);
@@ -171,12 +171,12 @@ public class SchemaServiceImpl implements SchemaService {
         } else if (nonNull(schema.getOneOf()) && !schema.getOneOf().isEmpty()) {
             LOGGER.debug("Found 'oneOf' in schema {} - using first schema example", ofNullable(schema.getName()).orElse(""));
             final List<Schema> oneOf = schema.getOneOf();
-            example = collectSchemaExample(spec, oneOf.get(0));
+            example = collectSchemaExample(spec, oneOf.get(0), dynamicValues);
 
         } else if (nonNull(schema.getAnyOf()) && !schema.getAnyOf().isEmpty()) {
             LOGGER.debug("Found 'anyOf' in schema {} - using first schema example", ofNullable(schema.getName()).orElse(""));
             final List<Schema> anyOf = schema.getAnyOf();
-            example = collectSchemaExample(spec, anyOf.get(0));
+            example = collectSchemaExample(spec, anyOf.get(0), dynamicValues);
 
         } else if (nonNull(schema.getNot())) {
             LOGGER.debug("Found 'not' in schema {} - using null for schema example", ofNullable(schema.getName()).orElse(""));
@@ -189,15 +189,15 @@ public class SchemaServiceImpl implements SchemaService {
     }
 
     @SuppressWarnings("rawtypes")
-    private Map<String, Object> buildFromProperties(OpenAPI spec, Map<String, Schema> properties) {
+    private Map<String, Object> buildFromProperties(OpenAPI spec, Map<String, Schema> properties, Function<DynamicFormat, String> dynamicValues) {
         if (isNull(properties)) {
             return emptyMap();
         }
         return properties.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> collectSchemaExample(spec, e.getValue())));
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> collectSchemaExample(spec, e.getValue(), dynamicValues)));
     }
 
-    private Object getPropertyDefault(Schema<?> schema) {
+    private Object getPropertyDefault(Schema<?> schema, Function<DynamicFormat, String> dynamicValues) {
         // if a non-empty enum exists, choose the first value
         if (nonNull(schema.getEnum()) && !schema.getEnum().isEmpty()) {
             return schema.getEnum().get(0);
@@ -207,7 +207,7 @@ public class SchemaServiceImpl implements SchemaService {
         if (nonNull(schema.getType())) {
             final DefaultValueProvider<?> defaultValueProvider = DEFAULT_VALUE_PROVIDERS.get(schema.getType());
             if (nonNull(defaultValueProvider)) {
-                return defaultValueProvider.provide(schema);
+                return defaultValueProvider.provide(schema, dynamicValues);
             } else {
                 LOGGER.warn("Unknown type: {} for schema: {} - returning null for example property", schema.getType(), schema.getName());
                 return null;
@@ -219,20 +219,20 @@ public class SchemaServiceImpl implements SchemaService {
     }
 
     private interface DefaultValueProvider<T> {
-        T provide(Schema<?> schema);
+        T provide(Schema<?> schema, Function<DynamicFormat, String> dynamicValues);
     }
 
     private static class StringDefaultValueProvider implements DefaultValueProvider<String> {
         @Override
-        public String provide(Schema<?> schema) {
+        public String provide(Schema<?> schema, Function<DynamicFormat, String> dynamicValues) {
             // TODO make these configurable
+            final DynamicFormat dynamicFormat = DynamicFormat.forSchemaFormat(schema.getFormat());
+            if (nonNull(dynamicFormat)) {
+                return dynamicValues.apply(dynamicFormat);
+            }
             if (nonNull(schema.getFormat())) {
                 // see https://swagger.io/docs/specification/data-models/data-types/
                 switch (schema.getFormat()) {
-                    case "date":
-                        return DATE_FORMATTER.format(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
-                    case "date-time":
-                        return DATE_TIME_FORMATTER.format(OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS));
                     case "password":
                         return "changeme";
                     case "byte":
@@ -240,9 +240,6 @@ public class SchemaServiceImpl implements SchemaService {
                         return "SW1wb3N0ZXI0bGlmZQo=";
                     case "email":
                         return "test@example.com";
-                    case "uuid":
-                    case "guid":
-                        return UUID.randomUUID().toString();
                 }
             }
             return "";
@@ -251,21 +248,21 @@ public class SchemaServiceImpl implements SchemaService {
 
     private static class NumberDefaultValueProvider implements DefaultValueProvider<Double> {
         @Override
-        public Double provide(Schema<?> schema) {
+        public Double provide(Schema<?> schema, Function<DynamicFormat, String> dynamicValues) {
             return 0.0;
         }
     }
 
     private static class IntegerDefaultValueProvider implements DefaultValueProvider<Integer> {
         @Override
-        public Integer provide(Schema<?> schema) {
+        public Integer provide(Schema<?> schema, Function<DynamicFormat, String> dynamicValues) {
             return 0;
         }
     }
 
     private static class BooleanDefaultValueProvider implements DefaultValueProvider<Boolean> {
         @Override
-        public Boolean provide(Schema<?> schema) {
+        public Boolean provide(Schema<?> schema, Function<DynamicFormat, String> dynamicValues) {
             return false;
         }
     }
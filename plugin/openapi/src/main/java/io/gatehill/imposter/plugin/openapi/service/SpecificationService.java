@@ -43,10 +43,12 @@
 
 package io.gatehill.imposter.plugin.openapi.service;
 
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
 import io.gatehill.imposter.ImposterConfig;
 import io.gatehill.imposter.plugin.openapi.config.OpenApiPluginConfig;
 import io.swagger.models.Scheme;
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
 import io.vertx.ext.web.RoutingContext;
 
 import java.util.List;
@@ -72,8 +74,22 @@ public interface SpecificationService {
 
     OpenAPI combineSpecifications(List<OpenAPI> specs, String basePath, Scheme scheme, String title);
 
+    /**
+     * Validates the request against the operation, if request validation is enabled.
+     *
+     * @return {@code true} if the request should be processed, otherwise {@code false}
+     */
     boolean isValidRequest(ImposterConfig imposterConfig,
                            OpenApiPluginConfig pluginConfig,
-                           RoutingContext routingContext,
-                           List<OpenAPI> allSpecs);
+                           OpenAPI spec,
+                           Operation operation,
+                           RoutingContext routingContext);
+
+    /**
+     * Returns the validator for the operation from cache, creating it first on cache miss.
+     */
+    OpenApiInteractionValidator getOperationValidator(ImposterConfig imposterConfig,
+                                                      OpenApiPluginConfig pluginConfig,
+                                                      OpenAPI spec,
+                                                      Operation operation) throws ExecutionException;
 }
@@ -44,25 +44,40 @@
 package io.gatehill.imposter.plugin.openapi.service;
 
 import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import com.atlassian.oai.validator.model.Body;
+import com.atlassian.oai.validator.model.Request;
 import com.atlassian.oai.validator.model.SimpleRequest;
 import com.atlassian.oai.validator.report.LevelResolver;
 import com.atlassian.oai.validator.report.SimpleValidationReportFormat;
 import com.atlassian.oai.validator.report.ValidationReport;
 import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import io.gatehill.imposter.ImposterConfig;
+import io.gatehill.imposter.http.ParsedRequestBody;
+import io.gatehill.imposter.lifecycle.ImposterLifecycleHooks;
+import io.gatehill.imposter.lifecycle.ImposterLifecycleListener;
+import io.gatehill.imposter.plugin.config.PluginConfig;
+import io.gatehill.imposter.plugin.config.resource.ResponseConfigHolder;
 import io.gatehill.imposter.plugin.openapi.config.OpenApiPluginConfig;
 import io.gatehill.imposter.plugin.openapi.config.OpenApiPluginValidationConfig;
+import io.gatehill.imposter.plugin.openapi.util.RefUtil;
 import io.gatehill.imposter.plugin.openapi.util.ValidationReportUtil;
+import io.gatehill.imposter.util.HttpUtil;
 import io.gatehill.imposter.util.MapUtil;
 import io.swagger.models.Scheme;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.ExternalDocumentation;
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.Paths;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
+import io.swagger.v3.oas.models.security.SecurityScheme;
 import io.swagger.v3.oas.models.servers.Server;
 import io.swagger.v3.oas.models.tags.Tag;
 import io.vertx.core.http.HttpServerRequest;
@@ -71,15 +86,24 @@ import io.vertx.ext.web.RoutingContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.inject.Inject;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
@@ -91,7 +115,7 @@ import static java.util.Optional.ofNullable;
 /**
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
-public class SpecificationServiceImpl implements SpecificationService {
+public class SpecificationServiceImpl implements SpecificationService, ImposterLifecycleListener {
     private static final Logger LOGGER = LogManager.getLogger(SpecificationServiceImpl.class);
     private static final String DEFAULT_TITLE = "Imposter Mock APIs";
     private static final String ARG_BASEPATH = "openapi.basepath";
@@ -99,8 +123,18 @@ public class SpecificationServiceImpl implements SpecificationService {
     private static final String ARG_TITLE = "openapi.title";
 
     private final Cache<String, Object> cache = CacheBuilder.newBuilder().build();
+
+    /**
+     * Validators for each operation, keyed by operation identity.
+     */
+    private final Cache<Operation, OperationValidator> operationValidators = CacheBuilder.newBuilder().weakKeys().build();
     private final SimpleValidationReportFormat reportFormatter = SimpleValidationReportFormat.getInstance();
 
+    @Inject
+    public SpecificationServiceImpl(ImposterLifecycleHooks lifecycleHooks) {
+        lifecycleHooks.registerListener(this);
+    }
+
     @Override
     public OpenAPI getCombinedSpec(ImposterConfig imposterConfig, List<OpenAPI> allSpecs) throws ExecutionException {
         return (OpenAPI) cache.get("combinedSpecObject", () -> {
@@ -219,12 +253,25 @@ public class SpecificationServiceImpl implements SpecificationService {
         return combined;
     }
 
+    /**
+     * Building the validator, and validating requests against the specification, might block.
+     */
+    @Override
+    public boolean isBlockingRequired(PluginConfig pluginConfig, ResponseConfigHolder resourceConfig) {
+        if (pluginConfig instanceof OpenApiPluginConfig) {
+            final OpenApiPluginValidationConfig validation = ((OpenApiPluginConfig) pluginConfig).getValidation();
+            return nonNull(validation) && !OpenApiPluginValidationConfig.ValidationIssueBehaviour.IGNORE.equals(validation.getRequest());
+        }
+        return false;
+    }
+
     @Override
     public boolean isValidRequest(
             ImposterConfig imposterConfig,
             OpenApiPluginConfig pluginConfig,
-            RoutingContext routingContext,
-            List<OpenAPI> allSpecs
+            OpenAPI spec,
+            Operation operation,
+            RoutingContext routingContext
     ) {
         if (isNull(pluginConfig.getValidation())) {
             LOGGER.trace("Validation is disabled");
@@ -234,26 +281,39 @@ public class SpecificationServiceImpl implements SpecificationService {
             LOGGER.trace("Request validation is disabled");
             return true;
         }
-        if (!OpenApiPluginValidationConfig.ValidationIssueBehaviour.IGNORE.equals(pluginConfig.getValidation().getResponse())) {
-            throw new UnsupportedOperationException("Response validation is not supported");
-        }
 
-        final OpenApiInteractionValidator validator;
+        final OperationValidator validator;
         try {
-            validator = getValidator(imposterConfig, pluginConfig, allSpecs);
+            validator = getCachedValidator(imposterConfig, pluginConfig, spec, operation);
         } catch (ExecutionException e) {
             routingContext.fail(new RuntimeException("Error building spec validator", e));
             return false;
         }
 
         final HttpServerRequest request = routingContext.request();
-        final SimpleRequest.Builder requestBuilder = new SimpleRequest.Builder(request.method().toString(), request.path())
-                .withBody(routingContext.getBodyAsString());
+        final SimpleRequest.Builder requestBuilder = new SimpleRequest.Builder(request.method().toString(), request.path());
 
-        request.params().forEach(p -> requestBuilder.withQueryParam(p.getKey(), p.getValue()));
-        request.headers().forEach(h -> requestBuilder.withHeader(h.getKey(), h.getValue()));
+        // parameters and headers not declared by the operation are not validated
+        routingContext.queryParams().forEach(p -> {
+            if (validator.queryParams.contains(p.getKey())) {
+                requestBuilder.withQueryParam(p.getKey(), p.getValue());
+            }
+        });
+        request.headers().forEach(h -> {
+            if (validator.headers.contains(h.getKey().toLowerCase())) {
+                requestBuilder.withHeader(h.getKey(), h.getValue());
+            }
+        });
+
+        final ValidationReport report;
+        if (shouldValidateBody(pluginConfig.getValidation(), routingContext)) {
+            // reuse the request body parsed for matching, capture etc.
+            final Request validatorRequest = new ParsedBodyRequest(requestBuilder.build(), ParsedRequestBody.forRequest(routingContext));
+            report = validator.validator.validateRequest(validatorRequest);
+        } else {
+            report = validator.bodylessValidator.get().validateRequest(requestBuilder.build());
+        }
 
-        final ValidationReport report = validator.validateRequest(requestBuilder.build());
         if (!report.getMessages().isEmpty()) {
             final String reportMessages = reportFormatter.apply(report);
             LOGGER.warn("Validation failed for {} {}: {}", request.method(), request.absoluteURI(), reportMessages);
@@ -277,25 +337,188 @@ public class SpecificationServiceImpl implements SpecificationService {
         return true;
     }
 
+    @Override
+    public OpenApiInteractionValidator getOperationValidator(
+            ImposterConfig imposterConfig,
+            OpenApiPluginConfig pluginConfig,
+            OpenAPI spec,
+            Operation operation
+    ) throws ExecutionException {
+        return getCachedValidator(imposterConfig, pluginConfig, spec, operation).validator;
+    }
+
+    private OperationValidator getCachedValidator(
+            ImposterConfig imposterConfig,
+            OpenApiPluginConfig pluginConfig,
+            OpenAPI spec,
+            Operation operation
+    ) throws ExecutionException {
+        return operationValidators.get(operation, () -> buildOperationValidator(imposterConfig, pluginConfig, spec, operation));
+    }
+
     /**
-     * Returns the specification validator from cache, creating it first on cache miss.
+     * Determines whether the request body should be validated. Bodies larger than
+     * the configured size are only validated for a sample of requests.
      */
-    private OpenApiInteractionValidator getValidator(ImposterConfig imposterConfig, OpenApiPluginConfig pluginConfig, List<OpenAPI> allSpecs) throws ExecutionException {
-        return (OpenApiInteractionValidator) cache.get("specValidator", () -> {
-            final OpenAPI combined = getCombinedSpec(imposterConfig, allSpecs);
+    private boolean shouldValidateBody(OpenApiPluginValidationConfig validation, RoutingContext routingContext) {
+        if (isNull(validation.getLargeBodySize()) || isNull(routingContext.getBody())) {
+            return true;
+        }
+        final int bodySize = routingContext.getBody().length();
+        if (bodySize <= validation.getLargeBodySize()) {
+            return true;
+        }
+        final boolean sampled = ThreadLocalRandom.current().nextDouble() < ofNullable(validation.getLargeBodySampleRate()).orElse(0.0);
+        if (!sampled) {
+            LOGGER.trace("Skipping validation of large request body ({} bytes)", bodySize);
+        }
+        return sampled;
+    }
 
-            final OpenApiInteractionValidator.Builder builder = OpenApiInteractionValidator.createFor(combined);
+    /**
+     * Builds a validator for a single operation, using a specification containing only that operation.
+     */
+    private OperationValidator buildOperationValidator(
+            ImposterConfig imposterConfig,
+            OpenApiPluginConfig pluginConfig,
+            OpenAPI spec,
+            Operation operation
+    ) {
+        for (Map.Entry<String, PathItem> pathEntry : getOrEmpty(spec.getPaths()).entrySet()) {
+            final PathItem pathItem = pathEntry.getValue();
+            for (Map.Entry<PathItem.HttpMethod, Operation> operationEntry : pathItem.readOperationsMap().entrySet()) {
+                if (operationEntry.getValue() == operation) {
+                    LOGGER.trace("Building validator for {} {}", operationEntry.getKey(), pathEntry.getKey());
+
+                    final OpenAPI operationSpec = buildOperationSpec(
+                            imposterConfig, spec, pathEntry.getKey(), pathItem, operationEntry.getKey(), operation
+                    );
+                    final Map<String, String> levels = pluginConfig.getValidation().getLevels();
+
+                    final OperationValidator validator = new OperationValidator(
+                            buildValidator(operationSpec, levels, false),
+                            Suppliers.memoize(() -> buildValidator(operationSpec, levels, true))
+                    );
+                    collectDeclaredNames(spec, pathItem, operation, validator);
+                    return validator;
+                }
+            }
+        }
+        throw new IllegalStateException("Operation not found in specification: " + operation.getOperationId());
+    }
+
+    /**
+     * Builds a specification containing only the given operation, with the components
+     * and servers of its original specification.
+     */
+    private OpenAPI buildOperationSpec(
+            ImposterConfig imposterConfig,
+            OpenAPI spec,
+            String path,
+            PathItem pathItem,
+            PathItem.HttpMethod method,
+            Operation operation
+    ) {
+        final PathItem operationPathItem = new PathItem();
+        operationPathItem.setParameters(pathItem.getParameters());
+        operationPathItem.operation(method, operation);
+
+        final Paths paths = new Paths();
+        paths.addPathItem(path, operationPathItem);
+
+        final OpenAPI operationSpec = new OpenAPI();
+        operationSpec.setOpenapi(spec.getOpenapi());
+        operationSpec.setInfo(spec.getInfo());
+        operationSpec.setComponents(spec.getComponents());
+        operationSpec.setSecurity(spec.getSecurity());
+        operationSpec.setPaths(paths);
+
+        // copy the servers, as they are modified in place
+        final List<Server> servers = getOrEmpty(spec.getServers()).stream()
+                .map(server -> new Server()
+                        .url(server.getUrl())
+                        .description(server.getDescription())
+                        .variables(server.getVariables()))
+                .collect(Collectors.toList());
+
+        final Scheme scheme = Scheme.forValue(imposterConfig.getPluginArgs().get(ARG_SCHEME));
+        final String basePath = imposterConfig.getPluginArgs().get(ARG_BASEPATH);
+        setServers(operationSpec, servers, scheme, basePath);
+
+        return operationSpec;
+    }
+
+    private OpenApiInteractionValidator buildValidator(OpenAPI operationSpec, Map<String, String> levels, boolean ignoreBody) {
+        final OpenApiInteractionValidator.Builder builder = OpenApiInteractionValidator.createFor(operationSpec);
+
+        if (nonNull(levels) || ignoreBody) {
+            final LevelResolver.Builder levelBuilder = LevelResolver.create();
 
             // custom validation levels
-            if (nonNull(pluginConfig.getValidation().getLevels())) {
-                LOGGER.trace("Using custom validation levels: {}", pluginConfig.getValidation().getLevels());
-                final LevelResolver.Builder levelBuilder = LevelResolver.create();
-                pluginConfig.getValidation().getLevels().forEach((key, value) -> levelBuilder.withLevel(key, ValidationReport.Level.valueOf(value)));
-                builder.withLevelResolver(levelBuilder.build());
+            if (nonNull(levels)) {
+                LOGGER.trace("Using custom validation levels: {}", levels);
+                levels.forEach((key, value) -> levelBuilder.withLevel(key, ValidationReport.Level.valueOf(value)));
             }
+            if (ignoreBody) {
+                levelBuilder.withLevel("validation.request.body", ValidationReport.Level.IGNORE);
+                levelBuilder.withLevel("validation.request.body.missing", ValidationReport.Level.IGNORE);
+            }
+            builder.withLevelResolver(levelBuilder.build());
+        }
 
-            return builder.build();
-        });
+        return builder.build();
+    }
+
+    /**
+     * Collects the names of the query parameters and headers declared by the operation,
+     * its path, and the security schemes it requires.
+     */
+    private void collectDeclaredNames(OpenAPI spec, PathItem pathItem, Operation operation, OperationValidator validator) {
+        // required for request body validation
+        validator.headers.add(HttpUtil.CONTENT_TYPE.toLowerCase());
+
+        Stream.concat(getOrEmpty(pathItem.getParameters()).stream(), getOrEmpty(operation.getParameters()).stream())
+                .map(parameter -> nonNull(parameter.get$ref()) ? RefUtil.lookupParameterRef(spec, parameter) : parameter)
+                .forEach(parameter -> {
+                    switch (ofNullable(parameter.getIn()).orElse("")) {
+                        case "query":
+                            validator.queryParams.add(parameter.getName());
+                            break;
+                        case "header":
+                            validator.headers.add(parameter.getName().toLowerCase());
+                            break;
+                        case "cookie":
+                            validator.headers.add("cookie");
+                            break;
+                    }
+                });
+
+        final Map<String, SecurityScheme> securitySchemes = ofNullable(spec.getComponents())
+                .map(Components::getSecuritySchemes)
+                .orElse(Collections.emptyMap());
+
+        ofNullable(operation.getSecurity()).orElse(getOrEmpty(spec.getSecurity())).forEach(requirement ->
+                requirement.keySet().stream()
+                        .map(securitySchemes::get)
+                        .filter(Objects::nonNull)
+                        .forEach(securityScheme -> {
+                            if (SecurityScheme.Type.APIKEY.equals(securityScheme.getType()) && nonNull(securityScheme.getIn())) {
+                                switch (securityScheme.getIn()) {
+                                    case QUERY:
+                                        validator.queryParams.add(securityScheme.getName());
+                                        break;
+                                    case HEADER:
+                                        validator.headers.add(securityScheme.getName().toLowerCase());
+                                        break;
+                                    case COOKIE:
+                                        validator.headers.add("cookie");
+                                        break;
+                                }
+                            } else {
+                                validator.headers.add("authorization");
+                            }
+                        })
+        );
     }
 
     private void setServers(OpenAPI combined, List<Server> servers, Scheme scheme, String basePath) {
@@ -374,6 +597,97 @@ public class SpecificationServiceImpl implements SpecificationService {
         return ofNullable(list).orElse(Collections.EMPTY_MAP);
     }
 
+    /**
+     * Validators for an operation, with the names of the query parameters
+     * and headers that the operation declares.
+     */
+    private static class OperationValidator {
+        private final OpenApiInteractionValidator validator;
+        private final Supplier<OpenApiInteractionValidator> bodylessValidator;
+        private final Set<String> queryParams = new HashSet<>();
+        private final Set<String> headers = new HashSet<>();
+
+        private OperationValidator(
+                OpenApiInteractionValidator validator,
+                Supplier<OpenApiInteractionValidator> bodylessValidator
+        ) {
+            this.validator = validator;
+            this.bodylessValidator = bodylessValidator;
+        }
+    }
+
+    /**
+     * Supplies the validator with the request body parsed by {@link ParsedRequestBody},
+     * delegating all other properties to a {@link SimpleRequest}.
+     */
+    private static class ParsedBodyRequest implements Request {
+        private final Request delegate;
+        private final ParsedRequestBody parsedBody;
+
+        private ParsedBodyRequest(Request delegate, ParsedRequestBody parsedBody) {
+            this.delegate = delegate;
+            this.parsedBody = parsedBody;
+        }
+
+        @Override
+        public String getPath() {
+            return delegate.getPath();
+        }
+
+        @Override
+        public Method getMethod() {
+            return delegate.getMethod();
+        }
+
+        @Override
+        public Optional<String> getBody() {
+            return ofNullable(parsedBody.getBody());
+        }
+
+        @Override
+        public Optional<Body> getRequestBody() {
+            if (parsedBody.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(new Body() {
+                @Override
+                public boolean hasBody() {
+                    return true;
+                }
+
+                @Override
+                public JsonNode toJsonNode() throws IOException {
+                    return parsedBody.getJsonNode();
+                }
+
+                @Override
+                public String toString(Charset encoding) {
+                    return parsedBody.getBody();
+                }
+            });
+        }
+
+        @Override
+        public Collection<String> getQueryParameters() {
+            return delegate.getQueryParameters();
+        }
+
+        @Override
+        public Collection<String> getQueryParameterValues(String name) {
+            return delegate.getQueryParameterValues(name);
+        }
+
+        @Override
+        public Map<String, Collection<String>> getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public Collection<String> getHeaderValues(String name) {
+            return delegate.getHeaderValues(name);
+        }
+    }
+
     private <H, T> Map<String, T> aggregate(List<H> allHolders, Function<H, Map<String, T>> mapSupplier) {
         final Map<String, T> all = newHashMap();
 
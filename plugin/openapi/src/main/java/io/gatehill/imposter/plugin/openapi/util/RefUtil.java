@@ -45,6 +45,7 @@ package io.gatehill.imposter.plugin.openapi.util;
 
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.responses.ApiResponse;
 
 import static java.util.Optional.ofNullable;
@@ -57,12 +58,25 @@ import static java.util.Optional.ofNullable;
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
 public class RefUtil {
+    private static final String REF_PREFIX_PARAMETERS = "#/components/parameters/";
     private static final String REF_PREFIX_RESPONSES = "#/components/responses/";
     private static final String REF_PREFIX_SCHEMAS = "#/components/schemas/";
 
     private RefUtil() {
     }
 
+    public static Parameter lookupParameterRef(OpenAPI spec, Parameter referrer) {
+        if (referrer.get$ref().startsWith(REF_PREFIX_PARAMETERS)) {
+            final String parameterName = referrer.get$ref().substring(REF_PREFIX_PARAMETERS.length());
+            return ofNullable(spec.getComponents())
+                    .flatMap(components -> ofNullable(components.getParameters()))
+                    .map(parameters -> parameters.get(parameterName))
+                    .orElseThrow(() -> new IllegalStateException("Referenced parameter not found in components section: " + parameterName));
+        } else {
+            throw new IllegalStateException("Unsupported parameter $ref: " + referrer.get$ref());
+        }
+    }
+
     public static ApiResponse lookupResponseRef(OpenAPI spec, ApiResponse referrer) {
         if (referrer.get$ref().startsWith(REF_PREFIX_RESPONSES)) {
             final String responseName = referrer.get$ref().substring(REF_PREFIX_RESPONSES.length());
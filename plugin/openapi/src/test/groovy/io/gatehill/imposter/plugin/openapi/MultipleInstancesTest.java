@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.plugin.openapi;
+
+import com.google.common.collect.Lists;
+import com.jayway.restassured.RestAssured;
+import io.gatehill.imposter.plugin.Plugin;
+import io.gatehill.imposter.plugin.PluginManager;
+import io.gatehill.imposter.server.BaseVerticleTest;
+import io.gatehill.imposter.server.ImposterVerticle;
+import io.gatehill.imposter.util.HttpUtil;
+import io.gatehill.imposter.util.InjectorUtil;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static com.jayway.restassured.RestAssured.given;
+
+/**
+ * Tests for deploying multiple instances with the OpenAPI plugin, which must only
+ * parse its specifications once.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+@RunWith(VertxUnitRunner.class)
+public class MultipleInstancesTest extends BaseVerticleTest {
+    @Override
+    protected Class<? extends Plugin> getPluginClass() {
+        return OpenApiPluginImpl.class;
+    }
+
+    @Override
+    protected int getInstances() {
+        return 4;
+    }
+
+    @Before
+    public void setUp(TestContext testContext) throws Exception {
+        super.setUp(testContext);
+        RestAssured.baseURI = "http://" + HOST + ":" + getListenPort();
+    }
+
+    @Override
+    protected List<String> getTestConfigDirs() {
+        return Lists.newArrayList(
+                "/openapi3/simple"
+        );
+    }
+
+    @Test
+    public void testSpecsParsedOnce(TestContext testContext) throws Exception {
+        final Async async = testContext.async();
+
+        final OpenApiPluginImpl plugin = InjectorUtil.getInjector().getInstance(PluginManager.class)
+                .getPlugin(OpenApiPluginImpl.class.getCanonicalName());
+        final Object parsedSpecs = getParsedSpecs(plugin);
+        testContext.assertNotNull(parsedSpecs);
+
+        final DeploymentOptions options = new DeploymentOptions().setInstances(2);
+        rule.vertx().deployVerticle(ImposterVerticle.class.getCanonicalName(), options, deployed -> {
+            if (deployed.failed()) {
+                testContext.fail(deployed.cause());
+                return;
+            }
+
+            try {
+                // routes were configured for the new instances from the existing specifications
+                testContext.assertTrue(parsedSpecs == getParsedSpecs(plugin), "Specifications should not be parsed again");
+            } catch (Exception e) {
+                testContext.fail(e);
+                return;
+            }
+
+            // the test context event loop might be shared with a server instance, so must not be blocked
+            rule.vertx().executeBlocking(future -> {
+                for (int i = 0; i < 10; i++) {
+                    given().when()
+                            .get("/oas3/apis")
+                            .then()
+                            .statusCode(HttpUtil.HTTP_OK);
+                }
+                future.complete();
+            }, result -> {
+                if (result.succeeded()) {
+                    async.complete();
+                } else {
+                    testContext.fail(result.cause());
+                }
+            });
+        });
+    }
+
+    private static Object getParsedSpecs(OpenApiPluginImpl plugin) throws Exception {
+        final Field field = OpenApiPluginImpl.class.getDeclaredField("parsedSpecs");
+        field.setAccessible(true);
+        return field.get(plugin);
+    }
+}
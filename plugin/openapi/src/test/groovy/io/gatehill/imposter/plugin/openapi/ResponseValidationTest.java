@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.plugin.openapi;
+
+import com.google.common.collect.Lists;
+import com.jayway.restassured.RestAssured;
+import com.jayway.restassured.http.ContentType;
+import io.gatehill.imposter.plugin.Plugin;
+import io.gatehill.imposter.server.BaseVerticleTest;
+import io.gatehill.imposter.util.EnvVars;
+import io.gatehill.imposter.util.HttpUtil;
+import io.vertx.ext.unit.TestContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.jayway.restassured.RestAssured.given;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Tests for sampled response validation for OpenAPI mocks.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class ResponseValidationTest extends BaseVerticleTest {
+    @Override
+    protected Class<? extends Plugin> getPluginClass() {
+        return OpenApiPluginImpl.class;
+    }
+
+    @Before
+    public void setUp(TestContext testContext) throws Exception {
+        // ensure response files are streamed, rather than cached
+        EnvVars.populate(singletonMap("IMPOSTER_RESPONSE_FILE_CACHE_MAX_BYTES", "1"));
+
+        super.setUp(testContext);
+        RestAssured.baseURI = "http://" + HOST + ":" + getListenPort();
+    }
+
+    @After
+    public void tearDown() {
+        EnvVars.populate(System.getenv());
+    }
+
+    @Override
+    protected List<String> getTestConfigDirs() {
+        return Lists.newArrayList(
+                "/openapi3/response-validation"
+        );
+    }
+
+    /**
+     * A nonconformant response should be sent, then reported as a validation failure.
+     */
+    @Test
+    public void testNonconformantResponseReported(TestContext testContext) throws Exception {
+        clearFailures();
+
+        given()
+                .log().ifValidationFails()
+                .accept(ContentType.JSON)
+                .when()
+                .get("/pets/1")
+                .then()
+                .log().ifValidationFails()
+                .statusCode(HttpUtil.HTTP_OK);
+
+        final List<Map<String, Object>> failures = awaitFailures(1);
+        testContext.assertEquals(1, failures.size());
+
+        final Map<String, Object> failure = failures.get(0);
+        testContext.assertEquals("GET", failure.get("method"));
+        testContext.assertEquals("/pets/1", failure.get("path"));
+        testContext.assertEquals(HttpUtil.HTTP_OK, failure.get("statusCode"));
+        testContext.assertTrue(failure.get("messages").toString().contains("validation.response.body"));
+    }
+
+    /**
+     * A conformant response should not be reported.
+     */
+    @Test
+    public void testConformantResponseNotReported(TestContext testContext) throws Exception {
+        clearFailures();
+
+        given()
+                .log().ifValidationFails()
+                .accept(ContentType.JSON)
+                .when()
+                .get("/vets")
+                .then()
+                .log().ifValidationFails()
+                .statusCode(HttpUtil.HTTP_OK);
+
+        // validation is asynchronous, so allow time for it to complete
+        Thread.sleep(500);
+        testContext.assertTrue(fetchFailures().isEmpty());
+    }
+
+    /**
+     * Static response data for a resource should be validated, as it is sent from memory.
+     */
+    @Test
+    public void testStaticDataValidated(TestContext testContext) throws Exception {
+        clearFailures();
+
+        given()
+                .log().ifValidationFails()
+                .when()
+                .get("/owners")
+                .then()
+                .log().ifValidationFails()
+                .statusCode(HttpUtil.HTTP_OK);
+
+        given()
+                .log().ifValidationFails()
+                .when()
+                .get("/owners/1")
+                .then()
+                .log().ifValidationFails()
+                .statusCode(HttpUtil.HTTP_OK);
+
+        // only the nonconformant response should be reported, as the body was available to the validator
+        final List<Map<String, Object>> failures = awaitFailures(1);
+        Thread.sleep(500);
+        testContext.assertEquals(1, fetchFailures().size());
+
+        final Map<String, Object> failure = failures.get(0);
+        testContext.assertEquals("/owners/1", failure.get("path"));
+        testContext.assertTrue(failure.get("messages").toString().contains("validation.response.body.schema"));
+    }
+
+    /**
+     * A streamed response body is not available to the validator, so the response should not be validated.
+     */
+    @Test
+    public void testStreamedFileNotValidated(TestContext testContext) throws Exception {
+        clearFailures();
+
+        given()
+                .log().ifValidationFails()
+                .when()
+                .get("/owners/2")
+                .then()
+                .log().ifValidationFails()
+                .statusCode(HttpUtil.HTTP_OK);
+
+        // validation is asynchronous, so allow time for it to complete
+        Thread.sleep(500);
+        testContext.assertTrue(fetchFailures().isEmpty());
+    }
+
+    private void clearFailures() {
+        given().delete(OpenApiPluginImpl.RESPONSE_VALIDATION_REPORT_PATH)
+                .then()
+                .statusCode(HttpUtil.HTTP_NO_CONTENT);
+    }
+
+    private List<Map<String, Object>> awaitFailures(int expected) throws InterruptedException {
+        List<Map<String, Object>> failures = fetchFailures();
+        for (int i = 0; i < 50 && failures.size() < expected; i++) {
+            Thread.sleep(100);
+            failures = fetchFailures();
+        }
+        return failures;
+    }
+
+    private List<Map<String, Object>> fetchFailures() {
+        return given()
+                .when()
+                .get(OpenApiPluginImpl.RESPONSE_VALIDATION_REPORT_PATH)
+                .then()
+                .statusCode(HttpUtil.HTTP_OK)
+                .extract().jsonPath().getList("$");
+    }
+}
@@ -146,4 +146,34 @@ class SchemaExamplesTest extends BaseVerticleTest {
         testContext.assertEquals(false, misc.get("nocturnal"));
         testContext.assertEquals(47435, misc.get("population"));
     }
+
+    /**
+     * Values in dynamic formats should be generated for each response, even though
+     * the rest of the example is generated ahead of time.
+     */
+    @Test
+    void testServeDynamicSchemaExamples(TestContext testContext) {
+        final List<String> ids = (0..1).collect {
+            final String body = given()
+                    .log().ifValidationFails()
+                    .accept(ContentType.JSON)
+                    .when()
+                    .get('/api/visits')
+                    .then()
+                    .log().ifValidationFails()
+                    .statusCode(HttpUtil.HTTP_OK)
+                    .extract().asString()
+
+            final visit = new JsonArray(body).getJsonObject(0)
+            testContext.assertEquals("Dr. Doolittle", visit.getString("vet"))
+            testContext.assertTrue(visit.getString("visitedAt") ==~ /\d{4}-\d{2}-\d{2}T\d{2}:\d{2}:\d{2}Z/,
+                    "visitedAt should be a date-time: " + visit.getString("visitedAt"))
+
+            final String id = visit.getString("id")
+            testContext.assertNotNull(UUID.fromString(id))
+            return id
+        }
+
+        testContext.assertNotEquals(ids[0], ids[1], "Each response should have a new UUID")
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.plugin.openapi.http;
+
+import io.gatehill.imposter.plugin.openapi.http.OperationDispatcher.ResolvedOperation;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.RoutingContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link OperationDispatcher}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class OperationDispatcherTest {
+    private final Handler<RoutingContext> listPets = rc -> {};
+    private final Handler<RoutingContext> getPet = rc -> {};
+    private final Handler<RoutingContext> updatePet = rc -> {};
+    private final Handler<RoutingContext> getMine = rc -> {};
+    private final Handler<RoutingContext> getToy = rc -> {};
+    private final Handler<RoutingContext> readArtifact = rc -> {};
+
+    private OperationDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        dispatcher = new OperationDispatcher("/v1");
+        dispatcher.addOperation(HttpMethod.GET, "/v1/pets", "/v1/pets", listPets);
+        dispatcher.addOperation(HttpMethod.GET, "/v1/pets/{petId}", "/v1/pets/:petId", getPet);
+        dispatcher.addOperation(HttpMethod.PUT, "/v1/pets/{petId}", "/v1/pets/:petId", updatePet);
+        dispatcher.addOperation(HttpMethod.GET, "/v1/pets/mine", "/v1/pets/mine", getMine);
+        dispatcher.addOperation(HttpMethod.GET, "/v1/pets/{id}/toys/{toyId}", "/v1/pets/:id/toys/:toyId", getToy);
+        dispatcher.addOperation(HttpMethod.GET, "/v1/artifacts/{name}:read", "/v1/artifacts/:name:read", readArtifact);
+    }
+
+    @Test
+    public void testResolveLiteralPath() {
+        final ResolvedOperation resolved = dispatcher.resolve(HttpMethod.GET, "/v1/pets").orElseThrow(AssertionError::new);
+        assertSame(listPets, resolved.getHandler());
+        assertEquals("/v1/pets", resolved.getRoutePath());
+        assertTrue(resolved.getPathParams().isEmpty());
+
+        // trailing slash
+        assertSame(listPets, dispatcher.resolve(HttpMethod.GET, "/v1/pets/").orElseThrow(AssertionError::new).getHandler());
+    }
+
+    @Test
+    public void testResolvePathParams() {
+        final ResolvedOperation resolved = dispatcher.resolve(HttpMethod.GET, "/v1/pets/42").orElseThrow(AssertionError::new);
+        assertSame(getPet, resolved.getHandler());
+        assertEquals("/v1/pets/:petId", resolved.getRoutePath());
+        assertEquals("42", resolved.getPathParams().get("petId"));
+
+        final ResolvedOperation toy = dispatcher.resolve(HttpMethod.GET, "/v1/pets/42/toys/ball%20red").orElseThrow(AssertionError::new);
+        assertSame(getToy, toy.getHandler());
+        assertEquals("42", toy.getPathParams().get("id"));
+        assertEquals("ball red", toy.getPathParams().get("toyId"));
+    }
+
+    @Test
+    public void testLiteralTakesPrecedence() {
+        assertSame(getMine, dispatcher.resolve(HttpMethod.GET, "/v1/pets/mine").orElseThrow(AssertionError::new).getHandler());
+
+        // no PUT for the literal path, so the placeholder should match
+        final ResolvedOperation resolved = dispatcher.resolve(HttpMethod.PUT, "/v1/pets/mine").orElseThrow(AssertionError::new);
+        assertSame(updatePet, resolved.getHandler());
+        assertEquals("mine", resolved.getPathParams().get("petId"));
+    }
+
+    @Test
+    public void testResolveMixedSegment() {
+        final ResolvedOperation resolved = dispatcher.resolve(HttpMethod.GET, "/v1/artifacts/report:read").orElseThrow(AssertionError::new);
+        assertSame(readArtifact, resolved.getHandler());
+        assertEquals("report", resolved.getPathParams().get("name"));
+
+        assertFalse(dispatcher.resolve(HttpMethod.GET, "/v1/artifacts/report").isPresent());
+    }
+
+    @Test
+    public void testNoMatch() {
+        assertFalse(dispatcher.resolve(HttpMethod.DELETE, "/v1/pets/42").isPresent());
+        assertFalse(dispatcher.resolve(HttpMethod.GET, "/v1/pets/42/unknown").isPresent());
+        assertFalse(dispatcher.resolve(HttpMethod.GET, "/v2/pets").isPresent());
+    }
+}
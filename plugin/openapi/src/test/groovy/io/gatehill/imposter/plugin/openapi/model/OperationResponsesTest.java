@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.plugin.openapi.model;
+
+import io.gatehill.imposter.plugin.openapi.model.OperationResponses.IndexedResponse;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for {@link OperationResponses}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class OperationResponsesTest {
+    @Test
+    public void testFindResponseByStatusCode() {
+        final ApiResponse created = new ApiResponse().content(new Content()
+                .addMediaType("application/json", new MediaType())
+                .addMediaType("application/x-yaml", new MediaType()));
+        final ApiResponse defaultResponse = new ApiResponse().content(new Content()
+                .addMediaType("text/plain", new MediaType()));
+
+        final Operation operation = new Operation().responses(new ApiResponses()
+                .addApiResponse("201", created)
+                .addApiResponse("default", defaultResponse));
+
+        final OperationResponses responses = OperationResponses.build(new OpenAPI(), operation);
+        assertEquals(201, responses.getDefaultStatusCode());
+
+        final IndexedResponse found = responses.find(201);
+        assertSame(created, found.getResponse());
+        assertEquals("application/json", found.getContentType());
+        assertEquals(2, found.getContentTypeCount());
+
+        // falls back to the default response
+        assertSame(defaultResponse, responses.find(500).getResponse());
+        assertEquals("text/plain", responses.find(500).getContentType());
+    }
+
+    @Test
+    public void testDefaultResponseOnly() {
+        final Operation operation = new Operation().responses(new ApiResponses()
+                .addApiResponse("default", new ApiResponse()));
+
+        final OperationResponses responses = OperationResponses.build(new OpenAPI(), operation);
+        assertEquals(200, responses.getDefaultStatusCode());
+        assertNull(responses.find(200).getContentType());
+    }
+
+    @Test
+    public void testResolveContentTypeOfReferencedResponse() {
+        final OpenAPI spec = new OpenAPI().components(new Components()
+                .addResponses("NotFound", new ApiResponse().content(new Content()
+                        .addMediaType("application/problem+json", new MediaType()))));
+
+        final Operation operation = new Operation().responses(new ApiResponses()
+                .addApiResponse("404", new ApiResponse().$ref("#/components/responses/NotFound")));
+
+        final OperationResponses responses = OperationResponses.build(spec, operation);
+        assertEquals("application/problem+json", responses.find(404).getContentType());
+        assertNull(OperationResponses.build(spec, new Operation()).find(200));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.scripting.graalvm.service
+
+import org.apache.logging.log4j.LogManager
+import org.apache.logging.log4j.Logger
+import org.graalvm.polyglot.Context
+import org.graalvm.polyglot.Engine
+
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import java.util.function.Function
+
+/**
+ * A bounded pool of polyglot {@link Context}s sharing a single {@link Engine}, so that
+ * parsed code and JIT compilation results are retained between script executions.
+ * <p>
+ * A {@link Context} must only be used by one thread at a time, so callers borrow a context
+ * for the duration of an execution, then return it to the pool.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+class ContextPool {
+    private static final Logger LOGGER = LogManager.getLogger(ContextPool.class)
+
+    private final Engine engine
+    private final Function<Engine, Context> contextFactory
+    private final int maxSize
+    private final long waitTimeoutMs
+    private final LinkedBlockingQueue<Context> idle = new LinkedBlockingQueue<>()
+    private final AtomicInteger created = new AtomicInteger()
+    private final AtomicInteger borrowed = new AtomicInteger()
+    private final AtomicLong waits = new AtomicLong()
+
+    ContextPool(Engine engine, int maxSize, long waitTimeoutMs, Function<Engine, Context> contextFactory) {
+        this.engine = engine
+        this.maxSize = maxSize
+        this.waitTimeoutMs = waitTimeoutMs
+        this.contextFactory = contextFactory
+    }
+
+    /**
+     * Borrow a context, creating one if none is idle and the pool is not at capacity,
+     * otherwise waiting up to the wait timeout for one to be returned.
+     *
+     * @return the context
+     * @throws IllegalStateException if no context is returned to the pool within the wait timeout
+     */
+    Context borrow() {
+        Context context = idle.poll()
+        if (null == context) {
+            if (created.incrementAndGet() <= maxSize) {
+                LOGGER.trace("Creating polyglot context {} of {}", created.get(), maxSize)
+                try {
+                    context = contextFactory.apply(engine)
+                } catch (Exception e) {
+                    created.decrementAndGet()
+                    throw e
+                }
+            } else {
+                created.decrementAndGet()
+                waits.incrementAndGet()
+                LOGGER.trace("Polyglot context pool exhausted - waiting up to {}ms for a context to be returned", waitTimeoutMs)
+                context = idle.poll(waitTimeoutMs, TimeUnit.MILLISECONDS)
+                if (null == context) {
+                    throw new IllegalStateException("Timed out after ${waitTimeoutMs}ms waiting for a polyglot context - " +
+                            "all ${maxSize} contexts in the pool are in use")
+                }
+            }
+        }
+        borrowed.incrementAndGet()
+        return context
+    }
+
+    /**
+     * Return a borrowed context to the pool.
+     *
+     * @param context the context
+     */
+    void release(Context context) {
+        borrowed.decrementAndGet()
+        idle.offer(context)
+    }
+
+    /**
+     * @return the maximum number of contexts in the pool
+     */
+    int getMaxSize() {
+        return maxSize
+    }
+
+    /**
+     * @return the number of contexts created by the pool
+     */
+    int getSize() {
+        return created.get()
+    }
+
+    /**
+     * @return the number of contexts currently borrowed from the pool
+     */
+    int getActive() {
+        return borrowed.get()
+    }
+
+    /**
+     * @return the number of times a borrower has had to wait for a context to be returned
+     */
+    long getWaits() {
+        return waits.get()
+    }
+}
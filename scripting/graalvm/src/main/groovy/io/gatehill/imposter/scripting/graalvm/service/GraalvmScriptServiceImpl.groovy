@@ -43,40 +43,103 @@
 
 package io.gatehill.imposter.scripting.graalvm.service
 
+import com.google.common.cache.Cache
+import com.google.common.cache.CacheBuilder
 import io.gatehill.imposter.plugin.config.PluginConfig
 import io.gatehill.imposter.plugin.config.resource.ResponseConfigHolder
 import io.gatehill.imposter.script.RuntimeContext
 import io.gatehill.imposter.script.ReadWriteResponseBehaviour
 import io.gatehill.imposter.scripting.common.JavaScriptUtil
 import io.gatehill.imposter.service.ScriptService
+import io.gatehill.imposter.util.EnvVars
+import io.gatehill.imposter.util.MetricsUtil
+import io.micrometer.core.instrument.FunctionCounter
+import io.micrometer.core.instrument.Gauge
 import org.apache.logging.log4j.LogManager
 import org.apache.logging.log4j.Logger
+import org.graalvm.polyglot.Context
+import org.graalvm.polyglot.Engine
+import org.graalvm.polyglot.HostAccess
+import org.graalvm.polyglot.Source
+import org.graalvm.polyglot.Value
 
 import javax.inject.Inject
-import javax.script.Bindings
-import javax.script.ScriptContext
-import javax.script.ScriptEngine
-import javax.script.ScriptEngineManager
-import javax.script.SimpleBindings
 import java.nio.file.Path
 import java.nio.file.Paths
 
+import static java.util.Optional.ofNullable
+
 /**
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
 class GraalvmScriptServiceImpl implements ScriptService {
     private static final Logger LOGGER = LogManager.getLogger(GraalvmScriptServiceImpl.class);
+    private static final String ENV_SCRIPT_CACHE_ENTRIES = 'IMPOSTER_SCRIPT_CACHE_ENTRIES'
+    private static final int DEFAULT_SCRIPT_CACHE_ENTRIES = 20
+    private static final String ENV_CONTEXT_POOL_SIZE = 'IMPOSTER_GRAALVM_CONTEXT_POOL_SIZE'
+    private static final int DEFAULT_CONTEXT_POOL_SIZE = 20
+    private static final String ENV_CONTEXT_POOL_WAIT_MS = 'IMPOSTER_GRAALVM_CONTEXT_POOL_WAIT_MS'
+    private static final long DEFAULT_CONTEXT_POOL_WAIT_MS = 10000
+    private static final String METRIC_SCRIPT_CACHE_ENTRIES = 'script.graalvm.cache.entries'
+    private static final String METRIC_CONTEXT_POOL_SIZE = 'script.graalvm.context.pool.size'
+    private static final String METRIC_CONTEXT_POOL_ACTIVE = 'script.graalvm.context.pool.active'
+    private static final String METRIC_CONTEXT_POOL_WAITS = 'script.graalvm.context.pool.waits'
 
-    @Inject
-    private ScriptEngineManager scriptEngineManager;
+    /**
+     * Shared by all contexts, so parsed code and JIT compilation results are reused.
+     */
+    private final Engine engine
 
-    GraalvmScriptServiceImpl() {
-        // see https://www.graalvm.org/reference-manual/js/NashornMigrationGuide/#nashorn-compatibility-mode
-        System.setProperty('polyglot.js.nashorn-compat', 'true');
+    private final ContextPool contextPool
+
+    /**
+     * Holds wrapped script sources, with maximum number of entries determined by the environment
+     * variable {@link #ENV_SCRIPT_CACHE_ENTRIES}.
+     */
+    private final Cache<Path, CachedSource> scriptSources = CacheBuilder.newBuilder()
+            .maximumSize(ofNullable(EnvVars.getEnv(ENV_SCRIPT_CACHE_ENTRIES)).map(Integer.&parseInt).orElse(DEFAULT_SCRIPT_CACHE_ENTRIES))
+            .build()
 
+    @Inject
+    GraalvmScriptServiceImpl() {
         // quieten interpreter mode warning until native graal compiler included in module path - see:
         // https://www.graalvm.org/reference-manual/js/RunOnJDK/
-        System.setProperty('polyglot.engine.WarnInterpreterOnly', 'false')
+        engine = Engine.newBuilder()
+                .option('engine.WarnInterpreterOnly', 'false')
+                .build()
+
+        final int poolSize = ofNullable(EnvVars.getEnv(ENV_CONTEXT_POOL_SIZE)).map(Integer.&parseInt).orElse(DEFAULT_CONTEXT_POOL_SIZE)
+        final long poolWaitMs = ofNullable(EnvVars.getEnv(ENV_CONTEXT_POOL_WAIT_MS)).map(Long.&parseLong).orElse(DEFAULT_CONTEXT_POOL_WAIT_MS)
+        contextPool = new ContextPool(engine, poolSize, poolWaitMs, { Engine e -> buildContext(e) })
+
+        MetricsUtil.doIfMetricsEnabled(METRIC_CONTEXT_POOL_SIZE, { registry ->
+            Gauge.builder(METRIC_SCRIPT_CACHE_ENTRIES, scriptSources, { it.size() })
+                    .description('The number of cached GraalVM script sources')
+                    .register(registry)
+
+            Gauge.builder(METRIC_CONTEXT_POOL_SIZE, contextPool, { it.size })
+                    .description('The number of GraalVM contexts created by the context pool')
+                    .register(registry)
+
+            Gauge.builder(METRIC_CONTEXT_POOL_ACTIVE, contextPool, { it.active })
+                    .description('The number of GraalVM contexts in use by script executions')
+                    .register(registry)
+
+            FunctionCounter.builder(METRIC_CONTEXT_POOL_WAITS, contextPool, { it.waits })
+                    .description('The number of times a script execution waited for a GraalVM context')
+                    .register(registry)
+        })
+    }
+
+    private static Context buildContext(Engine engine) {
+        return Context.newBuilder('js')
+                .engine(engine)
+                .allowAllAccess(true)
+                .allowHostAccess(HostAccess.ALL)
+                .allowHostClassLookup({ className -> true })
+                // see https://www.graalvm.org/reference-manual/js/NashornMigrationGuide/#nashorn-compatibility-mode
+                .option('js.nashorn-compat', 'true')
+                .build()
     }
 
     @Override
@@ -84,15 +147,78 @@ class GraalvmScriptServiceImpl implements ScriptService {
         final Path scriptFile = Paths.get(pluginConfig.getParentDir().getAbsolutePath(), resourceConfig.getResponseConfig().getScriptFile());
         LOGGER.trace("Executing script file: {}", scriptFile);
 
-        final ScriptEngine scriptEngine = scriptEngineManager.getEngineByName("graal.js");
-        final Bindings bindings = scriptEngine.getBindings(ScriptContext.ENGINE_SCOPE);
-        bindings.put("polyglot.js.allowAllAccess", true);
-
         try {
-            return (ReadWriteResponseBehaviour) scriptEngine.eval(JavaScriptUtil.wrapScript(scriptFile), new SimpleBindings(runtimeContext.asMap()));
+            final Source source = getScriptSource(scriptFile)
+            final Map<String, Object> bindings = runtimeContext.asMap()
+
+            final Context context = contextPool.borrow()
+            try {
+                final Value globals = context.getBindings('js')
+                final Set<String> initialKeys = new HashSet<>(globals.memberKeys)
+                bindings.each { key, value -> globals.putMember(key, value) }
+                try {
+                    return context.eval(source).asHostObject() as ReadWriteResponseBehaviour
+                } finally {
+                    // neither bindings nor globals created by the script may leak into the next execution using this context
+                    new HashSet<>(globals.memberKeys).findAll { !initialKeys.contains(it) }.each { key -> resetGlobal(globals, key) }
+                }
+            } finally {
+                contextPool.release(context)
+            }
 
         } catch (Exception e) {
             throw new RuntimeException("Script execution terminated abnormally", e);
         }
     }
+
+    /**
+     * Removes a global, or clears it if it cannot be removed, such as a top level
+     * {@code var} declared by the script wrapper, which is declared again by each execution.
+     *
+     * @param globals the global bindings
+     * @param key     the global to reset
+     */
+    private static void resetGlobal(Value globals, String key) {
+        try {
+            globals.removeMember(key)
+        } catch (UnsupportedOperationException ignored) {
+            globals.putMember(key, null)
+        }
+    }
+
+    /**
+     * Returns the wrapped source for the script file, loading it if it is not cached,
+     * or if it has been modified since it was cached.
+     *
+     * @param scriptFile the script file
+     * @return the script source
+     */
+    private Source getScriptSource(Path scriptFile) {
+        final long lastModified = scriptFile.toFile().lastModified()
+
+        final CachedSource cached = scriptSources.getIfPresent(scriptFile)
+        if (null != cached && cached.lastModified == lastModified) {
+            return cached.source
+        }
+        if (null != cached) {
+            LOGGER.debug("Script: {} modified since it was loaded", scriptFile)
+            scriptSources.invalidate(scriptFile)
+        }
+
+        return scriptSources.get(scriptFile, {
+            LOGGER.trace("Loading script file: {}", scriptFile)
+            final Source source = Source.newBuilder('js', JavaScriptUtil.wrapScript(scriptFile), scriptFile.toString()).build()
+            return new CachedSource(source, lastModified)
+        }).source
+    }
+
+    private static class CachedSource {
+        private final Source source
+        private final long lastModified
+
+        private CachedSource(Source source, long lastModified) {
+            this.source = source
+            this.lastModified = lastModified
+        }
+    }
 }
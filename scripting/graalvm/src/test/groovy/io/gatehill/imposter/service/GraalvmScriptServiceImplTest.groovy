@@ -44,10 +44,22 @@
 package io.gatehill.imposter.service
 
 
+import io.gatehill.imposter.plugin.config.PluginConfigImpl
+import io.gatehill.imposter.script.ResponseBehaviourType
 import io.gatehill.imposter.scripting.AbstractScriptServiceImplTest
+import io.gatehill.imposter.scripting.graalvm.service.ContextPool
 import io.gatehill.imposter.scripting.graalvm.service.GraalvmScriptServiceImpl
+import org.graalvm.polyglot.Context
+import org.graalvm.polyglot.Engine
+import org.junit.Test
 
 import javax.inject.Inject
+import java.nio.file.Files
+import java.nio.file.Path
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertSame
+import static org.junit.Assert.fail
 
 /**
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
@@ -65,4 +77,91 @@ public class GraalvmScriptServiceImplTest extends AbstractScriptServiceImplTest
     protected String getScriptName() {
         return 'test.js'
     }
+
+    @Test
+    void testExecuteScript_IsolatesPooledContextExecutions() throws Exception {
+        def config = configureScript()
+
+        // sequential executions reuse the same pooled context
+        def first = service.executeScript(config, config, buildRuntimeContext(['hello': 'world']))
+        def second = service.executeScript(config, config, buildRuntimeContext(['hello': 'should not match']))
+
+        assertEquals ResponseBehaviourType.SHORT_CIRCUIT, first.behaviourType
+        assertEquals 201, first.statusCode
+        assertEquals ResponseBehaviourType.DEFAULT_BEHAVIOUR, second.behaviourType
+        assertEquals 0, second.statusCode
+    }
+
+    @Test
+    void testExecuteScript_ReloadsModifiedScript() throws Exception {
+        def scriptDir = Files.createTempDirectory('graalvm-script-test')
+        def script = writeScript(scriptDir, 'modified.js', 'respond().withStatusCode(201)')
+        def config = configureScript(scriptDir, 'modified.js')
+
+        assertEquals 201, service.executeScript(config, config, buildRuntimeContext([:])).statusCode
+
+        script.text = 'respond().withStatusCode(202)'
+        script.setLastModified(script.lastModified() + 2000)
+        assertEquals 202, service.executeScript(config, config, buildRuntimeContext([:])).statusCode
+    }
+
+    @Test
+    void testExecuteScript_DiscardsGlobalsCreatedByScript() throws Exception {
+        def scriptDir = Files.createTempDirectory('graalvm-script-test')
+        writeScript(scriptDir, 'globals.js', '''
+if (typeof counter === 'undefined') {
+    counter = 1;
+    respond().withStatusCode(201);
+} else {
+    respond().withStatusCode(500);
+}
+''')
+        def config = configureScript(scriptDir, 'globals.js')
+
+        // sequential executions reuse the same pooled context
+        assertEquals 201, service.executeScript(config, config, buildRuntimeContext([:])).statusCode
+        assertEquals 201, service.executeScript(config, config, buildRuntimeContext([:])).statusCode
+    }
+
+    @Test
+    void testContextPool_TimesOutWhenExhausted() throws Exception {
+        def engine = Engine.newBuilder().option('engine.WarnInterpreterOnly', 'false').build()
+        def pool = new ContextPool(engine, 1, 50, { Engine e -> Context.newBuilder('js').engine(e).build() })
+        try {
+            def context = pool.borrow()
+            try {
+                pool.borrow()
+                fail('Expected pool to time out')
+            } catch (IllegalStateException ignored) {
+            }
+            assertEquals 1, pool.waits
+
+            // a returned context is available to the next borrower
+            pool.release(context)
+            assertSame context, pool.borrow()
+            assertEquals 1, pool.size
+
+        } finally {
+            engine.close(true)
+        }
+    }
+
+    private static File writeScript(Path scriptDir, String scriptName, String text) {
+        def script = scriptDir.resolve(scriptName).toFile()
+        script.deleteOnExit()
+        scriptDir.toFile().deleteOnExit()
+        script.text = text
+        script
+    }
+
+    private static PluginConfigImpl configureScript(Path scriptDir, String scriptName) {
+        def config = new PluginConfigImpl()
+        config.with {
+            parentDir = scriptDir.toFile()
+            responseConfig.with {
+                scriptFile = scriptName
+            }
+        }
+        config
+    }
 }
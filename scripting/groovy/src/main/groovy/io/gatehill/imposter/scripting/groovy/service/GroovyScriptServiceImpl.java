@@ -40,44 +40,86 @@
  * You should have received a copy of the GNU Lesser General Public License
  * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
  */
-
 package io.gatehill.imposter.scripting.groovy.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyCodeSource;
-import groovy.lang.GroovyShell;
+import groovy.lang.Script;
 import io.gatehill.imposter.plugin.config.PluginConfig;
 import io.gatehill.imposter.plugin.config.resource.ResponseConfigHolder;
 import io.gatehill.imposter.script.RuntimeContext;
 import io.gatehill.imposter.script.ReadWriteResponseBehaviour;
 import io.gatehill.imposter.scripting.groovy.impl.GroovyResponseBehaviourImpl;
 import io.gatehill.imposter.service.ScriptService;
+import io.gatehill.imposter.util.EnvVars;
+import io.gatehill.imposter.util.MetricsUtil;
+import io.micrometer.core.instrument.Gauge;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
 
+import javax.inject.Inject;
+import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
 
 /**
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
 public class GroovyScriptServiceImpl implements ScriptService {
     private static final Logger LOGGER = LogManager.getLogger(GroovyScriptServiceImpl.class);
+    private static final String ENV_SCRIPT_CACHE_ENTRIES = "IMPOSTER_SCRIPT_CACHE_ENTRIES";
+    private static final int DEFAULT_SCRIPT_CACHE_ENTRIES = 20;
+    private static final String METRIC_SCRIPT_CACHE_ENTRIES = "script.groovy.cache.entries";
+    private static final String METRIC_SCRIPT_CACHE_HIT_RATE = "script.groovy.cache.hit.rate";
+
+    /**
+     * The script class will be a subclass of {@link GroovyResponseBehaviourImpl}.
+     */
+    private final CompilerConfiguration compilerConfig;
+
+    /**
+     * Holds compiled script classes, with maximum number of entries determined by the environment
+     * variable {@link #ENV_SCRIPT_CACHE_ENTRIES}.
+     */
+    private final Cache<Path, CompiledScript> compiledScripts = CacheBuilder.newBuilder()
+            .maximumSize(ofNullable(EnvVars.getEnv(ENV_SCRIPT_CACHE_ENTRIES)).map(Integer::parseInt).orElse(DEFAULT_SCRIPT_CACHE_ENTRIES))
+            .recordStats()
+            .build();
+
+    @Inject
+    public GroovyScriptServiceImpl() {
+        compilerConfig = new CompilerConfiguration();
+        compilerConfig.setScriptBaseClass(GroovyResponseBehaviourImpl.class.getCanonicalName());
+
+        MetricsUtil.doIfMetricsEnabled(METRIC_SCRIPT_CACHE_ENTRIES, registry -> {
+            Gauge.builder(METRIC_SCRIPT_CACHE_ENTRIES, compiledScripts::size)
+                    .description("The number of cached compiled Groovy scripts")
+                    .register(registry);
+
+            Gauge.builder(METRIC_SCRIPT_CACHE_HIT_RATE, () -> compiledScripts.stats().hitRate())
+                    .description("The ratio of Groovy script executions that used a cached compiled script")
+                    .register(registry);
+        });
+    }
 
     @Override
     public ReadWriteResponseBehaviour executeScript(PluginConfig pluginConfig, ResponseConfigHolder resourceConfig, RuntimeContext runtimeContext) {
         final Path scriptFile = Paths.get(pluginConfig.getParentDir().getAbsolutePath(), resourceConfig.getResponseConfig().getScriptFile());
         LOGGER.trace("Executing script file: {}", scriptFile);
 
-        // the script class will be a subclass of AbstractResponseBehaviour
-        final CompilerConfiguration compilerConfig = new CompilerConfiguration();
-        compilerConfig.setScriptBaseClass(GroovyResponseBehaviourImpl.class.getCanonicalName());
-        final GroovyShell groovyShell = new GroovyShell(convertBindings(runtimeContext), compilerConfig);
-
         try {
-            final GroovyResponseBehaviourImpl script = (GroovyResponseBehaviourImpl) groovyShell.parse(
-                    new GroovyCodeSource(scriptFile.toFile(), compilerConfig.getSourceEncoding()));
+            final Class<?> scriptClass = getCompiledScript(scriptFile);
+            final GroovyResponseBehaviourImpl script = (GroovyResponseBehaviourImpl) InvokerHelper.createScript(
+                    scriptClass, convertBindings(runtimeContext));
 
             script.run();
             return script;
@@ -87,9 +129,60 @@ public class GroovyScriptServiceImpl implements ScriptService {
         }
     }
 
+    /**
+     * Returns the compiled class for the script file, compiling it if it is not cached,
+     * or if it has been modified since it was cached.
+     *
+     * @param scriptFile the script file
+     * @return the compiled script class
+     */
+    private Class<? extends Script> getCompiledScript(Path scriptFile) throws ExecutionException {
+        final long lastModified = scriptFile.toFile().lastModified();
+
+        final CompiledScript cached = compiledScripts.getIfPresent(scriptFile);
+        if (nonNull(cached) && cached.lastModified == lastModified) {
+            return cached.scriptClass;
+        }
+        if (nonNull(cached)) {
+            LOGGER.debug("Script: {} modified since it was compiled", scriptFile);
+            compiledScripts.invalidate(scriptFile);
+        }
+
+        return compiledScripts.get(scriptFile, () -> compile(scriptFile.toFile(), lastModified)).scriptClass;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompiledScript compile(File scriptFile, long lastModified) {
+        try {
+            LOGGER.trace("Compiling script file: {}", scriptFile);
+            final long compileStartMs = System.currentTimeMillis();
+
+            // each script has its own class loader, so it can be collected when evicted from the cache
+            final GroovyClassLoader classLoader = new GroovyClassLoader(GroovyScriptServiceImpl.class.getClassLoader(), compilerConfig);
+            final Class<? extends Script> scriptClass = classLoader.parseClass(
+                    new GroovyCodeSource(scriptFile, compilerConfig.getSourceEncoding()), false);
+
+            LOGGER.debug("Script: {} compiled in {}ms", scriptFile, (System.currentTimeMillis() - compileStartMs));
+            return new CompiledScript(scriptClass, lastModified);
+
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to compile script: " + scriptFile, e);
+        }
+    }
+
     private static Binding convertBindings(RuntimeContext runtimeContext) {
         final Binding binding = new Binding();
         runtimeContext.asMap().forEach(binding::setVariable);
         return binding;
     }
+
+    private static class CompiledScript {
+        private final Class<? extends Script> scriptClass;
+        private final long lastModified;
+
+        private CompiledScript(Class<? extends Script> scriptClass, long lastModified) {
+            this.scriptClass = scriptClass;
+            this.lastModified = lastModified;
+        }
+    }
 }
@@ -43,10 +43,16 @@
 
 package io.gatehill.imposter.service
 
+import io.gatehill.imposter.plugin.config.PluginConfigImpl
+import io.gatehill.imposter.script.ResponseBehaviourType
 import io.gatehill.imposter.scripting.AbstractScriptServiceImplTest
 import io.gatehill.imposter.scripting.groovy.service.GroovyScriptServiceImpl
+import org.junit.Test
 
 import javax.inject.Inject
+import java.nio.file.Files
+
+import static org.junit.Assert.assertEquals
 
 /**
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
@@ -64,4 +70,40 @@ public class GroovyScriptServiceImplTest extends AbstractScriptServiceImplTest {
     protected String getScriptName() {
         return 'test.groovy'
     }
+
+    @Test
+    void testExecuteScript_IsolatesCachedScriptExecutions() throws Exception {
+        def config = configureScript()
+
+        def first = service.executeScript(config, config, buildRuntimeContext(['hello': 'world']))
+        def second = service.executeScript(config, config, buildRuntimeContext(['hello': 'should not match']))
+
+        // same compiled class, but state is not shared between executions
+        assertEquals first.class, second.class
+        assertEquals ResponseBehaviourType.SHORT_CIRCUIT, first.behaviourType
+        assertEquals ResponseBehaviourType.DEFAULT_BEHAVIOUR, second.behaviourType
+    }
+
+    @Test
+    void testExecuteScript_RecompilesModifiedScript() throws Exception {
+        def scriptDir = Files.createTempDirectory('groovy-script-test')
+        def script = scriptDir.resolve('modified.groovy').toFile()
+        script.deleteOnExit()
+        scriptDir.toFile().deleteOnExit()
+
+        def config = new PluginConfigImpl()
+        config.with {
+            parentDir = scriptDir.toFile()
+            responseConfig.with {
+                scriptFile = 'modified.groovy'
+            }
+        }
+
+        script.text = 'respond().withStatusCode(201)'
+        assertEquals 201, service.executeScript(config, config, buildRuntimeContext([:])).statusCode
+
+        script.text = 'respond().withStatusCode(202)'
+        script.setLastModified(script.lastModified() + 2000)
+        assertEquals 202, service.executeScript(config, config, buildRuntimeContext([:])).statusCode
+    }
 }
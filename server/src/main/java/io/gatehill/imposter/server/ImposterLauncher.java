@@ -49,6 +49,7 @@ import io.gatehill.imposter.util.MetricsUtil;
 import io.gatehill.imposter.util.FeatureUtil;
 import io.gatehill.imposter.util.LogUtil;
 import io.gatehill.imposter.util.MetaUtil;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Launcher;
 import io.vertx.core.VertxOptions;
 import org.apache.logging.log4j.LogManager;
@@ -117,6 +118,9 @@ public class ImposterLauncher extends Launcher {
     @Option(name = "--serverFactory", usage = "Fully qualified class for server factory")
     private String serverFactory = DEFAULT_SERVER_FACTORY;
 
+    @Option(name = "--instances", usage = "Number of server instances, each with its own event loop (default is the number of CPU cores)")
+    private Integer instances;
+
     static {
         // delegate all Vert.x logging to SLF4J
         System.setProperty(VERTX_LOGGER_FACTORY, VERTX_LOGGER_IMPL);
@@ -139,6 +143,13 @@ public class ImposterLauncher extends Launcher {
         }
     }
 
+    @Override
+    public void beforeDeployingVerticle(DeploymentOptions deploymentOptions) {
+        final int verticleInstances = ofNullable(instances).orElse(Runtime.getRuntime().availableProcessors());
+        LOGGER.debug("Deploying {} server instance(s)", verticleInstances);
+        deploymentOptions.setInstances(verticleInstances);
+    }
+
     @Override
     public void dispatch(String[] originalArgs) {
         final CmdLineParser parser = new CmdLineParser(this);
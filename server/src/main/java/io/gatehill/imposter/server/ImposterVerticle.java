@@ -80,6 +80,16 @@ import static java.util.Optional.ofNullable;
 public class ImposterVerticle extends AbstractVerticle {
     private static final Logger LOGGER = LogManager.getLogger(ImposterVerticle.class);
 
+    /**
+     * Guards the engine, which is shared by all instances of this verticle.
+     */
+    private static final Object ENGINE_LOCK = new Object();
+
+    /**
+     * The number of instances of this verticle using the shared engine.
+     */
+    private static int engineUsers;
+
     @Inject
     private PluginManager pluginManager;
 
@@ -96,6 +106,11 @@ public class ImposterVerticle extends AbstractVerticle {
 
     private HttpServer httpServer;
 
+    /**
+     * Whether this instance is counted as a user of the shared engine.
+     */
+    private boolean usingEngine;
+
     public ImposterVerticle() {
         imposterConfig = ConfigHolder.getConfig();
     }
@@ -106,10 +121,15 @@ public class ImposterVerticle extends AbstractVerticle {
 
         vertx.executeBlocking(future -> {
             try {
-                startEngine();
-                InjectorUtil.getInjector().injectMembers(ImposterVerticle.this);
-                httpServer = serverFactory.provide(imposterConfig, future, vertx, configureRoutes());
+                final Router router;
+                synchronized (ENGINE_LOCK) {
+                    acquireEngine();
+                    InjectorUtil.getInjector().injectMembers(ImposterVerticle.this);
+                    router = configureRoutes();
+                }
+                httpServer = serverFactory.provide(imposterConfig, future, vertx, router);
             } catch (Exception e) {
+                releaseEngine();
                 future.fail(e);
             }
         }, result -> {
@@ -122,6 +142,39 @@ public class ImposterVerticle extends AbstractVerticle {
         });
     }
 
+    /**
+     * Configuration, plugins and the injector are shared by all instances of this verticle,
+     * so the engine is only started by the first instance. Each instance has its own
+     * router and server.
+     * <p>
+     * Must be called while holding {@link #ENGINE_LOCK}.
+     */
+    private void acquireEngine() {
+        if (engineUsers > 0) {
+            LOGGER.trace("Mock engine already started");
+        } else {
+            startEngine();
+        }
+        engineUsers++;
+        usingEngine = true;
+    }
+
+    /**
+     * When the last instance using the engine releases it, the next instance
+     * to start will start the engine again, with the configuration at that time.
+     */
+    private void releaseEngine() {
+        synchronized (ENGINE_LOCK) {
+            if (!usingEngine) {
+                return;
+            }
+            usingEngine = false;
+            if (--engineUsers == 0) {
+                LOGGER.trace("Last instance using the mock engine stopped");
+            }
+        }
+    }
+
     private void startEngine() {
         final List<Module> bootstrapModules = newArrayList(
                 new BootstrapModule(vertx, imposterConfig, imposterConfig.getServerFactory()),
@@ -137,6 +190,7 @@ public class ImposterVerticle extends AbstractVerticle {
     @Override
     public void stop(Future<Void> stopFuture) {
         LOGGER.info("Stopping mock server on {}:{}", imposterConfig.getHost(), imposterConfig.getListenPort());
+        releaseEngine();
         ofNullable(httpServer).ifPresent(server -> server.close(AsyncUtil.resolveFutureOnCompletion(stopFuture)));
     }
 
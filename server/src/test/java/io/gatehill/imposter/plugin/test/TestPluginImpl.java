@@ -50,6 +50,7 @@ import io.gatehill.imposter.plugin.config.resource.ResponseConfigHolder;
 import io.gatehill.imposter.script.ResponseBehaviour;
 import io.gatehill.imposter.service.ResourceService;
 import io.gatehill.imposter.service.ResponseService;
+import io.vertx.core.Context;
 import io.vertx.ext.web.Router;
 
 import javax.inject.Inject;
@@ -62,6 +63,11 @@ import static java.util.Optional.ofNullable;
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
 public class TestPluginImpl extends ConfiguredPlugin<TestPluginConfig> implements ScriptedPlugin<TestPluginConfig> {
+    /**
+     * Response header indicating whether the request was handled on an event loop thread.
+     */
+    public static final String HEADER_EVENT_LOOP = "X-Imposter-Event-Loop";
+
     @Inject
     private ImposterConfig imposterConfig;
 
@@ -96,6 +102,8 @@ public class TestPluginImpl extends ConfiguredPlugin<TestPluginConfig> implement
 
     private void configureRoute(TestPluginConfig pluginConfig, ResponseConfigHolder resourceConfig, Router router, String path) {
         router.route(path).handler(resourceService.handleRoute(imposterConfig, pluginConfig, vertx, routingContext -> {
+            routingContext.response().putHeader(HEADER_EVENT_LOOP, String.valueOf(Context.isOnEventLoopThread()));
+
             final Consumer<ResponseBehaviour> defaultBehaviourHandler = responseBehaviour -> {
                 responseService.sendResponse(pluginConfig, resourceConfig, routingContext, responseBehaviour);
             };
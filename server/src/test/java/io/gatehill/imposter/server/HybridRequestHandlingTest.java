@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.server;
+
+import com.google.common.collect.Lists;
+import com.jayway.restassured.RestAssured;
+import io.gatehill.imposter.plugin.Plugin;
+import io.gatehill.imposter.plugin.test.TestPluginImpl;
+import io.gatehill.imposter.store.inmem.BlockingInMemoryStoreModule;
+import io.gatehill.imposter.util.EnvVars;
+import io.gatehill.imposter.util.HttpUtil;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.jayway.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link RequestHandlingMode#HYBRID}, verifying which thread
+ * handles requests for each kind of resource.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+@RunWith(VertxUnitRunner.class)
+public class HybridRequestHandlingTest extends BaseVerticleTest {
+    @Override
+    protected Class<? extends Plugin> getPluginClass() {
+        return TestPluginImpl.class;
+    }
+
+    @Before
+    public void setUp(TestContext testContext) throws Exception {
+        final Map<String, String> env = new HashMap<>();
+        env.put("IMPOSTER_REQUEST_HANDLING_MODE", "hybrid");
+        env.put("IMPOSTER_STORE_MODULE", BlockingInMemoryStoreModule.class.getCanonicalName());
+        EnvVars.populate(env);
+
+        super.setUp(testContext);
+        RestAssured.baseURI = "http://" + HOST + ":" + getListenPort();
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @After
+    public void tearDown() {
+        EnvVars.populate(System.getenv());
+    }
+
+    @Override
+    protected List<String> getTestConfigDirs() {
+        return Lists.newArrayList(
+                "/request-handling"
+        );
+    }
+
+    /**
+     * Resources without a script or store interaction are handled on the event loop.
+     */
+    @Test
+    public void testPlainResourceHandledOnEventLoop() {
+        given().when()
+                .get("/plain")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .header(TestPluginImpl.HEADER_EVENT_LOOP, equalTo("true"))
+                .body(equalTo("plain"));
+
+        assertEquals(RequestHandlingMode.HYBRID, ConfigHolder.getConfig().getRequestHandlingMode());
+    }
+
+    /**
+     * Reading a response file might block, so is handled on a worker thread.
+     */
+    @Test
+    public void testFileResourceHandledOnWorker() {
+        given().when()
+                .get("/file")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .header(TestPluginImpl.HEADER_EVENT_LOOP, equalTo("false"))
+                .body(equalTo("file"));
+    }
+
+    /**
+     * Scripted resources are handled on a worker thread.
+     */
+    @Test
+    public void testScriptedResourceHandledOnWorker() {
+        given().when()
+                .get("/scripted")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .header(TestPluginImpl.HEADER_EVENT_LOOP, equalTo("false"))
+                .body(equalTo("scripted"));
+    }
+
+    /**
+     * Capturing into a blocking store is handled on a worker thread.
+     */
+    @Test
+    public void testCaptureToBlockingStoreHandledOnWorker() {
+        given().when()
+                .get("/capture/foo")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .header(TestPluginImpl.HEADER_EVENT_LOOP, equalTo("false"));
+
+        given().when()
+                .get("/system/store/handlingTest/userId")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .body(equalTo("foo"));
+    }
+
+    /**
+     * Capturing into the request store never blocks, so is handled on the event loop.
+     */
+    @Test
+    public void testCaptureToRequestStoreHandledOnEventLoop() {
+        given().when()
+                .get("/capture-request/foo")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .header(TestPluginImpl.HEADER_EVENT_LOOP, equalTo("true"));
+    }
+
+    /**
+     * Templates might read from a blocking store, so are handled on a worker thread.
+     */
+    @Test
+    public void testTemplateWithBlockingStoreHandledOnWorker() {
+        given().when()
+                .get("/capture/bar")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK));
+
+        given().when()
+                .get("/template")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .header(TestPluginImpl.HEADER_EVENT_LOOP, equalTo("false"))
+                .body(equalTo("Hello bar"));
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.server;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Injector;
+import com.jayway.restassured.RestAssured;
+import io.gatehill.imposter.plugin.Plugin;
+import io.gatehill.imposter.plugin.PluginManager;
+import io.gatehill.imposter.plugin.test.TestPluginImpl;
+import io.gatehill.imposter.util.HttpUtil;
+import io.gatehill.imposter.util.InjectorUtil;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.impl.Deployment;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.jayway.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Tests for deploying multiple instances of {@link ImposterVerticle}, which share
+ * a single engine.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+@RunWith(VertxUnitRunner.class)
+public class MultipleInstancesTest extends BaseVerticleTest {
+    private static final String STORE_NAME = "multi-instance-test";
+
+    @Override
+    protected Class<? extends Plugin> getPluginClass() {
+        return TestPluginImpl.class;
+    }
+
+    @Override
+    protected int getInstances() {
+        return 4;
+    }
+
+    @Before
+    public void setUp(TestContext testContext) throws Exception {
+        super.setUp(testContext);
+        RestAssured.baseURI = "http://" + HOST + ":" + getListenPort();
+    }
+
+    @Override
+    protected List<String> getTestConfigDirs() {
+        return Lists.newArrayList(
+                "/simple-config",
+                "/multiple-instances"
+        );
+    }
+
+    @Test
+    public void testInstancesDeployed(TestContext testContext) {
+        final VertxInternal vertx = (VertxInternal) rule.vertx();
+        testContext.assertEquals(1, vertx.deploymentIDs().size());
+
+        final Deployment deployment = vertx.getDeployment(vertx.deploymentIDs().iterator().next());
+        testContext.assertEquals(getInstances(), deployment.getVerticles().size());
+    }
+
+    @Test
+    public void testRequestSuccess(TestContext testContext) {
+        final Async async = testContext.async();
+
+        // the test context event loop might be shared with a server instance, so must not be blocked
+        rule.vertx().executeBlocking(future -> {
+            for (int i = 0; i < 10; i++) {
+                given().when()
+                        .get("/example")
+                        .then()
+                        .statusCode(equalTo(HttpUtil.HTTP_OK));
+            }
+            future.complete();
+        }, result -> {
+            if (result.succeeded()) {
+                async.complete();
+            } else {
+                testContext.fail(result.cause());
+            }
+        });
+    }
+
+    /**
+     * Deploying further instances must reuse the running engine, rather than
+     * starting a new one and preloading the stores again.
+     */
+    @Test
+    public void testEngineStartedOnce(TestContext testContext) {
+        final Async async = testContext.async();
+
+        final Injector injector = InjectorUtil.getInjector();
+        final Plugin plugin = injector.getInstance(PluginManager.class).getPlugin(TestPluginImpl.class.getCanonicalName());
+
+        rule.vertx().executeBlocking(future -> {
+            // only the preloaded items should be present
+            final Map<String, Object> items = given().when()
+                    .get("/system/store/" + STORE_NAME)
+                    .then()
+                    .statusCode(equalTo(HttpUtil.HTTP_OK))
+                    .extract().jsonPath().getMap("");
+            testContext.assertEquals(2, items.size());
+
+            // overwrite a preloaded item, which would be reverted if the store were preloaded again
+            given().when()
+                    .body("changed")
+                    .put("/system/store/" + STORE_NAME + "/foo")
+                    .then()
+                    .statusCode(equalTo(HttpUtil.HTTP_OK));
+
+            future.complete();
+
+        }, saved -> {
+            if (saved.failed()) {
+                testContext.fail(saved.cause());
+                return;
+            }
+
+            final DeploymentOptions options = new DeploymentOptions().setInstances(2);
+            rule.vertx().deployVerticle(ImposterVerticle.class.getCanonicalName(), options, deployed -> {
+                if (deployed.failed()) {
+                    testContext.fail(deployed.cause());
+                    return;
+                }
+
+                testContext.assertTrue(injector == InjectorUtil.getInjector(), "Engine should not be restarted");
+                testContext.assertTrue(plugin == injector.getInstance(PluginManager.class).getPlugin(TestPluginImpl.class.getCanonicalName()),
+                        "Plugin should not be reinstantiated");
+
+                rule.vertx().executeBlocking(future -> {
+                    given().when()
+                            .get("/system/store/" + STORE_NAME + "/foo")
+                            .then()
+                            .statusCode(equalTo(HttpUtil.HTTP_OK))
+                            .body(equalTo("changed"));
+
+                    future.complete();
+
+                }, result -> {
+                    if (result.succeeded()) {
+                        async.complete();
+                    } else {
+                        testContext.fail(result.cause());
+                    }
+                });
+            });
+        });
+    }
+
+    /**
+     * Once all instances have stopped, the next instance to be deployed must start
+     * the engine again.
+     */
+    @Test
+    public void testEngineRestartedAfterAllInstancesStopped(TestContext testContext) {
+        final Async async = testContext.async();
+
+        final Injector injector = InjectorUtil.getInjector();
+        final String deploymentId = rule.vertx().deploymentIDs().iterator().next();
+
+        rule.vertx().undeploy(deploymentId, undeployed -> {
+            if (undeployed.failed()) {
+                testContext.fail(undeployed.cause());
+                return;
+            }
+
+            rule.vertx().deployVerticle(ImposterVerticle.class.getCanonicalName(), deployed -> {
+                if (deployed.failed()) {
+                    testContext.fail(deployed.cause());
+                    return;
+                }
+                testContext.assertFalse(injector == InjectorUtil.getInjector(), "Engine should be restarted");
+                async.complete();
+            });
+        });
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.server;
+
+import com.google.common.collect.Lists;
+import com.jayway.restassured.RestAssured;
+import io.gatehill.imposter.ImposterConfig;
+import io.gatehill.imposter.plugin.Plugin;
+import io.gatehill.imposter.plugin.test.TestPluginImpl;
+import io.gatehill.imposter.util.EnvVars;
+import io.gatehill.imposter.util.HttpUtil;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static com.jayway.restassured.RestAssured.given;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for setting the request handling mode via the {@code IMPOSTER_REQUEST_HANDLING_MODE}
+ * environment variable.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+@RunWith(VertxUnitRunner.class)
+public class RequestHandlingModeTest extends BaseVerticleTest {
+    @Override
+    protected Class<? extends Plugin> getPluginClass() {
+        return TestPluginImpl.class;
+    }
+
+    @Before
+    public void setUp(TestContext testContext) throws Exception {
+        // lower case should be accepted
+        EnvVars.populate(singletonMap("IMPOSTER_REQUEST_HANDLING_MODE", "sync"));
+
+        super.setUp(testContext);
+        RestAssured.baseURI = "http://" + HOST + ":" + getListenPort();
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @After
+    public void tearDown() {
+        EnvVars.populate(System.getenv());
+    }
+
+    @Override
+    protected List<String> getTestConfigDirs() {
+        return Lists.newArrayList(
+                "/request-handling"
+        );
+    }
+
+    /**
+     * In {@link RequestHandlingMode#SYNC} mode, requests are handled on the event loop.
+     */
+    @Test
+    public void testModeFromEnvironment() {
+        given().when()
+                .get("/plain")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .header(TestPluginImpl.HEADER_EVENT_LOOP, equalTo("true"));
+
+        assertEquals(RequestHandlingMode.SYNC, ConfigHolder.getConfig().getRequestHandlingMode());
+    }
+
+    /**
+     * {@link RequestHandlingMode#ASYNC} is the default, if the mode is not set.
+     */
+    @Test
+    public void testDefaultMode() {
+        assertEquals(RequestHandlingMode.ASYNC, new ImposterConfig().getRequestHandlingMode());
+    }
+}
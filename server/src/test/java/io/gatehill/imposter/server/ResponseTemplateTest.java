@@ -46,11 +46,15 @@ package io.gatehill.imposter.server;
 import com.google.common.collect.Lists;
 import com.jayway.restassured.RestAssured;
 import com.jayway.restassured.http.ContentType;
+import io.gatehill.imposter.lifecycle.ImposterLifecycleHooks;
+import io.gatehill.imposter.lifecycle.ImposterLifecycleListener;
 import io.gatehill.imposter.plugin.Plugin;
 import io.gatehill.imposter.plugin.test.TestPluginImpl;
 import io.gatehill.imposter.util.HttpUtil;
+import io.gatehill.imposter.util.InjectorUtil;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.ext.web.RoutingContext;
 import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Test;
@@ -175,4 +179,24 @@ public class ResponseTemplateTest extends BaseVerticleTest {
                 // content type inferred from response file name
                 .contentType(ContentType.TEXT);
     }
+
+    /**
+     * Listeners implementing the deprecated template hook can still transform templated responses.
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedTemplateListener() {
+        InjectorUtil.getInjector().getInstance(ImposterLifecycleHooks.class).registerListener(new ImposterLifecycleListener() {
+            @Override
+            public String beforeTransmittingTemplate(RoutingContext routingContext, String responseTemplate) {
+                return responseTemplate.replace("GREETING", "Hello");
+            }
+        });
+
+        given().when()
+                .get("/example-legacy")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .body(equalTo("Hello legacy"));
+    }
 }
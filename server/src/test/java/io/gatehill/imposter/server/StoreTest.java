@@ -55,6 +55,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -63,6 +64,8 @@ import static com.jayway.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertEquals;
 
 /**
  * Tests for storage subsystem.
@@ -235,6 +238,144 @@ public class StoreTest extends BaseVerticleTest {
                 ));
     }
 
+    /**
+     * List a store in pages, filtered by key prefix.
+     */
+    @Test
+    public void testListPagesWithPrefix() {
+        final Map<String, Object> body = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            body.put("item" + i, "value" + i);
+        }
+        body.put("other", "excluded");
+
+        given().when()
+                .pathParam("storeId", "paged")
+                .contentType(ContentType.JSON)
+                .body(body)
+                .post("/system/store/{storeId}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK));
+
+        // first page
+        final String cursor = given().when()
+                .pathParam("storeId", "paged")
+                .queryParam("prefix", "item")
+                .queryParam("limit", 3)
+                .get("/system/store/{storeId}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .header("X-Imposter-Next-Cursor", equalTo("item2"))
+                .body("size()", equalTo(3))
+                .body("$", allOf(
+                        hasEntry("item0", "value0"),
+                        hasEntry("item2", "value2")
+                ))
+                .extract().header("X-Imposter-Next-Cursor");
+
+        // last page
+        given().when()
+                .pathParam("storeId", "paged")
+                .queryParam("prefix", "item")
+                .queryParam("limit", 3)
+                .queryParam("cursor", cursor)
+                .get("/system/store/{storeId}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .header("X-Imposter-Next-Cursor", nullValue())
+                .body("size()", equalTo(2))
+                .body("$", allOf(
+                        hasEntry("item3", "value3"),
+                        hasEntry("item4", "value4")
+                ));
+
+        given().when()
+                .pathParam("storeId", "paged")
+                .queryParam("limit", 0)
+                .get("/system/store/{storeId}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_BAD_REQUEST));
+    }
+
+    /**
+     * Stream all items in a store.
+     */
+    @Test
+    public void testStreamStore() {
+        final Map<String, Object> body = new HashMap<>();
+        for (int i = 0; i < 1200; i++) {
+            body.put("item" + i, "value" + i);
+        }
+
+        given().when()
+                .pathParam("storeId", "streamed")
+                .contentType(ContentType.JSON)
+                .body(body)
+                .post("/system/store/{storeId}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK));
+
+        given().when()
+                .pathParam("storeId", "streamed")
+                .queryParam("stream", true)
+                .get("/system/store/{storeId}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .header("Transfer-Encoding", equalTo("chunked"))
+                .body("size()", equalTo(1200))
+                .body("$", hasEntry("item1199", "value1199"));
+    }
+
+    /**
+     * Download a binary snapshot of a store.
+     */
+    @Test
+    public void testDownloadSnapshot() {
+        given().when()
+                .pathParam("storeId", "snapshot")
+                .pathParam("key", "foo")
+                .contentType(HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
+                .body("bar")
+                .put("/system/store/{storeId}/{key}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_CREATED));
+
+        final byte[] snapshot = given().when()
+                .pathParam("storeId", "snapshot")
+                .get("/system/snapshot/{storeId}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .contentType(equalTo("application/octet-stream"))
+                .extract().asByteArray();
+
+        assertEquals("IMPS", new String(snapshot, 0, 4, StandardCharsets.US_ASCII));
+
+        // the snapshot resource does not prevent an item with the key 'snapshot' being saved and retrieved
+        given().when()
+                .pathParam("storeId", "snapshot")
+                .pathParam("key", "snapshot")
+                .contentType(HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
+                .body("baz")
+                .put("/system/store/{storeId}/{key}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_CREATED));
+
+        given().when()
+                .pathParam("storeId", "snapshot")
+                .pathParam("key", "snapshot")
+                .get("/system/store/{storeId}/{key}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .body(equalTo("baz"));
+
+        // no snapshot file is configured for this store
+        given().when()
+                .pathParam("storeId", "snapshot")
+                .post("/system/snapshot/{storeId}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_BAD_REQUEST));
+    }
+
     /**
      * Delete an item from a store.
      */
@@ -266,6 +407,97 @@ public class StoreTest extends BaseVerticleTest {
                 .statusCode(equalTo(HttpUtil.HTTP_NOT_FOUND));
     }
 
+    /**
+     * Increment, conditionally save and atomically delete items.
+     */
+    @Test
+    public void testAtomicOperations() {
+        given().when()
+                .pathParam("storeId", "atomic")
+                .pathParam("key", "counter")
+                .post("/system/store/{storeId}/{key}/increment")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .body(equalTo("1"));
+
+        given().when()
+                .pathParam("storeId", "atomic")
+                .pathParam("key", "counter")
+                .body("5")
+                .post("/system/store/{storeId}/{key}/increment")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .body(equalTo("6"));
+
+        // only saved if absent
+        given().when()
+                .pathParam("storeId", "atomic")
+                .pathParam("key", "lock")
+                .header("If-None-Match", "*")
+                .contentType(HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
+                .body("owner1")
+                .put("/system/store/{storeId}/{key}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_CREATED));
+
+        given().when()
+                .pathParam("storeId", "atomic")
+                .pathParam("key", "lock")
+                .header("If-None-Match", "*")
+                .contentType(HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
+                .body("owner2")
+                .put("/system/store/{storeId}/{key}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_PRECON_FAILED));
+
+        // compare and set
+        given().when()
+                .pathParam("storeId", "atomic")
+                .pathParam("key", "lock")
+                .queryParam("expected", "owner2")
+                .contentType(HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
+                .body("owner3")
+                .put("/system/store/{storeId}/{key}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_CONFLICT));
+
+        given().when()
+                .pathParam("storeId", "atomic")
+                .pathParam("key", "lock")
+                .queryParam("expected", "owner1")
+                .contentType(HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
+                .body("owner3")
+                .put("/system/store/{storeId}/{key}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK));
+
+        // the lock value is not an integer
+        given().when()
+                .pathParam("storeId", "atomic")
+                .pathParam("key", "lock")
+                .post("/system/store/{storeId}/{key}/increment")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_CONFLICT));
+
+        // delete, returning the value
+        given().when()
+                .pathParam("storeId", "atomic")
+                .pathParam("key", "lock")
+                .queryParam("return", true)
+                .delete("/system/store/{storeId}/{key}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_OK))
+                .body(equalTo("owner3"));
+
+        given().when()
+                .pathParam("storeId", "atomic")
+                .pathParam("key", "lock")
+                .queryParam("return", true)
+                .delete("/system/store/{storeId}/{key}")
+                .then()
+                .statusCode(equalTo(HttpUtil.HTTP_NOT_FOUND));
+    }
+
     /**
      * Save and load from the store across multiple requests.
      */
@@ -0,0 +1,4 @@
+respond()
+    .withStatusCode(200)
+    .withHeader('Content-Type', 'text/plain')
+    .withData('scripted');
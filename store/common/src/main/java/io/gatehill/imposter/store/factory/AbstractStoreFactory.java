@@ -43,6 +43,7 @@
 
 package io.gatehill.imposter.store.factory;
 
+import io.gatehill.imposter.plugin.config.system.StoreConfig;
 import io.gatehill.imposter.store.inmem.InMemoryStore;
 import io.gatehill.imposter.store.model.PrefixedKeyStore;
 import io.gatehill.imposter.store.model.Store;
@@ -54,8 +55,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.Map;
 
-import static com.google.common.collect.Maps.newHashMap;
-import static java.util.Objects.isNull;
+import static com.google.common.collect.Maps.newConcurrentMap;
 import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
 
@@ -69,7 +69,8 @@ public abstract class AbstractStoreFactory implements StoreFactory {
     private static final String ENV_VAR_KEY_PREFIX = "IMPOSTER_STORE_KEY_PREFIX";
     private static final Logger LOGGER = LogManager.getLogger(AbstractStoreFactory.class);
 
-    private final Map<String, Store> stores = newHashMap();
+    private final Map<String, Store> stores = newConcurrentMap();
+    private final Map<String, StoreConfig> storeConfigs = newConcurrentMap();
     private final String keyPrefix;
 
     public AbstractStoreFactory() {
@@ -86,16 +87,14 @@ public abstract class AbstractStoreFactory implements StoreFactory {
 
     @Override
     public Store getStoreByName(String storeName, boolean forceInMemory) {
-        Store store;
-        if (isNull(store = stores.get(storeName))) {
-            LOGGER.trace("Initialising new store: {}", storeName);
+        final Store store = stores.computeIfAbsent(storeName, name -> {
+            LOGGER.trace("Initialising new store: {}", name);
             if (forceInMemory) {
-                store = new InMemoryStore(storeName);
+                return new InMemoryStore(name);
             } else {
-                store = new PrefixedKeyStore(keyPrefix, buildNewStore(storeName));
+                return new PrefixedKeyStore(keyPrefix, buildNewStore(name));
             }
-            stores.put(storeName, store);
-        }
+        });
         LOGGER.trace("Got store: {} (type: {})", storeName, store.getTypeDescription());
         return store;
     }
@@ -107,5 +106,18 @@ public abstract class AbstractStoreFactory implements StoreFactory {
         }
     }
 
+    @Override
+    public void configureStore(String storeName, StoreConfig storeConfig) {
+        storeConfigs.put(storeName, storeConfig);
+    }
+
+    /**
+     * @param storeName the name of the store
+     * @return the configuration for the store, or {@code null} if it has none
+     */
+    protected StoreConfig getStoreConfig(String storeName) {
+        return storeConfigs.get(storeName);
+    }
+
     public abstract Store buildNewStore(String storeName);
 }
@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.inmem;
+
+import io.gatehill.imposter.plugin.config.system.StoreConfig;
+import io.gatehill.imposter.store.model.Store;
+import io.gatehill.imposter.store.util.StoreUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * An in-memory store with limits on the number of items and their estimated size
+ * in bytes, beyond which the least recently used items are evicted. Items can also
+ * be configured to expire a fixed time after they are saved.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class BoundedInMemoryStore implements Store {
+    private static final String STORE_TYPE = "inmem";
+    private static final Logger LOGGER = LogManager.getLogger(BoundedInMemoryStore.class);
+
+    /**
+     * Estimated overhead of an entry in the store, excluding its key and value.
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 64;
+
+    private final String storeName;
+    private final int maxItems;
+    private final long maxBytes;
+    private final long expiryMillis;
+
+    /**
+     * Items in access order, so the eldest is the least recently used.
+     */
+    private final LinkedHashMap<String, Entry> items = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The pending expiry for each key, guarded by the lock on {@link #items}.
+     */
+    private final Map<String, ExpiryWheel.Expiry> pendingExpiries = new HashMap<>();
+    private long totalBytes;
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public BoundedInMemoryStore(String storeName, StoreConfig storeConfig) {
+        this.storeName = storeName;
+        this.maxItems = ofNullable(storeConfig.getMaxItems()).filter(m -> m > 0).orElse(Integer.MAX_VALUE);
+        this.maxBytes = ofNullable(storeConfig.getMaxBytes()).filter(m -> m > 0).orElse(Long.MAX_VALUE);
+        this.expiryMillis = ofNullable(storeConfig.getExpiry()).filter(e -> e > 0).map(TimeUnit.SECONDS::toMillis).orElse(0L);
+    }
+
+    /**
+     * @param storeConfig the store configuration, which may be {@code null}
+     * @return {@code true} if the configuration sets any limits for an in-memory store
+     */
+    public static boolean isBounded(StoreConfig storeConfig) {
+        return nonNull(storeConfig) && (
+                ofNullable(storeConfig.getMaxItems()).orElse(0) > 0 ||
+                        ofNullable(storeConfig.getMaxBytes()).orElse(0L) > 0 ||
+                        ofNullable(storeConfig.getExpiry()).orElse(0) > 0
+        );
+    }
+
+    @Override
+    public String getStoreName() {
+        return storeName;
+    }
+
+    @Override
+    public String getTypeDescription() {
+        return STORE_TYPE;
+    }
+
+    @Override
+    public void save(String key, Object value) {
+        LOGGER.trace("Saving item with key: {} to store: {}", key, storeName);
+
+        final long expiresAt = (expiryMillis > 0) ? System.currentTimeMillis() + expiryMillis : 0;
+        final Entry entry = buildEntry(key, value, expiresAt);
+
+        synchronized (items) {
+            putEntry(key, entry);
+            evictIfRequired();
+        }
+    }
+
+    /**
+     * Saves all items under a single acquisition of the lock, evicting once all items are saved.
+     */
+    @Override
+    public void saveAll(Map<String, Object> newItems) {
+        LOGGER.trace("Saving {} items to store: {}", newItems.size(), storeName);
+
+        final long expiresAt = (expiryMillis > 0) ? System.currentTimeMillis() + expiryMillis : 0;
+        final Map<String, Entry> entries = new LinkedHashMap<>(newItems.size() * 4 / 3 + 1);
+        newItems.forEach((key, value) -> entries.put(key, buildEntry(key, value, expiresAt)));
+
+        synchronized (items) {
+            entries.forEach(this::putEntry);
+            evictIfRequired();
+        }
+    }
+
+    private Entry buildEntry(String key, Object value, long expiresAt) {
+        // only estimate size if it is limited
+        final long bytes = (maxBytes < Long.MAX_VALUE) ? ENTRY_OVERHEAD_BYTES + estimateBytes(key) + estimateBytes(value) : 0;
+        return new Entry(value, bytes, expiresAt);
+    }
+
+    /**
+     * Must be called while holding the lock on {@link #items}.
+     */
+    private void putEntry(String key, Entry entry) {
+        final Entry previous = items.put(key, entry);
+        if (nonNull(previous)) {
+            totalBytes -= previous.bytes;
+        }
+        totalBytes += entry.bytes;
+        scheduleExpiry(key, entry.expiresAt);
+    }
+
+    /**
+     * Must be called while holding the lock on {@link #items}.
+     */
+    private void scheduleExpiry(String key, long expiresAt) {
+        if (expiresAt <= 0) {
+            return;
+        }
+        final ExpiryWheel.Expiry pending = pendingExpiries.get(key);
+        if (nonNull(pending)) {
+            pending.extend(expiresAt);
+        } else {
+            pendingExpiries.put(key, ExpiryWheel.INSTANCE.schedule(this, key, expiresAt));
+        }
+    }
+
+    /**
+     * Must be called while holding the lock on {@link #items}.
+     */
+    private void cancelExpiry(String key) {
+        final ExpiryWheel.Expiry pending = pendingExpiries.remove(key);
+        if (nonNull(pending)) {
+            pending.cancel();
+        }
+    }
+
+    /**
+     * Must be called while holding the lock on {@link #items}.
+     */
+    private void evictIfRequired() {
+        final Iterator<Map.Entry<String, Entry>> eldest = items.entrySet().iterator();
+        while ((items.size() > maxItems || totalBytes > maxBytes) && eldest.hasNext()) {
+            final Map.Entry<String, Entry> evicted = eldest.next();
+            LOGGER.trace("Evicting item with key: {} from store: {}", evicted.getKey(), storeName);
+            totalBytes -= evicted.getValue().bytes;
+            eldest.remove();
+            cancelExpiry(evicted.getKey());
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Remove the item held under the key of the expiry, if it has expired.
+     *
+     * @param expiry the pending expiry for the key
+     * @param now    the current time, in epoch milliseconds
+     * @return {@code true} if the expiry is complete, or {@code false} if its deadline was
+     * extended by a write to the key, in which case it must be rescheduled
+     */
+    boolean expire(ExpiryWheel.Expiry expiry, long now) {
+        final String key = expiry.getKey();
+        synchronized (items) {
+            if (expiry.isCancelled()) {
+                return true;
+            }
+            if (expiry.getExpiresAt() > now) {
+                return false;
+            }
+            pendingExpiries.remove(key, expiry);
+
+            // the item may have been deleted or evicted since it was written
+            final Entry entry = items.get(key);
+            if (nonNull(entry) && entry.isExpired(now)) {
+                LOGGER.trace("Expired item with key: {} from store: {}", key, storeName);
+                items.remove(key);
+                totalBytes -= entry.bytes;
+                expirations.incrementAndGet();
+            }
+            return true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T load(String key) {
+        LOGGER.trace("Loading item with key: {} from store: {}", key, storeName);
+        final Entry entry;
+        synchronized (items) {
+            entry = items.get(key);
+        }
+        if (isNull(entry) || entry.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return (T) entry.value;
+    }
+
+    @Override
+    public void delete(String key) {
+        LOGGER.trace("Deleting item with key: {} from store: {}", key, storeName);
+        synchronized (items) {
+            removeEntry(key);
+        }
+    }
+
+    @Override
+    public Map<String, Object> loadAll() {
+        LOGGER.trace("Loading all items in store: {}", storeName);
+        final long now = System.currentTimeMillis();
+        final Map<String, Object> snapshot = new HashMap<>();
+        synchronized (items) {
+            items.forEach((key, entry) -> {
+                if (!entry.isExpired(now)) {
+                    snapshot.put(key, entry.value);
+                }
+            });
+        }
+        return snapshot;
+    }
+
+    @Override
+    public boolean hasItemWithKey(String key) {
+        LOGGER.trace("Checking for item with key: {} in store: {}", key, storeName);
+        final Entry entry;
+        synchronized (items) {
+            entry = items.get(key);
+        }
+        return nonNull(entry) && !entry.isExpired(System.currentTimeMillis());
+    }
+
+    @Override
+    public int count() {
+        final int count;
+        synchronized (items) {
+            count = items.size();
+        }
+        LOGGER.trace("Returning item count {} from store: {}", count, storeName);
+        return count;
+    }
+
+    @Override
+    public long increment(String key, long delta) {
+        LOGGER.trace("Incrementing item with key: {} in store: {} by {}", key, storeName, delta);
+        final long now = System.currentTimeMillis();
+        final long value;
+        synchronized (items) {
+            value = StoreUtil.toLong(key, liveValue(key, now)) + delta;
+            putEntry(key, buildEntry(key, value, expiresAt(now)));
+            evictIfRequired();
+        }
+        return value;
+    }
+
+    @Override
+    public boolean compareAndSet(String key, Object expectedValue, Object newValue) {
+        LOGGER.trace("Comparing and setting item with key: {} in store: {}", key, storeName);
+        final long now = System.currentTimeMillis();
+        synchronized (items) {
+            if (!Objects.equals(liveValue(key, now), expectedValue)) {
+                return false;
+            }
+            if (isNull(newValue)) {
+                removeEntry(key);
+                return true;
+            }
+            putEntry(key, buildEntry(key, newValue, expiresAt(now)));
+            evictIfRequired();
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T putIfAbsent(String key, Object value) {
+        LOGGER.trace("Saving item with key: {} to store: {} if absent", key, storeName);
+        final long now = System.currentTimeMillis();
+        synchronized (items) {
+            final Object existing = liveValue(key, now);
+            if (nonNull(existing)) {
+                return (T) existing;
+            }
+            putEntry(key, buildEntry(key, value, expiresAt(now)));
+            evictIfRequired();
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getAndDelete(String key) {
+        LOGGER.trace("Deleting item with key: {} from store: {}", key, storeName);
+        final long now = System.currentTimeMillis();
+        synchronized (items) {
+            final Object existing = liveValue(key, now);
+            removeEntry(key);
+            return (T) existing;
+        }
+    }
+
+    /**
+     * Must be called while holding the lock on {@link #items}.
+     *
+     * @return the value of the item, or {@code null} if there is no item or it has expired
+     */
+    private Object liveValue(String key, long now) {
+        final Entry entry = items.get(key);
+        return (isNull(entry) || entry.isExpired(now)) ? null : entry.value;
+    }
+
+    /**
+     * Must be called while holding the lock on {@link #items}.
+     */
+    private void removeEntry(String key) {
+        final Entry removed = items.remove(key);
+        if (nonNull(removed)) {
+            totalBytes -= removed.bytes;
+        }
+        cancelExpiry(key);
+    }
+
+    private long expiresAt(long now) {
+        return (expiryMillis > 0) ? now + expiryMillis : 0;
+    }
+
+    /**
+     * @return the estimated size in bytes of the items in the store, if the size is limited, otherwise zero
+     */
+    public long getTotalBytes() {
+        synchronized (items) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * @return the number of keys with a pending expiry
+     */
+    int getPendingExpiries() {
+        synchronized (items) {
+            return pendingExpiries.size();
+        }
+    }
+
+    /**
+     * @return the number of items evicted to stay within the store limits
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the number of items that have expired
+     */
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    /**
+     * Estimate the heap size of the value. This is approximate, and intended only to
+     * bound the memory used by the store.
+     *
+     * @param value the value
+     * @return the estimated size in bytes
+     */
+    static long estimateBytes(Object value) {
+        if (isNull(value)) {
+            return 0;
+        } else if (value instanceof CharSequence) {
+            return 40 + 2L * ((CharSequence) value).length();
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return 16;
+        } else if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        } else if (value instanceof Map) {
+            long bytes = 48;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                bytes += 32 + estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+            }
+            return bytes;
+        } else if (value instanceof Collection) {
+            long bytes = 40;
+            for (Object item : (Collection<?>) value) {
+                bytes += 8 + estimateBytes(item);
+            }
+            return bytes;
+        } else if (value instanceof Object[]) {
+            long bytes = 16;
+            for (Object item : (Object[]) value) {
+                bytes += 8 + estimateBytes(item);
+            }
+            return bytes;
+        } else {
+            return 40 + 2L * value.toString().length();
+        }
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final long bytes;
+        private final long expiresAt;
+
+        private Entry(Object value, long bytes, long expiresAt) {
+            this.value = value;
+            this.bytes = bytes;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt > 0 && expiresAt <= now;
+        }
+    }
+}
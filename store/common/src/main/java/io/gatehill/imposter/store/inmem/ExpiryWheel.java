@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.inmem;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A timer wheel that expires items from all in-memory stores, using a single thread.
+ * <p>
+ * Each slot of the wheel holds the items due to expire during one tick. Items due
+ * after a full rotation of the wheel are rescheduled when their slot is reached.
+ * <p>
+ * Each key has at most one pending expiry, which is extended in place when the item
+ * is written again, so the wheel holds no more than one expiry per key. Expiries do
+ * not reference item values.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+final class ExpiryWheel {
+    private static final Logger LOGGER = LogManager.getLogger(ExpiryWheel.class);
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 64;
+
+    static final ExpiryWheel INSTANCE = new ExpiryWheel();
+
+    private final Queue<Expiry>[] slots;
+    private volatile long currentTick = System.currentTimeMillis() / TICK_MILLIS;
+    private ScheduledExecutorService scheduler;
+
+    @SuppressWarnings("unchecked")
+    private ExpiryWheel() {
+        slots = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Schedule the key for expiry. The deadline of the returned expiry can be extended
+     * by later writes to the key, rather than scheduling another expiry.
+     *
+     * @param store     the store holding the key
+     * @param key       the key
+     * @param expiresAt the time at which the key expires, in epoch milliseconds
+     * @return the pending expiry
+     */
+    Expiry schedule(BoundedInMemoryStore store, String key, long expiresAt) {
+        startIfRequired();
+        final Expiry expiry = new Expiry(store, key, expiresAt);
+        add(expiry);
+        return expiry;
+    }
+
+    private void add(Expiry expiry) {
+        // never add to the slot being processed, as it might already have been drained
+        final long tick = Math.max(expiry.expiresAt / TICK_MILLIS, currentTick + 1);
+        slots[(int) (tick % WHEEL_SIZE)].add(expiry);
+    }
+
+    private synchronized void startIfRequired() {
+        if (isNull(scheduler)) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "imposter-store-expiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::advance, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void advance() {
+        try {
+            final long now = System.currentTimeMillis();
+            final long nowTick = now / TICK_MILLIS;
+            while (currentTick <= nowTick) {
+                expireSlot(slots[(int) (currentTick % WHEEL_SIZE)], now);
+                currentTick++;
+            }
+        } catch (Exception e) {
+            // don't allow the exception to cancel future ticks
+            LOGGER.warn("Error expiring store items", e);
+        }
+    }
+
+    private void expireSlot(Queue<Expiry> slot, long now) {
+        // only process the items present at the start, as items may be rescheduled into this slot
+        for (int remaining = slot.size(); remaining > 0; remaining--) {
+            final Expiry expiry = slot.poll();
+            if (isNull(expiry)) {
+                break;
+            }
+            // the key might have been deleted or evicted, or its deadline extended, since the expiry was added
+            if (expiry.cancelled) {
+                continue;
+            }
+            if (expiry.expiresAt > now || !expiry.store.expire(expiry, now)) {
+                add(expiry);
+            }
+        }
+    }
+
+    static final class Expiry {
+        private final BoundedInMemoryStore store;
+        private final String key;
+        private volatile long expiresAt;
+        private volatile boolean cancelled;
+
+        private Expiry(BoundedInMemoryStore store, String key, long expiresAt) {
+            this.store = store;
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        long getExpiresAt() {
+            return expiresAt;
+        }
+
+        /**
+         * Extend the deadline. When its current slot is reached, the expiry is
+         * moved to the slot for the new deadline.
+         *
+         * @param expiresAt the new time at which the key expires, in epoch milliseconds
+         */
+        void extend(long expiresAt) {
+            if (expiresAt > this.expiresAt) {
+                this.expiresAt = expiresAt;
+            }
+        }
+
+        /**
+         * Cancel the expiry, such as when its key is deleted. When its current slot
+         * is reached, the expiry is dropped.
+         */
+        void cancel() {
+            cancelled = true;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
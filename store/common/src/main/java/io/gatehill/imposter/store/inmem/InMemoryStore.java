@@ -44,12 +44,14 @@
 package io.gatehill.imposter.store.inmem;
 
 import io.gatehill.imposter.store.model.Store;
+import io.gatehill.imposter.store.util.StoreUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Map;
 
 import static com.google.common.collect.Maps.newConcurrentMap;
+import static java.util.Objects.isNull;
 
 /**
  * An in-memory store implementation. Does not have any support for item expiration,
@@ -84,6 +86,12 @@ public class InMemoryStore implements Store {
         store.put(key, value);
     }
 
+    @Override
+    public void saveAll(Map<String, Object> items) {
+        LOGGER.trace("Saving {} items to store: {}", items.size(), storeName);
+        store.putAll(items);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <T> T load(String key) {
@@ -115,4 +123,44 @@ public class InMemoryStore implements Store {
         LOGGER.trace("Returning item count {} from store: {}", count, storeName);
         return count;
     }
+
+    @Override
+    public long increment(String key, long delta) {
+        LOGGER.trace("Incrementing item with key: {} in store: {} by {}", key, storeName, delta);
+        return (Long) store.compute(key, (k, current) -> StoreUtil.toLong(k, current) + delta);
+    }
+
+    @Override
+    public boolean compareAndSet(String key, Object expectedValue, Object newValue) {
+        LOGGER.trace("Comparing and setting item with key: {} in store: {}", key, storeName);
+        if (isNull(expectedValue)) {
+            return isNull(newValue) ? !store.containsKey(key) : isNull(store.putIfAbsent(key, newValue));
+        } else if (isNull(newValue)) {
+            return store.remove(key, expectedValue);
+        } else {
+            return store.replace(key, expectedValue, newValue);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T putIfAbsent(String key, Object value) {
+        LOGGER.trace("Saving item with key: {} to store: {} if absent", key, storeName);
+        return (T) store.putIfAbsent(key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getAndDelete(String key) {
+        LOGGER.trace("Deleting item with key: {} from store: {}", key, storeName);
+        return (T) store.remove(key);
+    }
+
+    /**
+     * Remove all items from the store.
+     */
+    public void clear() {
+        LOGGER.trace("Clearing all items in store: {}", storeName);
+        store.clear();
+    }
 }
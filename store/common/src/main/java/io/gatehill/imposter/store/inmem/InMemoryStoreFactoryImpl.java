@@ -43,15 +43,88 @@
 
 package io.gatehill.imposter.store.inmem;
 
+import io.gatehill.imposter.plugin.config.system.StoreConfig;
 import io.gatehill.imposter.store.factory.AbstractStoreFactory;
 import io.gatehill.imposter.store.model.Store;
+import io.gatehill.imposter.util.MetricsUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static java.util.Objects.nonNull;
 
 /**
+ * Builds in-memory stores. Stores configured with limits on their items are
+ * bounded, otherwise they are unbounded.
+ *
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
 public class InMemoryStoreFactoryImpl extends AbstractStoreFactory {
+    private static final String METRIC_STORE_ITEMS = "store.inmem.items";
+    private static final String METRIC_STORE_BYTES = "store.inmem.bytes";
+    private static final String METRIC_STORE_EVICTIONS = "store.inmem.evictions";
+    private static final String METRIC_STORE_EXPIRATIONS = "store.inmem.expirations";
+    private static final String METRIC_TAG_STORE = "store";
+
+    /**
+     * The meters registered for each bounded store, which are bound to that store instance.
+     */
+    private final Map<String, List<Meter>> storeMeters = newConcurrentMap();
+
     @Override
     public Store buildNewStore(String storeName) {
-        return new InMemoryStore(storeName);
+        final StoreConfig storeConfig = getStoreConfig(storeName);
+        if (!BoundedInMemoryStore.isBounded(storeConfig)) {
+            return new InMemoryStore(storeName);
+        }
+
+        final BoundedInMemoryStore store = new BoundedInMemoryStore(storeName, storeConfig);
+        MetricsUtil.doIfMetricsEnabled(METRIC_STORE_ITEMS, registry -> storeMeters.put(storeName, newArrayList(
+                Gauge.builder(METRIC_STORE_ITEMS, store, BoundedInMemoryStore::count)
+                        .description("The number of items in a bounded in-memory store")
+                        .tag(METRIC_TAG_STORE, storeName)
+                        .register(registry),
+
+                Gauge.builder(METRIC_STORE_BYTES, store, BoundedInMemoryStore::getTotalBytes)
+                        .description("The estimated size in bytes of the items in a bounded in-memory store")
+                        .tag(METRIC_TAG_STORE, storeName)
+                        .baseUnit("bytes")
+                        .register(registry),
+
+                FunctionCounter.builder(METRIC_STORE_EVICTIONS, store, BoundedInMemoryStore::getEvictions)
+                        .description("The number of items evicted from a bounded in-memory store to stay within its limits")
+                        .tag(METRIC_TAG_STORE, storeName)
+                        .register(registry),
+
+                FunctionCounter.builder(METRIC_STORE_EXPIRATIONS, store, BoundedInMemoryStore::getExpirations)
+                        .description("The number of items expired from a bounded in-memory store")
+                        .tag(METRIC_TAG_STORE, storeName)
+                        .register(registry)
+        )));
+        return store;
+    }
+
+    /**
+     * Removes the meters of the store, as well as removing the store, so a store
+     * created later with the same name does not report the deleted store.
+     */
+    @Override
+    public void deleteStoreByName(String storeName) {
+        super.deleteStoreByName(storeName);
+
+        final List<Meter> meters = storeMeters.remove(storeName);
+        if (nonNull(meters)) {
+            MetricsUtil.doIfMetricsEnabled(METRIC_STORE_ITEMS, registry -> meters.forEach(registry::remove));
+        }
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.inmem;
+
+import io.gatehill.imposter.store.util.StoreUtil;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Pools the in-memory stores used for request scoped items, so a store
+ * is not allocated for every request. Stores are cleared when they are released.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class RequestStorePool {
+    private final int maxIdle;
+    private final Queue<InMemoryStore> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * @param maxIdle the maximum number of released stores to retain for reuse
+     */
+    public RequestStorePool(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * @return an empty store, reused from the pool if one is available
+     */
+    public InMemoryStore acquire() {
+        final InMemoryStore store = idle.poll();
+        if (isNull(store)) {
+            return new InMemoryStore(StoreUtil.REQUEST_SCOPED_STORE_NAME);
+        }
+        idleCount.decrementAndGet();
+        return store;
+    }
+
+    /**
+     * Clear the store and return it to the pool, unless the pool is full.
+     *
+     * @param store the store acquired from this pool
+     */
+    public void release(InMemoryStore store) {
+        store.clear();
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(store);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of stores available for reuse
+     */
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+}
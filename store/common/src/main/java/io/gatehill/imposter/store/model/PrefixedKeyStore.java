@@ -43,6 +43,14 @@
 
 package io.gatehill.imposter.store.model;
 
+import com.google.common.base.Strings;
+import com.google.common.collect.Iterators;
+import io.vertx.core.Future;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -80,6 +88,17 @@ public class PrefixedKeyStore implements Store {
         delegate.save(buildKey(key), value);
     }
 
+    @Override
+    public void saveAll(Map<String, Object> items) {
+        delegate.saveAll(prefixKeys(items));
+    }
+
+    private Map<String, Object> prefixKeys(Map<String, Object> items) {
+        final Map<String, Object> prefixed = new LinkedHashMap<>(items.size() * 4 / 3 + 1);
+        items.forEach((key, value) -> prefixed.put(buildKey(key), value));
+        return prefixed;
+    }
+
     @Override
     public <T> T load(String key) {
         return delegate.load(buildKey(key));
@@ -92,11 +111,26 @@ public class PrefixedKeyStore implements Store {
 
     @Override
     public Map<String, Object> loadAll() {
-        // strip out key prefix
-        return delegate.loadAll().entrySet().stream()
+        return stripPrefix(delegate.loadAll());
+    }
+
+    private Map<String, Object> stripPrefix(Map<String, Object> items) {
+        return items.entrySet().stream()
                 .collect(Collectors.toMap(e -> e.getKey().substring(keyPrefix.length()), Map.Entry::getValue));
     }
 
+    @Override
+    public Iterator<String> iterateKeys(String keyPrefix) {
+        final Iterator<String> keys = delegate.iterateKeys(buildKey(Strings.nullToEmpty(keyPrefix)));
+        return Iterators.transform(keys, key -> key.substring(this.keyPrefix.length()));
+    }
+
+    @Override
+    public Map<String, Object> loadByKeys(Collection<String> keys) {
+        final List<String> prefixedKeys = keys.stream().map(this::buildKey).collect(Collectors.toList());
+        return stripPrefix(delegate.loadByKeys(prefixedKeys));
+    }
+
     @Override
     public boolean hasItemWithKey(String key) {
         return delegate.hasItemWithKey(buildKey(key));
@@ -106,4 +140,59 @@ public class PrefixedKeyStore implements Store {
     public int count() {
         return delegate.count();
     }
+
+    @Override
+    public long increment(String key, long delta) {
+        return delegate.increment(buildKey(key), delta);
+    }
+
+    @Override
+    public boolean compareAndSet(String key, Object expectedValue, Object newValue) {
+        return delegate.compareAndSet(buildKey(key), expectedValue, newValue);
+    }
+
+    @Override
+    public <T> T putIfAbsent(String key, Object value) {
+        return delegate.putIfAbsent(buildKey(key), value);
+    }
+
+    @Override
+    public <T> T getAndDelete(String key) {
+        return delegate.getAndDelete(buildKey(key));
+    }
+
+    @Override
+    public Future<Void> saveAsync(String key, Object value) {
+        return delegate.saveAsync(buildKey(key), value);
+    }
+
+    @Override
+    public Future<Void> saveAllAsync(Map<String, Object> items) {
+        return delegate.saveAllAsync(prefixKeys(items));
+    }
+
+    @Override
+    public <T> Future<T> loadAsync(String key) {
+        return delegate.loadAsync(buildKey(key));
+    }
+
+    @Override
+    public Future<Void> deleteAsync(String key) {
+        return delegate.deleteAsync(buildKey(key));
+    }
+
+    @Override
+    public Future<Map<String, Object>> loadAllAsync() {
+        return delegate.loadAllAsync().map(this::stripPrefix);
+    }
+
+    @Override
+    public Future<Boolean> hasItemWithKeyAsync(String key) {
+        return delegate.hasItemWithKeyAsync(buildKey(key));
+    }
+
+    @Override
+    public Future<Integer> countAsync() {
+        return delegate.countAsync();
+    }
 }
@@ -43,9 +43,32 @@
 
 package io.gatehill.imposter.store.model;
 
+import io.gatehill.imposter.store.util.StoreUtil;
+import io.vertx.core.Future;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
+ * A named collection of items.
+ * <p>
+ * The asynchronous operations complete when the underlying store has completed the operation.
+ * By default, they invoke the synchronous operation on the calling thread, which is appropriate
+ * for stores that do not block, such as in-memory stores. Stores that perform I/O should override
+ * them to avoid blocking the calling thread.
+ * <p>
+ * The atomic operations, such as {@link #increment(String, long)}, are atomic with respect to
+ * each other and to the other operations on the store. By default, they are implemented by
+ * locking the store instance, which is only atomic with respect to other atomic operations
+ * in the same process. Stores should override them with the primitives of the underlying store.
+ *
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
 public interface Store {
@@ -55,13 +78,172 @@ public interface Store {
 
     void save(String key, Object value);
 
+    /**
+     * Save all the items. Stores should override this if they can save
+     * multiple items more efficiently than one at a time.
+     *
+     * @param items the items to save
+     */
+    default void saveAll(Map<String, Object> items) {
+        items.forEach(this::save);
+    }
+
     <T> T load(String key);
 
     void delete(String key);
 
     Map<String, Object> loadAll();
 
+    /**
+     * Iterate the keys of the items in the store, in no particular order. Stores should
+     * override this if they can iterate their keys without loading all the items.
+     *
+     * @param keyPrefix if not {@code null}, only keys starting with this prefix are returned
+     * @return the keys
+     */
+    default Iterator<String> iterateKeys(String keyPrefix) {
+        return loadAll().keySet().stream()
+                .filter(key -> isNull(keyPrefix) || key.startsWith(keyPrefix))
+                .iterator();
+    }
+
+    /**
+     * Load the items with the given keys. Keys for which there is no item are omitted from the result.
+     *
+     * @param keys the item keys
+     * @return the items
+     */
+    default Map<String, Object> loadByKeys(Collection<String> keys) {
+        final Map<String, Object> items = new LinkedHashMap<>(keys.size() * 4 / 3 + 1);
+        for (String key : keys) {
+            final Object value = load(key);
+            if (nonNull(value)) {
+                items.put(key, value);
+            }
+        }
+        return items;
+    }
+
     boolean hasItemWithKey(String key);
 
     int count();
+
+    /**
+     * Atomically add to the numeric value of an item. A missing item is treated as zero.
+     *
+     * @param key   the item key
+     * @param delta the amount to add, which may be negative
+     * @return the new value
+     * @throws IllegalStateException if the existing value is not an integer
+     */
+    default long increment(String key, long delta) {
+        synchronized (this) {
+            final long value = StoreUtil.toLong(key, load(key)) + delta;
+            save(key, value);
+            return value;
+        }
+    }
+
+    /**
+     * Atomically set the value of an item, if its current value is equal to the expected value.
+     *
+     * @param key           the item key
+     * @param expectedValue the expected value, or {@code null} if the item is expected not to exist
+     * @param newValue      the new value, or {@code null} to delete the item
+     * @return {@code true} if the value was set, otherwise {@code false}
+     */
+    default boolean compareAndSet(String key, Object expectedValue, Object newValue) {
+        synchronized (this) {
+            if (!Objects.equals(load(key), expectedValue)) {
+                return false;
+            }
+            if (isNull(newValue)) {
+                delete(key);
+            } else {
+                save(key, newValue);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Atomically save an item, if there is no item with the key.
+     *
+     * @param key   the item key
+     * @param value the item value
+     * @return the existing value, or {@code null} if the item was saved
+     */
+    default <T> T putIfAbsent(String key, Object value) {
+        synchronized (this) {
+            final T existing = load(key);
+            if (isNull(existing)) {
+                save(key, value);
+            }
+            return existing;
+        }
+    }
+
+    /**
+     * Atomically delete an item, returning its value.
+     *
+     * @param key the item key
+     * @return the value of the deleted item, or {@code null} if there was no item
+     */
+    default <T> T getAndDelete(String key) {
+        synchronized (this) {
+            final T existing = load(key);
+            if (nonNull(existing)) {
+                delete(key);
+            }
+            return existing;
+        }
+    }
+
+    default Future<Void> saveAsync(String key, Object value) {
+        return completeWith(() -> {
+            save(key, value);
+            return null;
+        });
+    }
+
+    default Future<Void> saveAllAsync(Map<String, Object> items) {
+        return completeWith(() -> {
+            saveAll(items);
+            return null;
+        });
+    }
+
+    default <T> Future<T> loadAsync(String key) {
+        return completeWith(() -> load(key));
+    }
+
+    default Future<Void> deleteAsync(String key) {
+        return completeWith(() -> {
+            delete(key);
+            return null;
+        });
+    }
+
+    default Future<Map<String, Object>> loadAllAsync() {
+        return completeWith(this::loadAll);
+    }
+
+    default Future<Boolean> hasItemWithKeyAsync(String key) {
+        return completeWith(() -> hasItemWithKey(key));
+    }
+
+    default Future<Integer> countAsync() {
+        return completeWith(this::count);
+    }
+
+    /**
+     * Invoke the operation on the calling thread, returning a completed future.
+     */
+    static <T> Future<T> completeWith(Supplier<T> operation) {
+        try {
+            return Future.succeededFuture(operation.get());
+        } catch (Exception e) {
+            return Future.failedFuture(e);
+        }
+    }
 }
@@ -43,6 +43,8 @@
 
 package io.gatehill.imposter.store.model;
 
+import io.gatehill.imposter.plugin.config.system.StoreConfig;
+
 /**
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
@@ -52,4 +54,30 @@ public interface StoreFactory {
     Store getStoreByName(String storeName, boolean forceInMemory);
 
     void deleteStoreByName(String storeName);
+
+    /**
+     * Set the configuration for the named store. This must be called before the store is
+     * first opened, for the configuration to take effect.
+     *
+     * @param storeName   the name of the store
+     * @param storeConfig the store configuration
+     */
+    void configureStore(String storeName, StoreConfig storeConfig);
+
+    /**
+     * @return {@code true} if store operations might block the calling thread, such as
+     * when the store is external, otherwise {@code false}
+     */
+    default boolean isBlocking() {
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the asynchronous operations of stores from this factory do not
+     * block the calling thread, even if the synchronous operations do, otherwise {@code false}
+     * @see Store#saveAsync(String, Object)
+     */
+    default boolean isAsyncSupported() {
+        return !isBlocking();
+    }
 }
@@ -45,22 +45,27 @@ package io.gatehill.imposter.store.model;
 
 import io.gatehill.imposter.store.util.StoreUtil;
 
+import java.util.function.Supplier;
+
 /**
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
 public class StoreHolder {
     private final StoreFactory storeFactory;
-    private final String requestId;
+    private final Supplier<Store> requestStoreSupplier;
 
-    public StoreHolder(StoreFactory storeFactory, String requestId) {
+    /**
+     * @param storeFactory         the factory for named stores
+     * @param requestStoreSupplier supplies the request scoped store of the current request
+     */
+    public StoreHolder(StoreFactory storeFactory, Supplier<Store> requestStoreSupplier) {
         this.storeFactory = storeFactory;
-        this.requestId = requestId;
+        this.requestStoreSupplier = requestStoreSupplier;
     }
 
     public Store open(String storeName) {
         if (StoreUtil.isRequestScopedStore(storeName)) {
-            storeName = StoreUtil.buildRequestStoreName(requestId);
-            return storeFactory.getStoreByName(storeName, true);
+            return requestStoreSupplier.get();
         }
         return storeFactory.getStoreByName(storeName, false);
     }
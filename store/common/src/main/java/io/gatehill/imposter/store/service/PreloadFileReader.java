@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.gatehill.imposter.util.MapUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Reads store items from a preload file as a stream, passing them to a consumer in batches,
+ * so the whole file is never held in memory.
+ * <p>
+ * The file can contain any sequence of the following top-level values:
+ * <ul>
+ *     <li>an object, each of whose fields is an item, such as <code>{"foo": "bar"}</code></li>
+ *     <li>an array of <code>[key, value]</code> pairs, such as <code>[["foo", "bar"]]</code></li>
+ *     <li>an array of objects, each of whose fields is an item</li>
+ * </ul>
+ * As top-level values can follow one another, this includes newline delimited JSON (NDJSON),
+ * with an object on each line.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+final class PreloadFileReader {
+    private PreloadFileReader() {
+    }
+
+    /**
+     * @param file          the preload file
+     * @param batchSize     the maximum number of items passed to the consumer at once
+     * @param batchConsumer receives each batch of items
+     * @return the total number of items read
+     * @throws IOException if the file cannot be read or is not in a supported format
+     */
+    static long read(File file, int batchSize, Consumer<Map<String, Object>> batchConsumer) throws IOException {
+        final Batch batch = new Batch(batchSize, batchConsumer);
+
+        try (JsonParser parser = MapUtil.JSON_MAPPER.getFactory().createParser(file)) {
+            JsonToken token;
+            while (nonNull(token = parser.nextToken())) {
+                if (token == JsonToken.START_OBJECT) {
+                    readObjectItems(parser, batch);
+                } else if (token == JsonToken.START_ARRAY) {
+                    readArrayItems(parser, batch);
+                } else {
+                    throw unexpectedToken(parser, "an object or array");
+                }
+            }
+        }
+
+        batch.flush();
+        return batch.total;
+    }
+
+    private static void readObjectItems(JsonParser parser, Batch batch) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String key = parser.getCurrentName();
+            parser.nextToken();
+            batch.add(key, parser.readValueAs(Object.class));
+        }
+    }
+
+    private static void readArrayItems(JsonParser parser, Batch batch) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_ARRAY) {
+                readPair(parser, batch);
+            } else if (token == JsonToken.START_OBJECT) {
+                readObjectItems(parser, batch);
+            } else {
+                throw unexpectedToken(parser, "a [key, value] pair or an object");
+            }
+        }
+    }
+
+    private static void readPair(JsonParser parser, Batch batch) throws IOException {
+        if (parser.nextToken() != JsonToken.VALUE_STRING) {
+            throw unexpectedToken(parser, "a string key");
+        }
+        final String key = parser.getText();
+        parser.nextToken();
+        final Object value = parser.readValueAs(Object.class);
+
+        if (parser.nextToken() != JsonToken.END_ARRAY) {
+            throw unexpectedToken(parser, "the end of a [key, value] pair");
+        }
+        batch.add(key, value);
+    }
+
+    private static IOException unexpectedToken(JsonParser parser, String expected) {
+        return new IOException(String.format("Expected %s but found %s at %s",
+                expected, parser.currentToken(), parser.getCurrentLocation()));
+    }
+
+    private static class Batch {
+        private final int batchSize;
+        private final Consumer<Map<String, Object>> batchConsumer;
+        private Map<String, Object> items;
+        private long total;
+
+        private Batch(int batchSize, Consumer<Map<String, Object>> batchConsumer) {
+            this.batchSize = batchSize;
+            this.batchConsumer = batchConsumer;
+            this.items = new LinkedHashMap<>();
+        }
+
+        private void add(String key, Object value) {
+            items.put(key, value);
+            total++;
+            if (items.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!items.isEmpty()) {
+                batchConsumer.accept(items);
+                items = new LinkedHashMap<>();
+            }
+        }
+    }
+}
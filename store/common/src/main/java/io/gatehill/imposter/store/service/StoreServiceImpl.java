@@ -46,11 +46,12 @@ package io.gatehill.imposter.store.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.base.Strings;
 import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.ParseContext;
 import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
 import io.gatehill.imposter.ImposterConfig;
+import io.gatehill.imposter.http.ParsedRequestBody;
+import io.gatehill.imposter.http.TemplatePlaceholder;
 import io.gatehill.imposter.lifecycle.ImposterLifecycleHooks;
 import io.gatehill.imposter.lifecycle.ImposterLifecycleListener;
 import io.gatehill.imposter.plugin.config.PluginConfig;
@@ -61,35 +62,55 @@ import io.gatehill.imposter.plugin.config.resource.ResponseConfigHolder;
 import io.gatehill.imposter.plugin.config.system.StoreConfig;
 import io.gatehill.imposter.plugin.config.system.SystemConfigHolder;
 import io.gatehill.imposter.script.ExecutionContext;
+import io.gatehill.imposter.server.RequestHandlingMode;
 import io.gatehill.imposter.service.ResourceService;
+import io.gatehill.imposter.store.inmem.InMemoryStore;
+import io.gatehill.imposter.store.inmem.RequestStorePool;
 import io.gatehill.imposter.store.model.Store;
 import io.gatehill.imposter.store.model.StoreFactory;
 import io.gatehill.imposter.store.model.StoreHolder;
 import io.gatehill.imposter.store.util.StoreUtil;
 import io.gatehill.imposter.util.HttpUtil;
+import io.gatehill.imposter.util.JsonPathUtil;
 import io.gatehill.imposter.util.MapUtil;
-import io.gatehill.imposter.util.ResourceUtil;
+import io.gatehill.imposter.util.MetricsUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.MIMEHeader;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.impl.ParsableMIMEValue;
-import org.apache.commons.text.StringSubstitutor;
-import org.apache.commons.text.lookup.StringLookup;
-import org.apache.commons.text.lookup.StringLookupFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.inject.Inject;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static com.google.common.collect.Maps.newConcurrentMap;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
@@ -106,6 +127,36 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
      */
     private static final String DEFAULT_CAPTURE_STORE_NAME = StoreUtil.REQUEST_SCOPED_STORE_NAME;
 
+    /**
+     * Maximum number of request scoped stores retained for reuse.
+     */
+    private static final int REQUEST_STORE_POOL_SIZE = 256;
+
+    /**
+     * Maximum number of items read from a preload file before they are saved to the store.
+     */
+    private static final int PRELOAD_BATCH_SIZE = 1000;
+
+    private static final List<String> PRELOAD_FILE_EXTENSIONS = Arrays.asList(".json", ".ndjson", ".jsonl");
+
+    /**
+     * The number of items listed when a cursor is provided without a limit.
+     */
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * The number of items read from the store at a time when streaming or filtering items.
+     */
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private static final String HEADER_NEXT_CURSOR = "X-Imposter-Next-Cursor";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String CONTENT_TYPE_SNAPSHOT = "application/octet-stream";
+
+    private static final String METRIC_PRELOAD_DURATION = "store.preload.duration";
+    private static final String METRIC_PRELOAD_THROUGHPUT = "store.preload.throughput";
+    private static final String METRIC_TAG_STORE = "store";
+
     private static final ParseContext JSONPATH_PARSE_CONTEXT = JsonPath.using(Configuration.builder()
             .mappingProvider(new JacksonMappingProvider())
             .build());
@@ -113,7 +164,10 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
     private final Vertx vertx;
     private final ResourceService resourceService;
     private final StoreFactory storeFactory;
-    private final StringSubstitutor storeItemSubstituter;
+    private final AtomicBoolean preloaded = new AtomicBoolean();
+    private final RequestStorePool requestStorePool = new RequestStorePool(REQUEST_STORE_POOL_SIZE);
+    private final Map<String, Double> preloadThroughput = newConcurrentMap();
+    private final Map<String, Path> snapshotPaths = newConcurrentMap();
 
     @Inject
     public StoreServiceImpl(
@@ -127,48 +181,78 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
         this.storeFactory = storeFactory;
 
         LOGGER.trace("Stores enabled");
-        storeItemSubstituter = buildStoreItemSubstituter();
         lifecycleHooks.registerListener(this);
     }
 
-    /**
-     * @return a string substituter that replaces placeholders like 'example.foo' with the value of the
-     * item 'foo' in the store 'example'.
-     */
-    private StringSubstitutor buildStoreItemSubstituter() {
-        final StringLookup variableResolver = StringLookupFactory.INSTANCE.functionStringLookup(key -> {
-            try {
-                final int dotIndex = key.indexOf(".");
-                if (dotIndex > 0) {
-                    final String storeName = key.substring(0, dotIndex);
-                    if (storeFactory.hasStoreWithName(storeName)) {
-                        final String itemKey = key.substring(dotIndex + 1);
-                        return loadItemFromStore(storeName, itemKey);
-                    }
+    @Override
+    public TemplatePlaceholder compileTemplatePlaceholder(String placeholder) {
+        final int dotIndex = placeholder.indexOf(".");
+        if (dotIndex <= 0) {
+            return routingContext -> {
+                throw new IllegalStateException("Unknown store for template placeholder: " + placeholder);
+            };
+        }
+        final String storeName = placeholder.substring(0, dotIndex);
+        final boolean requestScoped = StoreUtil.REQUEST_SCOPED_STORE_NAME.equals(storeName);
+
+        // check for jsonpath expression
+        final String itemKey;
+        final JsonPath jsonPath;
+        final int colonIndex = placeholder.indexOf(":", dotIndex + 1);
+        if (colonIndex > dotIndex + 1) {
+            itemKey = placeholder.substring(dotIndex + 1, colonIndex);
+            jsonPath = JsonPathUtil.compile(placeholder.substring(colonIndex + 1));
+        } else {
+            itemKey = placeholder.substring(dotIndex + 1);
+            jsonPath = null;
+        }
+
+        return new TemplatePlaceholder() {
+            @Override
+            public Object resolve(RoutingContext routingContext) {
+                final Store store = openTemplateStore(routingContext, storeName, requestScoped, placeholder);
+                try {
+                    return readItemValue(store.load(itemKey), jsonPath);
+                } catch (Exception e) {
+                    throw new RuntimeException(String.format("Error replacing template placeholder '%s' with store item", placeholder), e);
                 }
-            } catch (Exception e) {
-                throw new RuntimeException(String.format("Error replacing template placeholder '%s' with store item", key), e);
             }
-            throw new IllegalStateException("Unknown store for template placeholder: " + key);
-        });
 
-        return new StringSubstitutor(variableResolver);
+            @Override
+            public Future<Object> resolveAsync(RoutingContext routingContext) {
+                final Store store;
+                try {
+                    store = openTemplateStore(routingContext, storeName, requestScoped, placeholder);
+                } catch (Exception e) {
+                    return Future.failedFuture(e);
+                }
+                return store.loadAsync(itemKey).map(itemValue -> {
+                    try {
+                        return readItemValue(itemValue, jsonPath);
+                    } catch (Exception e) {
+                        throw new RuntimeException(String.format("Error replacing template placeholder '%s' with store item", placeholder), e);
+                    }
+                });
+            }
+        };
     }
 
-    private Object loadItemFromStore(String storeName, String itemKey) {
-        // check for jsonpath expression
-        final int colonIndex = itemKey.indexOf(":");
-        final String jsonPath;
-        if (colonIndex > 0) {
-            jsonPath = itemKey.substring(colonIndex + 1);
-            itemKey = itemKey.substring(0, colonIndex);
+    private Store openTemplateStore(RoutingContext routingContext, String storeName, boolean requestScoped, String placeholder) {
+        final Store store;
+        if (requestScoped) {
+            store = openRequestStore(routingContext, false);
+        } else if (storeFactory.hasStoreWithName(storeName)) {
+            store = storeFactory.getStoreByName(storeName, false);
         } else {
-            jsonPath = null;
+            store = null;
         }
+        if (isNull(store)) {
+            throw new IllegalStateException("Unknown store for template placeholder: " + placeholder);
+        }
+        return store;
+    }
 
-        final Store store = storeFactory.getStoreByName(storeName, false);
-        final Object itemValue = store.load(itemKey);
-
+    private Object readItemValue(Object itemValue, JsonPath jsonPath) {
         if (nonNull(jsonPath)) {
             return JSONPATH_PARSE_CONTEXT.parse(itemValue).read(jsonPath);
         } else {
@@ -180,20 +264,33 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
     public void afterRoutesConfigured(ImposterConfig imposterConfig, List<PluginConfig> allPluginConfigs, Router router) {
         router.get("/system/store/:storeName").handler(handleLoadAll(imposterConfig, allPluginConfigs));
         router.delete("/system/store/:storeName").handler(handleDeleteStore(imposterConfig, allPluginConfigs));
+        router.get("/system/snapshot/:storeName").handler(handleDownloadSnapshot(imposterConfig, allPluginConfigs));
+        router.post("/system/snapshot/:storeName").handler(handleSaveSnapshot(imposterConfig, allPluginConfigs));
+
         router.get("/system/store/:storeName/:key").handler(handleLoadSingle(imposterConfig, allPluginConfigs));
         router.put("/system/store/:storeName/:key").handler(handleSaveSingle(imposterConfig, allPluginConfigs));
         router.post("/system/store/:storeName").handler(handleSaveMultiple(imposterConfig, allPluginConfigs));
         router.delete("/system/store/:storeName/:key").handler(handleDeleteSingle(imposterConfig, allPluginConfigs));
+        router.post("/system/store/:storeName/:key/increment").handler(handleIncrement(imposterConfig, allPluginConfigs));
 
-        preloadStores(allPluginConfigs);
+        // routes are configured for each server instance, but stores are shared
+        if (preloaded.compareAndSet(false, true)) {
+            configureStores(allPluginConfigs);
+        }
     }
 
-    private void preloadStores(List<PluginConfig> allPluginConfigs) {
+    private void configureStores(List<PluginConfig> allPluginConfigs) {
         allPluginConfigs.forEach(pluginConfig -> {
             if (pluginConfig instanceof SystemConfigHolder) {
                 ofNullable(((SystemConfigHolder) pluginConfig).getSystemConfig())
                         .flatMap(systemConfig -> ofNullable(systemConfig.getStoreConfigs()))
-                        .ifPresent(storeConfigs -> storeConfigs.forEach((storeName, storeConfig) -> preload(storeName, pluginConfig, storeConfig)));
+                        .ifPresent(storeConfigs -> storeConfigs.forEach((storeName, storeConfig) -> {
+                            // must precede preloading, which opens the store
+                            storeFactory.configureStore(storeName, storeConfig);
+                            ofNullable(storeConfig.getSnapshotFile()).ifPresent(snapshotFile -> snapshotPaths.put(storeName,
+                                    Paths.get(pluginConfig.getParentDir().getPath(), snapshotFile).toAbsolutePath()));
+                            preload(storeName, pluginConfig, storeConfig);
+                        }));
             }
         });
     }
@@ -205,24 +302,47 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
         }
 
         final Store store = storeFactory.getStoreByName(storeName, false);
+        final Path snapshotPath = snapshotPaths.get(storeName);
         final Map<String, Object> preloadData = storeConfig.getPreloadData();
-        if (nonNull(preloadData)) {
+        if (nonNull(snapshotPath) && snapshotPath.toFile().exists()) {
+            LOGGER.trace("Restoring snapshot {} into store: {}", snapshotPath, storeName);
+            try {
+                final long startNanos = System.nanoTime();
+                final long itemCount = StoreSnapshot.read(snapshotPath.toFile(), PRELOAD_BATCH_SIZE, store::saveAll);
+                final long durationNanos = System.nanoTime() - startNanos;
+                recordPreload(storeName, itemCount, durationNanos);
+
+                LOGGER.debug("Restored {} items from snapshot {} into store: {} in {}ms",
+                        itemCount, snapshotPath, storeName, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+
+            } catch (IOException e) {
+                throw new RuntimeException(String.format("Error restoring snapshot %s into store: %s", snapshotPath, storeName), e);
+            }
+
+        } else if (nonNull(preloadData)) {
             LOGGER.trace("Preloading inline data into store: {}", storeName);
-            preloadData.forEach(store::save);
+            final long startNanos = System.nanoTime();
+            store.saveAll(preloadData);
+            recordPreload(storeName, preloadData.size(), System.nanoTime() - startNanos);
             LOGGER.debug("Preloaded {} items from inline data into store: {}", preloadData.size(), storeName);
 
         } else if (nonNull(storeConfig.getPreloadFile())) {
-            if (!storeConfig.getPreloadFile().endsWith(".json")) {
-                throw new IllegalStateException("Only JSON (.json) files containing a top-level object are supported for preloading");
+            final String preloadFile = storeConfig.getPreloadFile();
+            if (PRELOAD_FILE_EXTENSIONS.stream().noneMatch(preloadFile::endsWith)) {
+                throw new IllegalStateException("Only JSON (.json) or newline delimited JSON (.ndjson, .jsonl) files are supported for preloading");
             }
 
-            final Path preloadPath = Paths.get(pluginConfig.getParentDir().getPath(), storeConfig.getPreloadFile()).toAbsolutePath();
+            final Path preloadPath = Paths.get(pluginConfig.getParentDir().getPath(), preloadFile).toAbsolutePath();
             LOGGER.trace("Preloading file {} into store: {}", preloadPath, storeName);
 
             try {
-                @SuppressWarnings("unchecked") final Map<String, Object> fileContents = MapUtil.JSON_MAPPER.readValue(preloadPath.toFile(), Map.class);
-                fileContents.forEach(store::save);
-                LOGGER.debug("Preloaded {} items from file {} into store: {}", fileContents.size(), preloadPath, storeName);
+                final long startNanos = System.nanoTime();
+                final long itemCount = PreloadFileReader.read(preloadPath.toFile(), PRELOAD_BATCH_SIZE, store::saveAll);
+                final long durationNanos = System.nanoTime() - startNanos;
+                recordPreload(storeName, itemCount, durationNanos);
+
+                LOGGER.debug("Preloaded {} items from file {} into store: {} in {}ms",
+                        itemCount, preloadPath, storeName, TimeUnit.NANOSECONDS.toMillis(durationNanos));
 
             } catch (IOException e) {
                 throw new RuntimeException(String.format("Error preloading file %s into store: %s", preloadPath, storeName), e);
@@ -230,8 +350,27 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
         }
     }
 
+    private void recordPreload(String storeName, long itemCount, long durationNanos) {
+        MetricsUtil.doIfMetricsEnabled(METRIC_PRELOAD_DURATION, registry -> {
+            Timer.builder(METRIC_PRELOAD_DURATION)
+                    .description("The time taken to preload a store")
+                    .tag(METRIC_TAG_STORE, storeName)
+                    .register(registry)
+                    .record(durationNanos, TimeUnit.NANOSECONDS);
+
+            final double itemsPerSecond = (durationNanos > 0) ? itemCount * 1e9 / durationNanos : 0;
+            Gauge.builder(METRIC_PRELOAD_THROUGHPUT, preloadThroughput, throughput -> throughput.getOrDefault(storeName, 0d))
+                    .description("The number of items per second saved when the store was preloaded")
+                    .tag(METRIC_TAG_STORE, storeName)
+                    .baseUnit("items")
+                    .register(registry);
+
+            preloadThroughput.put(storeName, itemsPerSecond);
+        });
+    }
+
     private Handler<RoutingContext> handleLoadAll(ImposterConfig imposterConfig, List<PluginConfig> allPluginConfigs) {
-        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, routingContext -> {
+        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, handleStoreOperation(imposterConfig, routingContext -> {
             final String storeName = routingContext.pathParam("storeName");
             final Store store = openStore(routingContext, storeName);
             if (isNull(store)) {
@@ -240,8 +379,35 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
 
             final List<MIMEHeader> accepted = routingContext.parsedHeaders().accept();
             if (accepted.isEmpty() || accepted.stream().anyMatch(a -> a.isMatchedBy(JSON_MIME))) {
-                LOGGER.debug("Listing store: {}", storeName);
-                serialiseBodyAsJson(routingContext, store.loadAll());
+                final HttpServerRequest request = routingContext.request();
+                final String keyPrefix = request.getParam("prefix");
+                final String limitParam = request.getParam("limit");
+                final String cursor = request.getParam("cursor");
+
+                if (nonNull(limitParam) || nonNull(cursor)) {
+                    final int limit = parseLimit(limitParam);
+                    if (limit <= 0) {
+                        routingContext.response()
+                                .setStatusCode(HttpUtil.HTTP_BAD_REQUEST)
+                                .putHeader(HttpUtil.CONTENT_TYPE, HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
+                                .end("The limit must be a positive integer");
+                        return;
+                    }
+                    LOGGER.debug("Listing page of store: {} with limit: {} after cursor: {}", storeName, limit, cursor);
+                    listPage(routingContext, store, keyPrefix, cursor, limit);
+
+                } else if (Boolean.parseBoolean(request.getParam("stream"))) {
+                    LOGGER.debug("Streaming store: {}", storeName);
+                    streamItems(routingContext, store, keyPrefix);
+
+                } else if (nonNull(keyPrefix)) {
+                    LOGGER.debug("Listing store: {} with key prefix: {}", storeName, keyPrefix);
+                    serialiseBodyAsJson(routingContext, loadWithPrefix(store, keyPrefix));
+
+                } else {
+                    LOGGER.debug("Listing store: {}", storeName);
+                    serialiseBodyAsJson(routingContext, store.loadAll());
+                }
 
             } else {
                 // client doesn't accept JSON
@@ -251,12 +417,203 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
                         .putHeader(HttpUtil.CONTENT_TYPE, HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
                         .end("Stores are only available as JSON. Please set an appropriate Accept header.");
             }
+        }));
+    }
+
+    private static int parseLimit(String limitParam) {
+        if (isNull(limitParam)) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            return Integer.parseInt(limitParam);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Respond with the items whose keys follow the cursor, in key order. If further items
+     * follow the page, the cursor for the next page is returned in a response header.
+     */
+    private void listPage(RoutingContext routingContext, Store store, String keyPrefix, String cursor, int limit) {
+        final List<String> selected = StoreUtil.selectPage(store.iterateKeys(keyPrefix), cursor, limit);
+        final List<String> pageKeys = (selected.size() > limit) ? selected.subList(0, limit) : selected;
+
+        // preserve key order
+        final Map<String, Object> loaded = store.loadByKeys(pageKeys);
+        final Map<String, Object> items = new LinkedHashMap<>(pageKeys.size() * 4 / 3 + 1);
+        pageKeys.forEach(key -> {
+            if (loaded.containsKey(key)) {
+                items.put(key, loaded.get(key));
+            }
         });
+
+        if (selected.size() > limit) {
+            routingContext.response().putHeader(HEADER_NEXT_CURSOR, pageKeys.get(limit - 1));
+        }
+        serialiseBodyAsJson(routingContext, items);
     }
 
-    private Handler<RoutingContext> handleDeleteStore(ImposterConfig imposterConfig, List<PluginConfig> allPluginConfigs) {
+    private Map<String, Object> loadWithPrefix(Store store, String keyPrefix) {
+        final Map<String, Object> items = new HashMap<>();
+        final Iterator<String> keys = store.iterateKeys(keyPrefix);
+        while (keys.hasNext()) {
+            items.putAll(store.loadByKeys(nextBatch(keys)));
+        }
+        return items;
+    }
+
+    private static List<String> nextBatch(Iterator<String> keys) {
+        final List<String> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+        while (keys.hasNext() && batch.size() < STREAM_BATCH_SIZE) {
+            batch.add(keys.next());
+        }
+        return batch;
+    }
+
+    /**
+     * Write the items to a chunked response as they are read from the store, as a single
+     * JSON object. Writing pauses while the response write queue is full.
+     */
+    private void streamItems(RoutingContext routingContext, Store store, String keyPrefix) {
+        final HttpServerResponse response = routingContext.response()
+                .setChunked(true)
+                .putHeader(HttpUtil.CONTENT_TYPE, HttpUtil.CONTENT_TYPE_JSON);
+
+        response.write("{");
+        final AtomicBoolean first = new AtomicBoolean(true);
+        writeItemBatches(response, store, store.iterateKeys(keyPrefix), items -> {
+            final Buffer chunk = Buffer.buffer();
+            for (Map.Entry<String, Object> item : items.entrySet()) {
+                if (!first.compareAndSet(true, false)) {
+                    chunk.appendString(",");
+                }
+                chunk.appendString(MapUtil.JSON_MAPPER.writeValueAsString(item.getKey()))
+                        .appendString(":")
+                        .appendString(MapUtil.JSON_MAPPER.writeValueAsString(item.getValue()));
+            }
+            return chunk;
+        }, Buffer.buffer("}"));
+    }
+
+    /**
+     * Write the items to a chunked response in batches, as they are read from the store,
+     * then end the response with the trailer.
+     */
+    private void writeItemBatches(HttpServerResponse response, Store store, Iterator<String> keys, BatchEncoder encoder, Buffer trailer) {
+        try {
+            while (keys.hasNext()) {
+                response.write(encoder.encode(store.loadByKeys(nextBatch(keys))));
+
+                if (response.writeQueueFull()) {
+                    response.drainHandler(v -> {
+                        response.drainHandler(null);
+                        continueStreaming(response, store, keys, encoder, trailer);
+                    });
+                    return;
+                }
+            }
+            response.end(trailer);
+
+        } catch (Exception e) {
+            // the status has already been sent, so the only option is to abort the response
+            LOGGER.error("Error streaming items from store: " + store.getStoreName(), e);
+            response.close();
+        }
+    }
+
+    private void continueStreaming(HttpServerResponse response, Store store, Iterator<String> keys, BatchEncoder encoder, Buffer trailer) {
+        if (storeFactory.isBlocking()) {
+            vertx.executeBlocking(future -> {
+                writeItemBatches(response, store, keys, encoder, trailer);
+                future.complete();
+            }, false, result -> {
+                // errors are handled by writeItemBatches
+            });
+        } else {
+            writeItemBatches(response, store, keys, encoder, trailer);
+        }
+    }
+
+    /**
+     * Streams a binary snapshot of the store.
+     */
+    private Handler<RoutingContext> handleDownloadSnapshot(ImposterConfig imposterConfig, List<PluginConfig> allPluginConfigs) {
+        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, handleStoreOperation(imposterConfig, routingContext -> {
+            final String storeName = routingContext.pathParam("storeName");
+            final Store store = openStore(routingContext, storeName);
+            if (isNull(store)) {
+                return;
+            }
+
+            LOGGER.debug("Streaming snapshot of store: {}", storeName);
+            final HttpServerResponse response = routingContext.response()
+                    .setChunked(true)
+                    .putHeader(HttpUtil.CONTENT_TYPE, CONTENT_TYPE_SNAPSHOT);
+
+            response.write(Buffer.buffer(StoreSnapshot.header()));
+            writeItemBatches(response, store, store.iterateKeys(null),
+                    items -> Buffer.buffer(StoreSnapshot.encode(items)), Buffer.buffer(StoreSnapshot.trailer()));
+        }));
+    }
+
+    /**
+     * Writes a binary snapshot of the store to its snapshot file, from which it
+     * is restored on start.
+     */
+    private Handler<RoutingContext> handleSaveSnapshot(ImposterConfig imposterConfig, List<PluginConfig> allPluginConfigs) {
         return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, routingContext -> {
             final String storeName = routingContext.pathParam("storeName");
+            final Store store = openStore(routingContext, storeName);
+            if (isNull(store)) {
+                return;
+            }
+            final Path snapshotPath = snapshotPaths.get(storeName);
+            if (isNull(snapshotPath)) {
+                routingContext.response()
+                        .setStatusCode(HttpUtil.HTTP_BAD_REQUEST)
+                        .putHeader(HttpUtil.CONTENT_TYPE, HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
+                        .end(String.format("No snapshot file configured for store '%s'.", storeName));
+                return;
+            }
+
+            // writing the file blocks, regardless of the store implementation
+            vertx.<Long>executeBlocking(future -> {
+                try {
+                    future.complete(writeSnapshot(store, snapshotPath));
+                } catch (Exception e) {
+                    future.fail(e);
+                }
+            }, false, result -> {
+                if (result.succeeded()) {
+                    LOGGER.debug("Saved snapshot of {} items from store: {} to {}", result.result(), storeName, snapshotPath);
+                    routingContext.response()
+                            .setStatusCode(HttpUtil.HTTP_NO_CONTENT)
+                            .end();
+                } else {
+                    routingContext.fail(result.cause());
+                }
+            });
+        });
+    }
+
+    /**
+     * Write the snapshot to a temporary file, then replace the snapshot file, so an
+     * incomplete snapshot is never restored.
+     */
+    private static long writeSnapshot(Store store, Path snapshotPath) throws IOException {
+        final Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        final long itemCount;
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(tempPath))) {
+            itemCount = StoreSnapshot.write(store, STREAM_BATCH_SIZE, output);
+        }
+        Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return itemCount;
+    }
+
+    private Handler<RoutingContext> handleDeleteStore(ImposterConfig imposterConfig, List<PluginConfig> allPluginConfigs) {
+        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, handleStoreOperation(imposterConfig, routingContext -> {
+            final String storeName = routingContext.pathParam("storeName");
 
             storeFactory.deleteStoreByName(storeName);
             LOGGER.debug("Deleted store: {}", storeName);
@@ -264,11 +621,11 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
             routingContext.response()
                     .setStatusCode(HttpUtil.HTTP_NO_CONTENT)
                     .end();
-        });
+        }));
     }
 
     private Handler<RoutingContext> handleLoadSingle(ImposterConfig imposterConfig, List<PluginConfig> allPluginConfigs) {
-        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, routingContext -> {
+        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, handleStoreOperation(imposterConfig, routingContext -> {
             final String storeName = routingContext.pathParam("storeName");
             final Store store = openStore(routingContext, storeName);
             if (isNull(store)) {
@@ -278,26 +635,19 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
             final String key = routingContext.pathParam("key");
             final Object value = store.load(key);
             if (nonNull(value)) {
-                if (value instanceof String) {
-                    LOGGER.debug("Returning string item: {} from store: {}", key, storeName);
-                    routingContext.response()
-                            .putHeader(HttpUtil.CONTENT_TYPE, HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
-                            .end((String) value);
-                } else {
-                    LOGGER.debug("Returning object item: {} from store: {}", key, storeName);
-                    serialiseBodyAsJson(routingContext, value);
-                }
+                LOGGER.debug("Returning item: {} from store: {}", key, storeName);
+                writeItemValue(routingContext, value);
             } else {
                 LOGGER.debug("Nonexistent item: {} in store: {}", key, storeName);
                 routingContext.response()
                         .setStatusCode(HttpUtil.HTTP_NOT_FOUND)
                         .end();
             }
-        });
+        }));
     }
 
     private Handler<RoutingContext> handleSaveSingle(ImposterConfig imposterConfig, List<PluginConfig> allPluginConfigs) {
-        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, routingContext -> {
+        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, handleStoreOperation(imposterConfig, routingContext -> {
             final String storeName = routingContext.pathParam("storeName");
             final Store store = openStore(routingContext, storeName, true);
             if (isNull(store)) {
@@ -305,6 +655,17 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
             }
 
             final String key = routingContext.pathParam("key");
+            final String value = routingContext.getBodyAsString();
+
+            if ("*".equals(routingContext.request().getHeader(HEADER_IF_NONE_MATCH))) {
+                saveIfAbsent(routingContext, store, key, value);
+                return;
+            }
+            final String expected = routingContext.request().getParam("expected");
+            if (nonNull(expected)) {
+                compareAndSet(routingContext, store, key, expected, value);
+                return;
+            }
 
             // "If the target resource does not have a current representation and the
             // PUT successfully creates one, then the origin server MUST inform the
@@ -312,18 +673,17 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
             // See: https://datatracker.ietf.org/doc/html/rfc7231#section-4.3.4
             final int statusCode = store.hasItemWithKey(key) ? HttpUtil.HTTP_OK : HttpUtil.HTTP_CREATED;
 
-            final String value = routingContext.getBodyAsString();
             store.save(key, value);
 
             LOGGER.debug("Saved item: {} to store: {}", key, storeName);
             routingContext.response()
                     .setStatusCode(statusCode)
                     .end();
-        });
+        }));
     }
 
     private Handler<RoutingContext> handleSaveMultiple(ImposterConfig imposterConfig, List<PluginConfig> allPluginConfigs) {
-        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, routingContext -> {
+        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, handleStoreOperation(imposterConfig, routingContext -> {
             final String storeName = routingContext.pathParam("storeName");
             final Store store = openStore(routingContext, storeName, true);
             if (isNull(store)) {
@@ -333,17 +693,17 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
             final Map<String, Object> items = routingContext.getBodyAsJson().stream()
                     .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
-            items.forEach(store::save);
+            store.saveAll(items);
             LOGGER.debug("Saved {} items to store: {}", items.size(), storeName);
 
             routingContext.response()
                     .setStatusCode(HttpUtil.HTTP_OK)
                     .end();
-        });
+        }));
     }
 
     private Handler<RoutingContext> handleDeleteSingle(ImposterConfig imposterConfig, List<PluginConfig> allPluginConfigs) {
-        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, routingContext -> {
+        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, handleStoreOperation(imposterConfig, routingContext -> {
             final String storeName = routingContext.pathParam("storeName");
             final Store store = openStore(routingContext, storeName, true);
             if (isNull(store)) {
@@ -351,13 +711,125 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
             }
 
             final String key = routingContext.pathParam("key");
+            if (Boolean.parseBoolean(routingContext.request().getParam("return"))) {
+                final Object value = store.getAndDelete(key);
+                LOGGER.debug("Deleted item: {} from store: {}", key, storeName);
+                if (nonNull(value)) {
+                    writeItemValue(routingContext, value);
+                } else {
+                    routingContext.response()
+                            .setStatusCode(HttpUtil.HTTP_NOT_FOUND)
+                            .end();
+                }
+                return;
+            }
+
             store.delete(key);
 
             LOGGER.debug("Deleted item: {} from store: {}", key, storeName);
             routingContext.response()
                     .setStatusCode(HttpUtil.HTTP_NO_CONTENT)
                     .end();
-        });
+        }));
+    }
+
+    private Handler<RoutingContext> handleIncrement(ImposterConfig imposterConfig, List<PluginConfig> allPluginConfigs) {
+        return resourceService.handleRoute(imposterConfig, allPluginConfigs, vertx, handleStoreOperation(imposterConfig, routingContext -> {
+            final String storeName = routingContext.pathParam("storeName");
+            final Store store = openStore(routingContext, storeName, true);
+            if (isNull(store)) {
+                return;
+            }
+
+            final String key = routingContext.pathParam("key");
+            final String body = routingContext.getBodyAsString();
+            final long delta;
+            try {
+                delta = Strings.isNullOrEmpty(body) ? 1 : Long.parseLong(body.trim());
+            } catch (NumberFormatException e) {
+                routingContext.response()
+                        .setStatusCode(HttpUtil.HTTP_BAD_REQUEST)
+                        .putHeader(HttpUtil.CONTENT_TYPE, HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
+                        .end("The increment must be an integer");
+                return;
+            }
+
+            final long value;
+            try {
+                value = store.increment(key, delta);
+            } catch (IllegalStateException e) {
+                routingContext.response()
+                        .setStatusCode(HttpUtil.HTTP_CONFLICT)
+                        .putHeader(HttpUtil.CONTENT_TYPE, HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
+                        .end(e.getMessage());
+                return;
+            }
+
+            LOGGER.debug("Incremented item: {} in store: {} by {} to {}", key, storeName, delta, value);
+            routingContext.response()
+                    .putHeader(HttpUtil.CONTENT_TYPE, HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
+                    .end(String.valueOf(value));
+        }));
+    }
+
+    private void saveIfAbsent(RoutingContext routingContext, Store store, String key, String value) {
+        if (isNull(store.putIfAbsent(key, value))) {
+            LOGGER.debug("Saved absent item: {} to store: {}", key, store.getStoreName());
+            routingContext.response()
+                    .setStatusCode(HttpUtil.HTTP_CREATED)
+                    .end();
+        } else {
+            LOGGER.debug("Item: {} already exists in store: {}", key, store.getStoreName());
+            routingContext.response()
+                    .setStatusCode(HttpUtil.HTTP_PRECON_FAILED)
+                    .end();
+        }
+    }
+
+    /**
+     * Values saved through the API are strings, but items might have been saved with other
+     * types, such as by scripts, so the expected value is compared with the string form of
+     * the current value. The current value is then used for the comparison in the store.
+     */
+    private void compareAndSet(RoutingContext routingContext, Store store, String key, String expected, String value) {
+        final Object current = store.load(key);
+        if (nonNull(current) && expected.equals(current.toString()) && store.compareAndSet(key, current, value)) {
+            LOGGER.debug("Replaced item: {} in store: {}", key, store.getStoreName());
+            routingContext.response()
+                    .setStatusCode(HttpUtil.HTTP_OK)
+                    .end();
+        } else {
+            LOGGER.debug("Item: {} in store: {} did not have the expected value", key, store.getStoreName());
+            routingContext.response()
+                    .setStatusCode(HttpUtil.HTTP_CONFLICT)
+                    .end();
+        }
+    }
+
+    private void writeItemValue(RoutingContext routingContext, Object value) {
+        if (value instanceof String) {
+            routingContext.response()
+                    .putHeader(HttpUtil.CONTENT_TYPE, HttpUtil.CONTENT_TYPE_PLAIN_TEXT)
+                    .end((String) value);
+        } else {
+            serialiseBodyAsJson(routingContext, value);
+        }
+    }
+
+    /**
+     * Store operations might block, in which case they must not be performed on the event loop.
+     *
+     * @param imposterConfig         the Imposter configuration
+     * @param routingContextConsumer the consumer performing the store operation
+     * @return a consumer that performs the store operation on a worker thread, if required
+     */
+    private Consumer<RoutingContext> handleStoreOperation(ImposterConfig imposterConfig, Consumer<RoutingContext> routingContextConsumer) {
+        if (!RequestHandlingMode.HYBRID.equals(imposterConfig.getRequestHandlingMode()) || !storeFactory.isBlocking()) {
+            return routingContextConsumer;
+        }
+        return routingContext -> resourceService.executeOnWorker(vertx, routingContext, () ->
+                routingContextConsumer.accept(routingContext)
+        );
     }
 
     private Store openStore(RoutingContext routingContext, String storeName) {
@@ -392,33 +864,69 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
         }
     }
 
+    /**
+     * Capturing items into, or templating with items from, a blocking store might block,
+     * unless the store operations can be performed asynchronously.
+     */
     @Override
-    public void beforeBuildingResponse(RoutingContext routingContext, ResponseConfigHolder resourceConfig) {
+    public boolean isBlockingRequired(PluginConfig pluginConfig, ResponseConfigHolder resourceConfig) {
+        if (!storeFactory.isBlocking() || storeFactory.isAsyncSupported()) {
+            return false;
+        }
+        if (nonNull(resourceConfig.getResponseConfig()) && resourceConfig.getResponseConfig().isTemplate()) {
+            return true;
+        }
         if (resourceConfig instanceof CaptureConfigHolder) {
             final Map<String, ItemCaptureConfig> captureConfig = ((CaptureConfigHolder) resourceConfig).getCaptureConfig();
             if (nonNull(captureConfig)) {
-                final AtomicReference<DocumentContext> jsonPathContextHolder = new AtomicReference<>();
+                return captureConfig.values().stream().anyMatch(itemConfig ->
+                        !StoreUtil.isRequestScopedStore(ofNullable(itemConfig.getStore()).orElse(DEFAULT_CAPTURE_STORE_NAME))
+                );
+            }
+        }
+        return false;
+    }
 
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Future<Void> beforeBuildingResponse(RoutingContext routingContext, ResponseConfigHolder resourceConfig) {
+        if (resourceConfig instanceof CaptureConfigHolder) {
+            final Map<String, ItemCaptureConfig> captureConfig = ((CaptureConfigHolder) resourceConfig).getCaptureConfig();
+            if (nonNull(captureConfig)) {
+                // group items by store, so each store receives a single write
+                final Map<String, Map<String, Object>> itemsByStore = new HashMap<>();
                 captureConfig.forEach((captureConfigKey, itemConfig) -> {
                     final String storeName = ofNullable(itemConfig.getStore()).orElse(DEFAULT_CAPTURE_STORE_NAME);
-                    final String itemName = determineItemName(routingContext, jsonPathContextHolder, captureConfigKey, itemConfig, storeName);
-                    final Object itemValue = captureItemValue(routingContext, jsonPathContextHolder, captureConfigKey, itemConfig);
+                    final String itemName = determineItemName(routingContext, captureConfigKey, itemConfig, storeName);
+                    final Object itemValue = captureItemValue(routingContext, captureConfigKey, itemConfig);
+
+                    itemsByStore.computeIfAbsent(storeName, s -> new LinkedHashMap<>()).put(itemName, itemValue);
+                });
 
+                final List<Future> saved = new ArrayList<>(itemsByStore.size());
+                itemsByStore.forEach((storeName, items) -> {
                     final Store store = openCaptureStore(routingContext, storeName);
-                    store.save(itemName, itemValue);
+                    if (items.size() == 1) {
+                        final Map.Entry<String, Object> item = items.entrySet().iterator().next();
+                        saved.add(store.saveAsync(item.getKey(), item.getValue()));
+                    } else {
+                        saved.add(store.saveAllAsync(items));
+                    }
                 });
+                return CompositeFuture.all(saved).mapEmpty();
             }
         }
+        return Future.succeededFuture();
     }
 
-    private String determineItemName(RoutingContext routingContext, AtomicReference<DocumentContext> jsonPathContextHolder, String captureConfigKey, ItemCaptureConfig itemConfig, String storeName) {
+    private String determineItemName(RoutingContext routingContext, String captureConfigKey, ItemCaptureConfig itemConfig, String storeName) {
         final String itemName;
         if (isNull(itemConfig.getKey())) {
             itemName = captureConfigKey;
             LOGGER.debug("Capturing item: {} into store: {}", captureConfigKey, storeName);
         } else {
             try {
-                itemName = captureValue(routingContext, itemConfig.getKey(), jsonPathContextHolder);
+                itemName = captureValue(routingContext, itemConfig.getKey());
                 LOGGER.debug("Capturing item: {} into store: {} with dynamic name: {}", captureConfigKey, storeName, itemName);
             } catch (Exception e) {
                 throw new RuntimeException(String.format("Error capturing item name: %s", captureConfigKey), e);
@@ -427,13 +935,13 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
         return itemName;
     }
 
-    private Object captureItemValue(RoutingContext routingContext, AtomicReference<DocumentContext> jsonPathContextHolder, String captureConfigKey, ItemCaptureConfig itemConfig) {
+    private Object captureItemValue(RoutingContext routingContext, String captureConfigKey, ItemCaptureConfig itemConfig) {
         final Object itemValue;
         if (!Strings.isNullOrEmpty(itemConfig.getConstValue())) {
             itemValue = itemConfig.getConstValue();
         } else {
             try {
-                itemValue = captureValue(routingContext, itemConfig, jsonPathContextHolder);
+                itemValue = captureValue(routingContext, itemConfig);
             } catch (Exception e) {
                 throw new RuntimeException(String.format("Error capturing item value: %s", captureConfigKey), e);
             }
@@ -442,19 +950,40 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
     }
 
     private Store openCaptureStore(RoutingContext routingContext, String storeName) {
-        final Store store;
         if (StoreUtil.isRequestScopedStore(storeName)) {
-            final String uniqueRequestId = routingContext.get(ResourceUtil.RC_REQUEST_ID_KEY);
-            storeName = StoreUtil.buildRequestStoreName(uniqueRequestId);
-            store = storeFactory.getStoreByName(storeName, true);
-        } else {
-            store = storeFactory.getStoreByName(storeName, false);
+            return openRequestStore(routingContext, true);
+        }
+        return storeFactory.getStoreByName(storeName, false);
+    }
+
+    /**
+     * Request scoped stores are attached to the routing context, rather than being
+     * registered with the store factory, and are drawn from a pool.
+     *
+     * @param routingContext the routing context of the current request
+     * @param create         whether to attach a store to the routing context if none exists
+     * @return the request scoped store, or {@code null} if none exists and {@code create} is {@code false}
+     */
+    private Store openRequestStore(RoutingContext routingContext, boolean create) {
+        final InMemoryStore existing = routingContext.get(StoreUtil.RC_REQUEST_STORE_KEY);
+        if (nonNull(existing) || !create) {
+            return existing;
         }
+
+        final InMemoryStore store = requestStorePool.acquire();
+        routingContext.put(StoreUtil.RC_REQUEST_STORE_KEY, store);
+
+        // the response may be sent after the routing context handler has returned, such as
+        // when performance simulation is configured, so the store is released once it has been sent
+        routingContext.addBodyEndHandler(ignored -> {
+            routingContext.remove(StoreUtil.RC_REQUEST_STORE_KEY);
+            requestStorePool.release(store);
+        });
         return store;
     }
 
     @SuppressWarnings("unchecked")
-    private <T> T captureValue(RoutingContext routingContext, CaptureConfig itemConfig, AtomicReference<DocumentContext> jsonPathContextHolder) {
+    private <T> T captureValue(RoutingContext routingContext, CaptureConfig itemConfig) {
         if (!Strings.isNullOrEmpty(itemConfig.getPathParam())) {
             return (T) routingContext.pathParam(itemConfig.getPathParam());
         } else if (!Strings.isNullOrEmpty(itemConfig.getQueryParam())) {
@@ -462,12 +991,7 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
         } else if (!Strings.isNullOrEmpty(itemConfig.getRequestHeader())) {
             return (T) routingContext.request().getHeader(itemConfig.getRequestHeader());
         } else if (!Strings.isNullOrEmpty(itemConfig.getJsonPath())) {
-            DocumentContext jsonPathContext = jsonPathContextHolder.get();
-            if (isNull(jsonPathContext)) {
-                jsonPathContext = JSONPATH_PARSE_CONTEXT.parse(routingContext.getBodyAsString());
-                jsonPathContextHolder.set(jsonPathContext);
-            }
-            return jsonPathContext.read(itemConfig.getJsonPath());
+            return (T) ParsedRequestBody.forRequest(routingContext).readJsonPath(itemConfig.getJsonPath());
         } else {
             return null;
         }
@@ -475,24 +999,14 @@ public class StoreServiceImpl implements StoreService, ImposterLifecycleListener
 
     @Override
     public void beforeBuildingRuntimeContext(RoutingContext routingContext, Map<String, Object> additionalBindings, ExecutionContext executionContext) {
-        final String requestId = routingContext.get(ResourceUtil.RC_REQUEST_ID_KEY);
-        additionalBindings.put("stores", new StoreHolder(storeFactory, requestId));
+        additionalBindings.put("stores", new StoreHolder(storeFactory, () -> openRequestStore(routingContext, true)));
     }
 
-    @Override
-    public String beforeTransmittingTemplate(RoutingContext routingContext, String responseTemplate) {
-        // shim for request scoped store
-        final String uniqueRequestId = routingContext.get(ResourceUtil.RC_REQUEST_ID_KEY);
-        responseTemplate = responseTemplate.replaceAll("\\$\\{request\\.", "\\${request_" + uniqueRequestId + ".");
-
-        return storeItemSubstituter.replace(responseTemplate);
-    }
-
-    @Override
-    public void afterRoutingContextHandled(RoutingContext routingContext) {
-        // clean up request store if one exists
-        ofNullable((String) routingContext.get(ResourceUtil.RC_REQUEST_ID_KEY)).ifPresent(uniqueRequestId ->
-                storeFactory.deleteStoreByName(StoreUtil.buildRequestStoreName(uniqueRequestId))
-        );
+    /**
+     * Encodes a batch of items as a chunk of a streamed response.
+     */
+    @FunctionalInterface
+    private interface BatchEncoder {
+        Buffer encode(Map<String, Object> items) throws IOException;
     }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.gatehill.imposter.store.model.Store;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes and reads binary snapshots of the items in a store.
+ * <p>
+ * A snapshot starts with a header, containing a magic number and the format version.
+ * Each item follows, as a length-prefixed UTF-8 key and a length-prefixed CBOR-encoded
+ * value. A key length of {@code -1} marks the end of the items.
+ * <p>
+ * Values are encoded with Jackson, so values that are not strings, numbers, booleans,
+ * lists or maps are restored as maps of their properties.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+final class StoreSnapshot {
+    private static final byte[] MAGIC = {'I', 'M', 'P', 'S'};
+    private static final int VERSION = 1;
+    private static final int END_OF_ITEMS = -1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(new CBORFactory());
+
+    private StoreSnapshot() {
+    }
+
+    /**
+     * @return the snapshot header
+     */
+    static byte[] header() {
+        return ByteBuffer.allocate(MAGIC.length + 4).put(MAGIC).putInt(VERSION).array();
+    }
+
+    /**
+     * @param items the items to encode
+     * @return the encoded items
+     * @throws IOException if a value cannot be encoded
+     */
+    static byte[] encode(Map<String, Object> items) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        for (Map.Entry<String, Object> item : items.entrySet()) {
+            final byte[] key = item.getKey().getBytes(UTF_8);
+            out.writeInt(key.length);
+            out.write(key);
+
+            final byte[] value = CBOR_MAPPER.writeValueAsBytes(item.getValue());
+            out.writeInt(value.length);
+            out.write(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the marker following the last item
+     */
+    static byte[] trailer() {
+        return ByteBuffer.allocate(4).putInt(END_OF_ITEMS).array();
+    }
+
+    /**
+     * Write a snapshot of all the items in the store.
+     *
+     * @param store     the store
+     * @param batchSize the maximum number of items loaded from the store at once
+     * @param output    the stream to which the snapshot is written
+     * @return the number of items written
+     * @throws IOException if the snapshot cannot be written
+     */
+    static long write(Store store, int batchSize, OutputStream output) throws IOException {
+        output.write(header());
+
+        long itemCount = 0;
+        final Iterator<String> keys = store.iterateKeys(null);
+        while (keys.hasNext()) {
+            final List<String> batch = new ArrayList<>(batchSize);
+            while (keys.hasNext() && batch.size() < batchSize) {
+                batch.add(keys.next());
+            }
+            final Map<String, Object> items = store.loadByKeys(batch);
+            output.write(encode(items));
+            itemCount += items.size();
+        }
+
+        output.write(trailer());
+        output.flush();
+        return itemCount;
+    }
+
+    /**
+     * Read the items in a snapshot file, passing them to the consumer in batches.
+     *
+     * @param file          the snapshot file
+     * @param batchSize     the maximum number of items passed to the consumer at once
+     * @param batchConsumer receives each batch of items
+     * @return the total number of items read
+     * @throws IOException if the file cannot be read, or is not a complete snapshot
+     */
+    static long read(File file, int batchSize, Consumer<Map<String, Object>> batchConsumer) throws IOException {
+        try (InputStream input = new FileInputStream(file)) {
+            return read(input, batchSize, batchConsumer);
+        }
+    }
+
+    static long read(InputStream input, int batchSize, Consumer<Map<String, Object>> batchConsumer) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(input, BUFFER_SIZE));
+
+        final byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(MAGIC, magic)) {
+            throw new IOException("Not a store snapshot");
+        }
+        final int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported store snapshot version: " + version);
+        }
+
+        long itemCount = 0;
+        Map<String, Object> batch = new LinkedHashMap<>();
+        try {
+            int keyLength;
+            while ((keyLength = in.readInt()) != END_OF_ITEMS) {
+                final byte[] key = new byte[keyLength];
+                in.readFully(key);
+                final byte[] value = new byte[in.readInt()];
+                in.readFully(value);
+
+                batch.put(new String(key, UTF_8), CBOR_MAPPER.readValue(value, Object.class));
+                if (batch.size() >= batchSize) {
+                    batchConsumer.accept(batch);
+                    itemCount += batch.size();
+                    batch = new LinkedHashMap<>();
+                }
+            }
+        } catch (EOFException e) {
+            throw new IOException("Store snapshot is incomplete", e);
+        }
+
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+            itemCount += batch.size();
+        }
+        return itemCount;
+    }
+}
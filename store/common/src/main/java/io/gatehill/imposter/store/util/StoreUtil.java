@@ -43,12 +43,27 @@
 
 package io.gatehill.imposter.store.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+
 /**
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
 public final class StoreUtil {
     public static final String REQUEST_SCOPED_STORE_NAME = "request";
 
+    /**
+     * The routing context key for the request scoped store of the current request.
+     */
+    public static final String RC_REQUEST_STORE_KEY = "stores.request";
+
     private StoreUtil() {
     }
 
@@ -56,7 +71,63 @@ public final class StoreUtil {
         return REQUEST_SCOPED_STORE_NAME.equals(storeName);
     }
 
-    public static String buildRequestStoreName(String requestId) {
-        return "request_" + requestId;
+    /**
+     * Convert the value of an item to a number, for arithmetic operations.
+     *
+     * @param key   the item key
+     * @param value the item value, or {@code null} if there is no item, which is treated as zero
+     * @return the numeric value
+     * @throws IllegalStateException if the value is not an integer
+     */
+    public static long toLong(String key, Object value) {
+        if (isNull(value)) {
+            return 0;
+        } else if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value instanceof CharSequence) {
+            try {
+                return Long.parseLong(value.toString().trim());
+            } catch (NumberFormatException ignored) {
+                // fall through
+            }
+        }
+        throw new IllegalStateException("Value of item with key: " + key + " is not an integer");
+    }
+
+    /**
+     * Select a page of keys, in key order, that follow the cursor. Only the keys in the
+     * page are retained while iterating, so the memory required is proportional to
+     * the page size, not the number of keys.
+     *
+     * @param keys   the keys to select from, in any order
+     * @param cursor if not {@code null}, only keys after this key are selected
+     * @param limit  the maximum number of keys to select
+     * @return the selected keys in order, with one more key than the limit if further keys follow the page
+     */
+    public static List<String> selectPage(Iterator<String> keys, String cursor, int limit) {
+        // retain the smallest limit + 1 keys, with the largest at the head for eviction
+        final int retained = limit + 1;
+        final PriorityQueue<String> page = new PriorityQueue<>(Math.min(retained, 1024), Collections.reverseOrder());
+
+        // some stores may return a key more than once during iteration
+        final Set<String> members = new HashSet<>();
+
+        while (keys.hasNext()) {
+            final String key = keys.next();
+            if ((isNull(cursor) || key.compareTo(cursor) > 0) && !members.contains(key)) {
+                if (page.size() < retained) {
+                    page.add(key);
+                    members.add(key);
+                } else if (key.compareTo(page.peek()) < 0) {
+                    members.remove(page.poll());
+                    page.add(key);
+                    members.add(key);
+                }
+            }
+        }
+
+        final List<String> selected = new ArrayList<>(page);
+        Collections.sort(selected);
+        return selected;
     }
 }
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.inmem;
+
+import io.gatehill.imposter.plugin.config.system.StoreConfig;
+import io.gatehill.imposter.store.model.Store;
+import io.gatehill.imposter.util.MapUtil;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link BoundedInMemoryStore}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class BoundedInMemoryStoreTest {
+    @Test
+    public void testFactoryBuildsBoundedStoreWhenConfigured() {
+        final InMemoryStoreFactoryImpl factory = new InMemoryStoreFactoryImpl();
+        factory.configureStore("bounded", buildConfig("maxItems", 10));
+
+        assertTrue(factory.buildNewStore("bounded") instanceof BoundedInMemoryStore);
+        assertTrue(factory.buildNewStore("unbounded") instanceof InMemoryStore);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsedItem() {
+        final Store store = new BoundedInMemoryStore("lru", buildConfig("maxItems", 2));
+        store.save("foo", "a");
+        store.save("bar", "b");
+
+        // make 'bar' the least recently used
+        store.load("foo");
+        store.save("baz", "c");
+
+        assertEquals(2, store.count());
+        assertTrue(store.hasItemWithKey("foo"));
+        assertFalse(store.hasItemWithKey("bar"));
+        assertTrue(store.hasItemWithKey("baz"));
+        assertEquals(1, ((BoundedInMemoryStore) store).getEvictions());
+    }
+
+    @Test
+    public void testEvictToStayWithinMaxBytes() {
+        final long itemBytes = 64 + BoundedInMemoryStore.estimateBytes("key0") + BoundedInMemoryStore.estimateBytes("value0");
+        final BoundedInMemoryStore store = new BoundedInMemoryStore("bytes", buildConfig("maxBytes", itemBytes * 3));
+
+        for (int i = 0; i < 5; i++) {
+            store.save("key" + i, "value" + i);
+        }
+        assertEquals(3, store.count());
+        assertEquals(itemBytes * 3, store.getTotalBytes());
+        assertNull(store.load("key0"));
+        assertEquals("value4", store.load("key4"));
+
+        store.delete("key4");
+        assertEquals(itemBytes * 2, store.getTotalBytes());
+    }
+
+    @Test
+    public void testSaveAllEvictsOldestItems() {
+        final BoundedInMemoryStore store = new BoundedInMemoryStore("saveall", buildConfig("maxItems", 3));
+        store.save("existing", "a");
+
+        final Map<String, Object> items = new LinkedHashMap<>();
+        for (int i = 0; i < 4; i++) {
+            items.put("key" + i, "value" + i);
+        }
+        store.saveAll(items);
+
+        assertEquals(3, store.count());
+        assertFalse(store.hasItemWithKey("existing"));
+        assertFalse(store.hasItemWithKey("key0"));
+        assertEquals("value3", store.load("key3"));
+        assertEquals(2, store.getEvictions());
+    }
+
+    @Test
+    public void testAtomicOperationsRespectBounds() {
+        final BoundedInMemoryStore store = new BoundedInMemoryStore("atomic", buildConfig("maxItems", 2));
+        assertEquals(1, store.increment("counter", 1));
+        assertNull(store.putIfAbsent("foo", "a"));
+        assertEquals("a", store.putIfAbsent("foo", "b"));
+
+        // adding a third item evicts the least recently used
+        assertTrue(store.compareAndSet("bar", null, "c"));
+        assertEquals(2, store.count());
+        assertFalse(store.hasItemWithKey("counter"));
+
+        assertEquals("c", store.getAndDelete("bar"));
+        assertEquals(1, store.count());
+    }
+
+    @Test
+    public void testItemsExpire() throws Exception {
+        final BoundedInMemoryStore store = new BoundedInMemoryStore("expiry", buildConfig("expiry", 1));
+        store.save("foo", "bar");
+        assertEquals("bar", store.load("foo"));
+
+        // expired items are not returned, even before they are removed
+        Thread.sleep(1100);
+        assertNull(store.load("foo"));
+        assertTrue(store.loadAll().isEmpty());
+
+        // the timer wheel removes expired items
+        for (int i = 0; i < 30 && store.count() > 0; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, store.count());
+        assertEquals(1, store.getExpirations());
+    }
+
+    @Test
+    public void testReplacedItemDoesNotExpireEarly() throws Exception {
+        final BoundedInMemoryStore store = new BoundedInMemoryStore("replace", buildConfig("expiry", 2));
+        store.save("foo", "first");
+        Thread.sleep(1000);
+        store.save("foo", "second");
+
+        // the first save's expiry has passed, but the item was replaced
+        Thread.sleep(1500);
+        assertEquals("second", store.load("foo"));
+    }
+
+    @Test
+    public void testOneExpiryPendingPerKey() throws Exception {
+        final BoundedInMemoryStore store = new BoundedInMemoryStore("pending", buildConfig("expiry", 1));
+
+        // repeated writes to a key extend its pending expiry, rather than adding more
+        for (int i = 0; i < 100; i++) {
+            store.save("foo", "bar" + i);
+            store.increment("counter", 1);
+        }
+        store.compareAndSet("foo", "bar99", "baz");
+        store.putIfAbsent("qux", "corge");
+        assertEquals(3, store.getPendingExpiries());
+
+        // deleting an item cancels its pending expiry
+        store.delete("qux");
+        assertEquals(2, store.getPendingExpiries());
+
+        // the timer wheel completes pending expiries
+        for (int i = 0; i < 40 && store.getPendingExpiries() > 0; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, store.getPendingExpiries());
+        assertEquals(0, store.count());
+        assertEquals(2, store.getExpirations());
+    }
+
+    @Test
+    public void testEvictionCancelsPendingExpiry() throws Exception {
+        final Map<String, Object> raw = new HashMap<>();
+        raw.put("maxItems", 2);
+        raw.put("expiry", 60);
+        final BoundedInMemoryStore store = new BoundedInMemoryStore("evict-pending", MapUtil.JSON_MAPPER.convertValue(raw, StoreConfig.class));
+
+        for (int i = 0; i < 10; i++) {
+            store.save("key" + i, "value" + i);
+        }
+        assertEquals(2, store.count());
+        assertEquals(8, store.getEvictions());
+        assertEquals(2, store.getPendingExpiries());
+
+        store.getAndDelete("key9");
+        store.compareAndSet("key8", "value8", null);
+        assertEquals(0, store.count());
+        assertEquals(0, store.getPendingExpiries());
+    }
+
+    private static StoreConfig buildConfig(String key, Object value) {
+        final Map<String, Object> raw = new HashMap<>();
+        raw.put(key, value);
+        return MapUtil.JSON_MAPPER.convertValue(raw, StoreConfig.class);
+    }
+}
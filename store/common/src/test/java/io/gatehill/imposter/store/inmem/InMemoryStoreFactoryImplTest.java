@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.inmem;
+
+import io.gatehill.imposter.plugin.config.system.StoreConfig;
+import io.gatehill.imposter.store.model.Store;
+import io.gatehill.imposter.util.MapUtil;
+import io.gatehill.imposter.util.MetricsUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.micrometer.backends.BackendRegistries;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link InMemoryStoreFactoryImpl}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class InMemoryStoreFactoryImplTest {
+    private Vertx vertx;
+
+    @Before
+    public void setUp() {
+        // the metrics registry is initialised by Vert.x
+        vertx = Vertx.vertx(MetricsUtil.configureMetrics(new VertxOptions()));
+    }
+
+    @After
+    public void tearDown() {
+        vertx.close();
+    }
+
+    @Test
+    public void testRecreatedStoreMeters() {
+        final InMemoryStoreFactoryImpl factory = new InMemoryStoreFactoryImpl();
+        factory.configureStore("metered", MapUtil.JSON_MAPPER.convertValue(singletonMap("maxItems", 10), StoreConfig.class));
+
+        final Store store = factory.getStoreByName("metered", false);
+        store.save("foo", "bar");
+        store.save("baz", "qux");
+        assertEquals(2, getItemsGauge().value(), 0);
+
+        // the recreated store must not report the items of the deleted store
+        factory.deleteStoreByName("metered");
+        final Store recreated = factory.getStoreByName("metered", false);
+        recreated.save("foo", "bar");
+        assertEquals(1, getItemsGauge().value(), 0);
+    }
+
+    private static Gauge getItemsGauge() {
+        final MeterRegistry registry = BackendRegistries.getDefaultNow();
+        return registry.get("store.inmem.items").tag("store", "metered").gauge();
+    }
+}
@@ -51,6 +51,7 @@ import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -98,4 +99,50 @@ public class InMemoryStoreTest {
         store.delete("foo");
         assertFalse("Item should not exist", store.hasItemWithKey("foo"));
     }
+
+    @Test
+    public void testIncrement() {
+        final Store store = factory.buildNewStore("inc");
+
+        assertEquals(1, store.increment("counter", 1));
+        assertEquals(6, store.increment("counter", 5));
+        assertEquals(4, store.increment("counter", -2));
+
+        store.save("text", "10");
+        assertEquals(11, store.increment("text", 1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIncrementNonInteger() {
+        final Store store = factory.buildNewStore("incn");
+        store.save("foo", "bar");
+        store.increment("foo", 1);
+    }
+
+    @Test
+    public void testCompareAndSet() {
+        final Store store = factory.buildNewStore("cas");
+
+        assertTrue(store.compareAndSet("foo", null, "first"));
+        assertFalse(store.compareAndSet("foo", null, "second"));
+        assertFalse(store.compareAndSet("foo", "wrong", "second"));
+        assertTrue(store.compareAndSet("foo", "first", "second"));
+        assertEquals("second", store.load("foo"));
+
+        assertTrue(store.compareAndSet("foo", "second", null));
+        assertFalse("Item should not exist", store.hasItemWithKey("foo"));
+    }
+
+    @Test
+    public void testPutIfAbsentAndGetAndDelete() {
+        final Store store = factory.buildNewStore("pia");
+
+        assertNull(store.putIfAbsent("foo", "first"));
+        assertEquals("first", store.putIfAbsent("foo", "second"));
+        assertEquals("first", store.load("foo"));
+
+        assertEquals("first", store.getAndDelete("foo"));
+        assertNull(store.getAndDelete("foo"));
+        assertFalse("Item should not exist", store.hasItemWithKey("foo"));
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.service;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link PreloadFileReader}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class PreloadFileReaderTest {
+    @Test
+    public void testReadObject() throws Exception {
+        final Map<String, Object> items = readAll("{ \"foo\": \"bar\", \"baz\": { \"qux\": [1, 2] } }", 10);
+
+        assertEquals(2, items.size());
+        assertEquals("bar", items.get("foo"));
+        assertEquals("{qux=[1, 2]}", items.get("baz").toString());
+    }
+
+    @Test
+    public void testReadNewlineDelimited() throws Exception {
+        final Map<String, Object> items = readAll("{\"foo\": \"bar\"}\n{\"baz\": 1}\n\n{\"qux\": null}\n", 10);
+
+        assertEquals(3, items.size());
+        assertEquals("bar", items.get("foo"));
+        assertEquals(1, items.get("baz"));
+        assertEquals(null, items.get("qux"));
+    }
+
+    @Test
+    public void testReadArrayOfPairs() throws Exception {
+        final Map<String, Object> items = readAll("[[\"foo\", \"bar\"], [\"baz\", {\"qux\": true}], {\"corge\": 2}]", 10);
+
+        assertEquals(3, items.size());
+        assertEquals("bar", items.get("foo"));
+        assertEquals("{qux=true}", items.get("baz").toString());
+        assertEquals(2, items.get("corge"));
+    }
+
+    @Test
+    public void testReadInBatches() throws Exception {
+        final StringBuilder contents = new StringBuilder("{");
+        for (int i = 0; i < 25; i++) {
+            contents.append(i > 0 ? "," : "").append("\"key").append(i).append("\":").append(i);
+        }
+        contents.append("}");
+
+        final List<Integer> batchSizes = new ArrayList<>();
+        final long total = PreloadFileReader.read(writeFile(contents.toString()), 10, batch -> batchSizes.add(batch.size()));
+
+        assertEquals(25, total);
+        assertEquals("[10, 10, 5]", batchSizes.toString());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectInvalidPair() throws Exception {
+        readAll("[[\"foo\", \"bar\", \"baz\"]]", 10);
+    }
+
+    private static Map<String, Object> readAll(String contents, int batchSize) throws IOException {
+        final Map<String, Object> items = new LinkedHashMap<>();
+        PreloadFileReader.read(writeFile(contents), batchSize, items::putAll);
+        return items;
+    }
+
+    private static File writeFile(String contents) throws IOException {
+        final File file = File.createTempFile("preload", ".json");
+        file.deleteOnExit();
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.service;
+
+import io.gatehill.imposter.store.inmem.InMemoryStore;
+import io.gatehill.imposter.store.model.Store;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link StoreSnapshot}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class StoreSnapshotTest {
+    @Test
+    public void testWriteAndReadSnapshot() throws Exception {
+        final Store store = new InMemoryStore("snapshot");
+        for (int i = 0; i < 25; i++) {
+            store.save("item" + i, "value" + i);
+        }
+        store.save("number", 42);
+        store.save("object", Collections.singletonMap("foo", Arrays.asList("bar", "baz")));
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(27, StoreSnapshot.write(store, 10, output));
+
+        final Store restored = new InMemoryStore("restored");
+        final List<Integer> batchSizes = new ArrayList<>();
+        final long itemCount = StoreSnapshot.read(new ByteArrayInputStream(output.toByteArray()), 10, batch -> {
+            batchSizes.add(batch.size());
+            restored.saveAll(batch);
+        });
+
+        assertEquals(27, itemCount);
+        assertEquals(Arrays.asList(10, 10, 7), batchSizes);
+        assertEquals("value24", restored.load("item24"));
+        assertEquals(42, (int) restored.load("number"));
+        assertEquals(Arrays.asList("bar", "baz"), restored.<Map<String, Object>>load("object").get("foo"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testIncompleteSnapshot() throws Exception {
+        final Store store = new InMemoryStore("incomplete");
+        store.save("foo", "bar");
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StoreSnapshot.write(store, 10, output);
+        final byte[] snapshot = Arrays.copyOf(output.toByteArray(), output.size() - 4);
+
+        StoreSnapshot.read(new ByteArrayInputStream(snapshot), 10, batch -> {
+        });
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotASnapshot() throws Exception {
+        StoreSnapshot.read(new ByteArrayInputStream("{\"foo\":\"bar\"}".getBytes()), 10, batch -> {
+        });
+    }
+}
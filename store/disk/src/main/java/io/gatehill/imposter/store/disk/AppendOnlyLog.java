@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.disk;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * An append-only log of key-value records, with an in-memory index of the position
+ * of the latest record for each key. Only the keys are held in memory; values are
+ * read from the log when they are loaded.
+ * <p>
+ * Each record has a header, containing a CRC32 checksum of the rest of the record,
+ * the key length and the value length, followed by the key and value bytes. Deleting
+ * a key appends a record with a value length of {@code -1}.
+ * <p>
+ * When the log is opened, the index is rebuilt by reading the records in order.
+ * An incomplete or corrupt record at the end of the log, such as one left by a
+ * crash during a write, is truncated.
+ * <p>
+ * Records that have been replaced or deleted are removed by {@link #compact()}.
+ * <p>
+ * Reads may run concurrently with each other, but callers must ensure writes and
+ * compaction do not run concurrently with any other operation.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+class AppendOnlyLog implements Closeable {
+    private static final Logger LOGGER = LogManager.getLogger(AppendOnlyLog.class);
+    private static final int HEADER_SIZE = 12;
+    private static final int TOMBSTONE = -1;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final boolean sync;
+    private final Map<String, Location> index = newConcurrentMap();
+    private FileChannel channel;
+    private long size;
+    private long garbageBytes;
+
+    AppendOnlyLog(Path path, boolean sync) throws IOException {
+        this.path = path;
+        this.sync = sync;
+        this.channel = open(path);
+        readIndex();
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, CREATE, READ, WRITE);
+    }
+
+    private void readIndex() throws IOException {
+        final long fileSize = channel.size();
+        long position = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), SCAN_BUFFER_SIZE))) {
+            while (position + HEADER_SIZE <= fileSize) {
+                final int checksum = in.readInt();
+                final int keyLength = in.readInt();
+                final int valueLength = in.readInt();
+                if (keyLength < 0 || valueLength < TOMBSTONE || position + recordLength(keyLength, valueLength) > fileSize) {
+                    break;
+                }
+
+                final byte[] key = new byte[keyLength];
+                in.readFully(key);
+                final byte[] value = new byte[Math.max(valueLength, 0)];
+                in.readFully(value);
+                if (checksum(keyLength, valueLength, key, value) != checksum) {
+                    break;
+                }
+
+                index(new String(key, UTF_8), new Location(position, keyLength, valueLength));
+                position += recordLength(keyLength, valueLength);
+            }
+        }
+
+        if (position < fileSize) {
+            LOGGER.warn("Truncating {} bytes of incomplete or corrupt records from the end of store log: {}", fileSize - position, path);
+            channel.truncate(position);
+        }
+        size = position;
+        LOGGER.trace("Read {} keys from store log: {}", index.size(), path);
+    }
+
+    /**
+     * @param key the item key
+     * @return the value bytes, or {@code null} if there is no item with the key
+     */
+    byte[] read(String key) throws IOException {
+        final Location location = index.get(key);
+        if (isNull(location)) {
+            return null;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(location.valueLength);
+        long position = location.valuePosition();
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of store log: " + path + " reading key: " + key);
+            }
+            position += read;
+        }
+        return buffer.array();
+    }
+
+    boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    Set<String> keys() {
+        return index.keySet();
+    }
+
+    int count() {
+        return index.size();
+    }
+
+    /**
+     * Append records for the items, in a single write. A {@code null} value deletes the item.
+     *
+     * @param items the item keys and value bytes
+     */
+    void append(Map<String, byte[]> items) throws IOException {
+        final ByteBuffer[] buffers = new ByteBuffer[items.size()];
+        final Map<String, Location> locations = new HashMap<>(items.size() * 4 / 3 + 1);
+
+        long position = size;
+        int i = 0;
+        for (Map.Entry<String, byte[]> item : items.entrySet()) {
+            final byte[] key = item.getKey().getBytes(UTF_8);
+            final byte[] value = item.getValue();
+            final int valueLength = isNull(value) ? TOMBSTONE : value.length;
+
+            final ByteBuffer buffer = ByteBuffer.allocate(recordLength(key.length, valueLength));
+            buffer.putInt(checksum(key.length, valueLength, key, value))
+                    .putInt(key.length)
+                    .putInt(valueLength)
+                    .put(key);
+            if (nonNull(value)) {
+                buffer.put(value);
+            }
+            buffer.flip();
+            buffers[i++] = buffer;
+
+            locations.put(item.getKey(), new Location(position, key.length, valueLength));
+            position += buffer.limit();
+        }
+
+        channel.position(size);
+        while (channel.position() < position) {
+            channel.write(buffers);
+        }
+        if (sync) {
+            channel.force(false);
+        }
+
+        size = position;
+        locations.forEach(this::index);
+    }
+
+    private void index(String key, Location location) {
+        final Location previous = location.isTombstone() ? index.remove(key) : index.put(key, location);
+        if (nonNull(previous)) {
+            garbageBytes += previous.recordLength();
+        }
+        if (location.isTombstone()) {
+            garbageBytes += location.recordLength();
+        }
+    }
+
+    /**
+     * @param minGarbageBytes the minimum size of replaced and deleted records to remove
+     * @return {@code true} if replaced and deleted records exceed the minimum, and take up
+     * more space than the current records
+     */
+    boolean shouldCompact(long minGarbageBytes) {
+        return garbageBytes >= minGarbageBytes && garbageBytes > size - garbageBytes;
+    }
+
+    /**
+     * Rewrite the log, containing only the current record for each key.
+     */
+    void compact() throws IOException {
+        final Path compactPath = path.resolveSibling(path.getFileName() + ".compact");
+        final Map<String, Location> compacted = new HashMap<>(index.size() * 4 / 3 + 1);
+
+        long position = 0;
+        try (FileChannel target = FileChannel.open(compactPath, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                final Location location = entry.getValue();
+                final long recordLength = location.recordLength();
+                for (long copied = 0; copied < recordLength; ) {
+                    copied += channel.transferTo(location.position + copied, recordLength - copied, target);
+                }
+                compacted.put(entry.getKey(), new Location(position, location.keyLength, location.valueLength));
+                position += recordLength;
+            }
+            target.force(true);
+        }
+
+        final long previousSize = size;
+        channel.close();
+        Files.move(compactPath, path, REPLACE_EXISTING, ATOMIC_MOVE);
+        channel = open(path);
+
+        index.clear();
+        index.putAll(compacted);
+        size = position;
+        garbageBytes = 0;
+        LOGGER.debug("Compacted store log: {} from {} to {} bytes", path, previousSize, size);
+    }
+
+    long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static int recordLength(int keyLength, int valueLength) {
+        return HEADER_SIZE + keyLength + Math.max(valueLength, 0);
+    }
+
+    private static int checksum(int keyLength, int valueLength, byte[] key, byte[] value) {
+        final CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(8).putInt(keyLength).putInt(valueLength).array());
+        crc.update(key);
+        if (nonNull(value)) {
+            crc.update(value);
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * The position of a record in the log.
+     */
+    private static class Location {
+        private final long position;
+        private final int keyLength;
+        private final int valueLength;
+
+        Location(long position, int keyLength, int valueLength) {
+            this.position = position;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+        }
+
+        long valuePosition() {
+            return position + HEADER_SIZE + keyLength;
+        }
+
+        int recordLength() {
+            return AppendOnlyLog.recordLength(keyLength, valueLength);
+        }
+
+        boolean isTombstone() {
+            return valueLength == TOMBSTONE;
+        }
+    }
+}
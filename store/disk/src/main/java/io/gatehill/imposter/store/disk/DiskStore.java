@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.disk;
+
+import io.gatehill.imposter.store.model.Store;
+import io.gatehill.imposter.store.util.StoreUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A store persisted to a file on disk, using an {@link AppendOnlyLog}. Only the item
+ * keys are held in memory, so the store can hold more data than fits in the heap, and
+ * is reopened with its previous contents on restart.
+ * <p>
+ * String values are stored as UTF-8; other values must be {@link java.io.Serializable}.
+ * <p>
+ * Reads run concurrently; writes are serialised. The log is compacted when replaced and
+ * deleted items take up more space than the current items, once they exceed the
+ * compaction threshold.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class DiskStore implements Store {
+    private static final String STORE_TYPE = "disk";
+    private static final Logger LOGGER = LogManager.getLogger(DiskStore.class);
+    private static final byte TYPE_STRING = 0;
+    private static final byte TYPE_OBJECT = 1;
+
+    private final String storeName;
+    private final Path logFile;
+    private final long compactionThreshold;
+    private final AppendOnlyLog log;
+    private final Lock readLock;
+    private final Lock writeLock;
+
+    public DiskStore(String storeName, Path logFile, boolean sync, long compactionThreshold) {
+        this.storeName = storeName;
+        this.logFile = logFile;
+        this.compactionThreshold = compactionThreshold;
+
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+
+        final long startMillis = System.currentTimeMillis();
+        try {
+            this.log = new AppendOnlyLog(logFile, sync);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open log file: " + logFile + " for store: " + storeName, e);
+        }
+        LOGGER.debug("Opened disk store: {} with {} items from: {} in {}ms",
+                storeName, log.count(), logFile, System.currentTimeMillis() - startMillis);
+    }
+
+    @Override
+    public String getStoreName() {
+        return storeName;
+    }
+
+    @Override
+    public String getTypeDescription() {
+        return STORE_TYPE;
+    }
+
+    @Override
+    public void save(String key, Object value) {
+        LOGGER.trace("Saving item with key: {} to store: {}", key, storeName);
+        write(Collections.singletonMap(key, serialise(key, value)));
+    }
+
+    @Override
+    public void saveAll(Map<String, Object> items) {
+        LOGGER.trace("Saving {} items to store: {}", items.size(), storeName);
+        final Map<String, byte[]> records = new LinkedHashMap<>(items.size() * 4 / 3 + 1);
+        items.forEach((key, value) -> records.put(key, serialise(key, value)));
+        write(records);
+    }
+
+    @Override
+    public <T> T load(String key) {
+        LOGGER.trace("Loading item with key: {} from store: {}", key, storeName);
+        readLock.lock();
+        try {
+            return deserialise(key, log.read(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load item with key: " + key + " from store: " + storeName, e);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        LOGGER.trace("Deleting item with key: {} from store: {}", key, storeName);
+        writeLock.lock();
+        try {
+            if (log.contains(key)) {
+                write(Collections.singletonMap(key, null));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Object> loadAll() {
+        LOGGER.trace("Loading all items in store: {}", storeName);
+        readLock.lock();
+        try {
+            final Map<String, Object> items = new HashMap<>(log.count() * 4 / 3 + 1);
+            for (String key : log.keys()) {
+                final Object value = load(key);
+                if (nonNull(value)) {
+                    items.put(key, value);
+                }
+            }
+            return items;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<String> iterateKeys(String keyPrefix) {
+        final List<String> keys;
+        readLock.lock();
+        try {
+            keys = new ArrayList<>(log.keys());
+        } finally {
+            readLock.unlock();
+        }
+        if (nonNull(keyPrefix)) {
+            keys.removeIf(key -> !key.startsWith(keyPrefix));
+        }
+        return keys.iterator();
+    }
+
+    @Override
+    public boolean hasItemWithKey(String key) {
+        LOGGER.trace("Checking for item with key: {} in store: {}", key, storeName);
+        readLock.lock();
+        try {
+            return log.contains(key);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int count() {
+        final int count;
+        readLock.lock();
+        try {
+            count = log.count();
+        } finally {
+            readLock.unlock();
+        }
+        LOGGER.trace("Returning item count {} from store: {}", count, storeName);
+        return count;
+    }
+
+    @Override
+    public long increment(String key, long delta) {
+        LOGGER.trace("Incrementing item with key: {} in store: {} by {}", key, storeName, delta);
+        writeLock.lock();
+        try {
+            final long value = StoreUtil.toLong(key, load(key)) + delta;
+            save(key, value);
+            return value;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(String key, Object expectedValue, Object newValue) {
+        LOGGER.trace("Comparing and setting item with key: {} in store: {}", key, storeName);
+        writeLock.lock();
+        try {
+            if (!Objects.equals(load(key), expectedValue)) {
+                return false;
+            }
+            if (isNull(newValue)) {
+                delete(key);
+            } else {
+                save(key, newValue);
+            }
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T putIfAbsent(String key, Object value) {
+        LOGGER.trace("Saving item with key: {} to store: {} if absent", key, storeName);
+        writeLock.lock();
+        try {
+            final T existing = load(key);
+            if (isNull(existing)) {
+                save(key, value);
+            }
+            return existing;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T getAndDelete(String key) {
+        LOGGER.trace("Deleting item with key: {} from store: {}", key, storeName);
+        writeLock.lock();
+        try {
+            final T existing = load(key);
+            if (nonNull(existing)) {
+                delete(key);
+            }
+            return existing;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Close the store, and delete its log file.
+     */
+    public void destroy() {
+        writeLock.lock();
+        try {
+            log.close();
+            Files.deleteIfExists(logFile);
+            LOGGER.trace("Deleted log file: {} for store: {}", logFile, storeName);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to delete log file: " + logFile + " for store: " + storeName, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Close the store. Its items remain on disk.
+     */
+    public void close() {
+        writeLock.lock();
+        try {
+            log.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close log file: " + logFile + " for store: " + storeName, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(Map<String, byte[]> records) {
+        writeLock.lock();
+        try {
+            log.append(records);
+            if (log.shouldCompact(compactionThreshold)) {
+                log.compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write to store: " + storeName, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private byte[] serialise(String key, Object value) {
+        if (value instanceof String) {
+            final byte[] bytes = ((String) value).getBytes(UTF_8);
+            final byte[] serialised = new byte[bytes.length + 1];
+            serialised[0] = TYPE_STRING;
+            System.arraycopy(bytes, 0, serialised, 1, bytes.length);
+            return serialised;
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(TYPE_OBJECT);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException("Value of item with key: " + key + " cannot be saved to store: " +
+                    storeName + " as it is not serialisable", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to serialise item with key: " + key + " for store: " + storeName, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T deserialise(String key, byte[] serialised) {
+        if (isNull(serialised)) {
+            return null;
+        }
+        if (serialised[0] == TYPE_STRING) {
+            return (T) new String(serialised, 1, serialised.length - 1, UTF_8);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialised, 1, serialised.length - 1))) {
+            return (T) in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to deserialise item with key: " + key + " from store: " + storeName, e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Unable to deserialise item with key: " + key + " from store: " + storeName, e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.disk;
+
+import com.google.inject.Inject;
+import io.gatehill.imposter.store.factory.AbstractStoreFactory;
+import io.gatehill.imposter.store.model.Store;
+import io.gatehill.imposter.util.EnvVars;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Builds stores persisted to disk, each in its own log file in the directory set by the
+ * {@link #ENV_VAR_DIR} environment variable.
+ * <p>
+ * Writes are flushed to disk on each write if the {@link #ENV_VAR_SYNC} environment variable
+ * is {@code true}; otherwise this is left to the operating system. The minimum size of replaced
+ * and deleted items, in bytes, before a store's log is compacted, is set by the
+ * {@link #ENV_VAR_COMPACTION_THRESHOLD} environment variable.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class DiskStoreFactoryImpl extends AbstractStoreFactory {
+    private static final String ENV_VAR_DIR = "IMPOSTER_STORE_DISK_DIR";
+    private static final String ENV_VAR_SYNC = "IMPOSTER_STORE_DISK_SYNC";
+    private static final String ENV_VAR_COMPACTION_THRESHOLD = "IMPOSTER_STORE_DISK_COMPACTION_THRESHOLD";
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 16 * 1024 * 1024;
+    private static final String LOG_FILE_EXTENSION = ".log";
+    private static final Logger LOGGER = LogManager.getLogger(DiskStoreFactoryImpl.class);
+
+    private final Path storeDir;
+    private final boolean sync;
+    private final long compactionThreshold;
+    private final Map<String, DiskStore> diskStores = newConcurrentMap();
+
+    @Inject
+    public DiskStoreFactoryImpl() {
+        this(Paths.get(ofNullable(EnvVars.getEnv(ENV_VAR_DIR))
+                .orElse(System.getProperty("java.io.tmpdir") + "/imposter-store")));
+    }
+
+    public DiskStoreFactoryImpl(Path storeDir) {
+        this.storeDir = storeDir;
+        this.sync = Boolean.parseBoolean(EnvVars.getEnv(ENV_VAR_SYNC));
+        this.compactionThreshold = ofNullable(EnvVars.getEnv(ENV_VAR_COMPACTION_THRESHOLD))
+                .map(Long::parseLong)
+                .orElse(DEFAULT_COMPACTION_THRESHOLD);
+
+        try {
+            Files.createDirectories(storeDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create store directory: " + storeDir, e);
+        }
+        LOGGER.debug("Using store directory: {}", storeDir);
+    }
+
+    @Override
+    public Store buildNewStore(String storeName) {
+        final DiskStore store = new DiskStore(storeName, getLogFile(storeName), sync, compactionThreshold);
+        diskStores.put(storeName, store);
+        return store;
+    }
+
+    /**
+     * Deletes the log file of the store, as well as removing the store.
+     */
+    @Override
+    public void deleteStoreByName(String storeName) {
+        super.deleteStoreByName(storeName);
+
+        final DiskStore store = diskStores.remove(storeName);
+        if (nonNull(store)) {
+            store.destroy();
+        } else {
+            try {
+                Files.deleteIfExists(getLogFile(storeName));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to delete log file for store: " + storeName, e);
+            }
+        }
+    }
+
+    private Path getLogFile(String storeName) {
+        try {
+            return storeDir.resolve(URLEncoder.encode(storeName, "UTF-8") + LOG_FILE_EXTENSION);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
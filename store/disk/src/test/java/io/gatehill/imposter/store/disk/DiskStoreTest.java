@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.disk;
+
+import io.gatehill.imposter.store.model.Store;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link DiskStore}.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+public class DiskStoreTest {
+    private Path storeDir;
+
+    @Before
+    public void setUp() throws Exception {
+        storeDir = Files.createTempDirectory("imposter-store");
+    }
+
+    @Test
+    public void testSaveLoadDeleteItem() {
+        final Store store = new DiskStoreFactoryImpl(storeDir).buildNewStore("sli");
+        assertEquals("disk", store.getTypeDescription());
+
+        store.save("foo", "bar");
+        store.save("baz", 42L);
+        assertEquals("bar", store.load("foo"));
+        assertEquals(42L, (long) store.load("baz"));
+        assertTrue("Item should exist", store.hasItemWithKey("foo"));
+        assertEquals(2, store.count());
+
+        final Map<String, Object> allItems = store.loadAll();
+        assertEquals(2, allItems.size());
+        assertEquals("bar", allItems.get("foo"));
+
+        store.delete("foo");
+        assertFalse("Item should not exist", store.hasItemWithKey("foo"));
+        assertNull(store.load("foo"));
+        assertEquals(1, store.count());
+    }
+
+    @Test
+    public void testItemsPersistWhenReopened() {
+        final Path logFile = storeDir.resolve("persist.log");
+        final DiskStore store = new DiskStore("persist", logFile, false, Long.MAX_VALUE);
+
+        final Map<String, Object> items = new HashMap<>();
+        items.put("foo", "first");
+        items.put("list", Arrays.asList("a", "b"));
+        store.saveAll(items);
+        store.save("foo", "second");
+        store.save("deleted", "value");
+        store.delete("deleted");
+        store.close();
+
+        final DiskStore reopened = new DiskStore("persist", logFile, false, Long.MAX_VALUE);
+        assertEquals(2, reopened.count());
+        assertEquals("second", reopened.load("foo"));
+        assertEquals(Arrays.asList("a", "b"), reopened.<List<String>>load("list"));
+        assertFalse("Item should not exist", reopened.hasItemWithKey("deleted"));
+    }
+
+    @Test
+    public void testIncompleteRecordIsTruncated() throws IOException {
+        final Path logFile = storeDir.resolve("truncate.log");
+        final DiskStore store = new DiskStore("truncate", logFile, false, Long.MAX_VALUE);
+        store.save("foo", "bar");
+        store.save("baz", "qux");
+        store.close();
+
+        // simulate a crash part way through writing the last record
+        try (RandomAccessFile file = new RandomAccessFile(logFile.toFile(), "rw")) {
+            file.setLength(file.length() - 2);
+        }
+
+        final DiskStore reopened = new DiskStore("truncate", logFile, false, Long.MAX_VALUE);
+        assertEquals("bar", reopened.load("foo"));
+        assertFalse("Item should not exist", reopened.hasItemWithKey("baz"));
+
+        // new records are appended after the last complete record
+        reopened.save("baz", "corge");
+        reopened.close();
+        assertEquals("corge", new DiskStore("truncate", logFile, false, Long.MAX_VALUE).load("baz"));
+    }
+
+    @Test
+    public void testLogIsCompacted() throws IOException {
+        final Path logFile = storeDir.resolve("compact.log");
+        final DiskStore store = new DiskStore("compact", logFile, false, 1024);
+
+        for (int i = 0; i < 1000; i++) {
+            store.save("counter", "value" + i);
+        }
+        store.save("other", "value");
+        assertEquals("value999", store.load("counter"));
+        assertTrue("Log should be compacted", Files.size(logFile) < 2048);
+
+        store.close();
+        final DiskStore reopened = new DiskStore("compact", logFile, false, 1024);
+        assertEquals(2, reopened.count());
+        assertEquals("value999", reopened.load("counter"));
+    }
+
+    @Test
+    public void testAtomicOperations() {
+        final Store store = new DiskStoreFactoryImpl(storeDir).buildNewStore("atomic");
+
+        assertEquals(1, store.increment("counter", 1));
+        assertEquals(6, store.increment("counter", 5));
+        assertNull(store.putIfAbsent("lock", "owner1"));
+        assertEquals("owner1", store.putIfAbsent("lock", "owner2"));
+        assertTrue(store.compareAndSet("lock", "owner1", "owner3"));
+        assertEquals("owner3", store.getAndDelete("lock"));
+        assertFalse("Item should not exist", store.hasItemWithKey("lock"));
+    }
+
+    @Test
+    public void testDeleteStoreRemovesLogFile() {
+        final DiskStoreFactoryImpl factory = new DiskStoreFactoryImpl(storeDir);
+        factory.getStoreByName("deleted", false).save("foo", "bar");
+        assertTrue(Files.exists(storeDir.resolve("deleted.log")));
+
+        factory.deleteStoreByName("deleted");
+        assertFalse(Files.exists(storeDir.resolve("deleted.log")));
+        assertEquals(0, factory.getStoreByName("deleted", false).count());
+    }
+}
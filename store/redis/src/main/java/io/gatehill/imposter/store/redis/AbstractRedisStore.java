@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.redis;
+
+import io.gatehill.imposter.store.model.Store;
+import io.gatehill.imposter.store.util.StoreUtil;
+import io.gatehill.imposter.util.EnvVars;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.redisson.api.RFuture;
+import org.redisson.api.RMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Base class for stores backed by a Redis map.
+ * <p>
+ * Operations are sent to Redis asynchronously. The synchronous operations block the calling
+ * thread until the corresponding asynchronous operation completes.
+ * <p>
+ * Multiple items are saved in chunks, the size of which is set by the {@link #ENV_VAR_BATCH_SIZE}
+ * environment variable. The chunks are sent without waiting for each other to complete.
+ * <p>
+ * The atomic operations use the atomic map operations of Redisson, which are performed by Redis.
+ * As items are encoded by the client, Redis cannot perform arithmetic on them, so increments
+ * are performed by the client, and applied with a compare-and-set, retrying if the item changed.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+abstract class AbstractRedisStore implements Store {
+    private static final Logger LOGGER = LogManager.getLogger(AbstractRedisStore.class);
+    private static final String ENV_VAR_BATCH_SIZE = "IMPOSTER_STORE_REDIS_BATCH_SIZE";
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final int BATCH_SIZE = ofNullable(EnvVars.getEnv(ENV_VAR_BATCH_SIZE))
+            .map(Integer::parseInt)
+            .filter(batchSize -> batchSize > 0)
+            .orElse(DEFAULT_BATCH_SIZE);
+
+    protected final String storeName;
+    /**
+     * The number of keys requested from Redis at a time when iterating keys.
+     */
+    private static final int SCAN_COUNT = 1000;
+
+    private final RMap<String, Object> store;
+
+    protected AbstractRedisStore(String storeName, RMap<String, Object> store) {
+        this.storeName = storeName;
+        this.store = store;
+    }
+
+    @Override
+    public String getStoreName() {
+        return storeName;
+    }
+
+    @Override
+    public void save(String key, Object value) {
+        await(saveInternal(key, value));
+    }
+
+    @Override
+    public void saveAll(Map<String, Object> items) {
+        saveAllInternal(items).forEach(AbstractRedisStore::await);
+    }
+
+    @Override
+    public <T> T load(String key) {
+        return await(loadInternal(key));
+    }
+
+    @Override
+    public void delete(String key) {
+        await(deleteInternal(key));
+    }
+
+    @Override
+    public Map<String, Object> loadAll() {
+        return await(loadAllInternal());
+    }
+
+    /**
+     * Keys are iterated incrementally using <code>HSCAN</code>, rather than loading all keys at once.
+     */
+    @Override
+    public Iterator<String> iterateKeys(String keyPrefix) {
+        LOGGER.trace("Iterating keys with prefix: {} in store: {}", keyPrefix, storeName);
+        if (isNull(keyPrefix) || keyPrefix.isEmpty()) {
+            return store.keySet(SCAN_COUNT).iterator();
+        }
+        return store.keySet(escapeGlob(keyPrefix) + "*", SCAN_COUNT).iterator();
+    }
+
+    /**
+     * Escape characters with special meaning in a Redis glob-style pattern.
+     */
+    static String escapeGlob(String literal) {
+        final StringBuilder escaped = new StringBuilder(literal.length() + 4);
+        for (char c : literal.toCharArray()) {
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    @Override
+    public Map<String, Object> loadByKeys(Collection<String> keys) {
+        LOGGER.trace("Loading {} items from store: {}", keys.size(), storeName);
+        return await(store.getAllAsync(new HashSet<>(keys)));
+    }
+
+    @Override
+    public boolean hasItemWithKey(String key) {
+        return await(hasItemWithKeyInternal(key));
+    }
+
+    @Override
+    public int count() {
+        return await(countInternal());
+    }
+
+    @Override
+    public long increment(String key, long delta) {
+        LOGGER.trace("Incrementing item with key: {} in store: {} by {}", key, storeName, delta);
+        while (true) {
+            final Object current = await(store.getAsync(key));
+            final long value = StoreUtil.toLong(key, current) + delta;
+            if (isNull(current)) {
+                if (isNull(await(putIfAbsentInternal(key, value)))) {
+                    return value;
+                }
+            } else if (await(store.replaceAsync(key, current, value))) {
+                return value;
+            }
+            LOGGER.trace("Item with key: {} in store: {} changed during increment - retrying", key, storeName);
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(String key, Object expectedValue, Object newValue) {
+        LOGGER.trace("Comparing and setting item with key: {} in store: {}", key, storeName);
+        if (isNull(expectedValue)) {
+            return isNull(newValue) ? !hasItemWithKey(key) : isNull(await(putIfAbsentInternal(key, newValue)));
+        } else if (isNull(newValue)) {
+            return await(store.removeAsync(key, expectedValue));
+        } else {
+            return await(store.replaceAsync(key, expectedValue, newValue));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T putIfAbsent(String key, Object value) {
+        LOGGER.trace("Saving item with key: {} to store: {} if absent", key, storeName);
+        return (T) await(putIfAbsentInternal(key, value));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getAndDelete(String key) {
+        return (T) await(deleteInternal(key));
+    }
+
+    @Override
+    public Future<Void> saveAsync(String key, Object value) {
+        return toFuture(saveInternal(key, value)).mapEmpty();
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Future<Void> saveAllAsync(Map<String, Object> items) {
+        final List<Future> chunks = saveAllInternal(items).stream()
+                .map(AbstractRedisStore::toFuture)
+                .collect(Collectors.toList());
+
+        return CompositeFuture.all(chunks).mapEmpty();
+    }
+
+    @Override
+    public <T> Future<T> loadAsync(String key) {
+        return toFuture(loadInternal(key));
+    }
+
+    @Override
+    public Future<Void> deleteAsync(String key) {
+        return toFuture(deleteInternal(key)).mapEmpty();
+    }
+
+    @Override
+    public Future<Map<String, Object>> loadAllAsync() {
+        return toFuture(loadAllInternal());
+    }
+
+    @Override
+    public Future<Boolean> hasItemWithKeyAsync(String key) {
+        return toFuture(hasItemWithKeyInternal(key));
+    }
+
+    @Override
+    public Future<Integer> countAsync() {
+        return toFuture(countInternal());
+    }
+
+    /**
+     * Write the item to the underlying map.
+     *
+     * @param key   the item key
+     * @param value the item value
+     * @return a future that completes when the item has been written
+     */
+    protected abstract RFuture<?> saveInternal(String key, Object value);
+
+    /**
+     * Write the item to the underlying map, if there is no item with the key.
+     *
+     * @param key   the item key
+     * @param value the item value
+     * @return a future for the existing value, or {@code null} if the item was written
+     */
+    protected abstract RFuture<Object> putIfAbsentInternal(String key, Object value);
+
+    /**
+     * Write the items to the underlying map in a single operation.
+     *
+     * @param chunk the items to write, no more than the configured batch size
+     * @return a future that completes when the items have been written
+     */
+    protected abstract RFuture<?> saveChunkInternal(Map<String, Object> chunk);
+
+    private List<RFuture<?>> saveAllInternal(Map<String, Object> items) {
+        LOGGER.trace("Saving {} items to store: {} in chunks of {}", items.size(), storeName, BATCH_SIZE);
+        if (items.size() <= BATCH_SIZE) {
+            return Collections.singletonList(saveChunkInternal(items));
+        }
+
+        final List<RFuture<?>> chunks = new ArrayList<>(items.size() / BATCH_SIZE + 1);
+        Map<String, Object> chunk = new HashMap<>();
+        for (Map.Entry<String, Object> item : items.entrySet()) {
+            chunk.put(item.getKey(), item.getValue());
+            if (chunk.size() == BATCH_SIZE) {
+                chunks.add(saveChunkInternal(chunk));
+                chunk = new HashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(saveChunkInternal(chunk));
+        }
+        return chunks;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> RFuture<T> loadInternal(String key) {
+        LOGGER.trace("Loading item with key: {} from store: {}", key, storeName);
+        return (RFuture<T>) store.getAsync(key);
+    }
+
+    private RFuture<Object> deleteInternal(String key) {
+        LOGGER.trace("Deleting item with key: {} from store: {}", key, storeName);
+        return store.removeAsync(key);
+    }
+
+    private RFuture<Map<String, Object>> loadAllInternal() {
+        LOGGER.trace("Loading all items in store: {}", storeName);
+        return store.readAllMapAsync();
+    }
+
+    private RFuture<Boolean> hasItemWithKeyInternal(String key) {
+        LOGGER.trace("Checking for item with key: {} in store: {}", key, storeName);
+        return store.containsKeyAsync(key);
+    }
+
+    private RFuture<Integer> countInternal() {
+        LOGGER.trace("Counting items in store: {}", storeName);
+        return store.sizeAsync();
+    }
+
+    /**
+     * Block the calling thread until the operation completes.
+     */
+    private static <T> T await(RFuture<T> future) {
+        return future.syncUninterruptibly().getNow();
+    }
+
+    /**
+     * Adapt the Redisson future to a Vert.x future. If the operation was started from a
+     * Vert.x context, the returned future is completed on that context, rather than on
+     * the Redisson I/O thread.
+     */
+    private static <T> Future<T> toFuture(RFuture<T> rFuture) {
+        final Context context = Vertx.currentContext();
+        final Future<T> future = Future.future();
+        rFuture.onComplete((result, cause) -> {
+            if (isNull(context)) {
+                complete(future, result, cause);
+            } else {
+                context.runOnContext(v -> complete(future, result, cause));
+            }
+        });
+        return future;
+    }
+
+    private static <T> void complete(Future<T> future, T result, Throwable cause) {
+        if (isNull(cause)) {
+            future.complete(result);
+        } else {
+            future.fail(cause);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016-2021.
+ *
+ * This file is part of Imposter.
+ *
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the License, as
+ * defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant of rights
+ * under the License will not include, and the License does not grant to
+ * you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any or all of
+ * the rights granted to you under the License to provide to third parties,
+ * for a fee or other consideration (including without limitation fees for
+ * hosting or consulting/support services related to the Software), a
+ * product or service whose value derives, entirely or substantially, from
+ * the functionality of the Software. Any license notice or attribution
+ * required by the License must also include this Commons Clause License
+ * Condition notice.
+ *
+ * Software: Imposter
+ *
+ * License: GNU Lesser General Public License version 3
+ *
+ * Licensor: Peter Cornish
+ *
+ * Imposter is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Imposter is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Imposter.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.gatehill.imposter.store.redis;
+
+import io.gatehill.imposter.plugin.config.system.NearCacheConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.LocalCachedMapOptions.EvictionPolicy;
+import org.redisson.api.LocalCachedMapOptions.ReconnectionStrategy;
+import org.redisson.api.LocalCachedMapOptions.SyncStrategy;
+import org.redisson.api.RFuture;
+import org.redisson.api.RLocalCachedMap;
+import org.redisson.api.RedissonClient;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * A Redis store implementation that holds a local cache of items, so reads of cached
+ * items do not incur a round trip to Redis. Changes made by other instances are
+ * propagated to the local cache using Redis pub/sub, according to the configured
+ * sync strategy. The local cache is cleared if the connection to Redis is lost.
+ * <p>
+ * Unlike {@link RedisStore}, items in this store do not expire from Redis.
+ *
+ * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
+ */
+class NearCacheRedisStore extends AbstractRedisStore {
+    private static final String STORE_TYPE = "redis-near-cache";
+    private static final Logger LOGGER = LogManager.getLogger(NearCacheRedisStore.class);
+
+    private final RLocalCachedMap<String, Object> store;
+
+    public NearCacheRedisStore(String storeName, RedissonClient redisson, NearCacheConfig nearCacheConfig) {
+        this(storeName, redisson.getLocalCachedMap(storeName, buildOptions(nearCacheConfig)));
+        LOGGER.debug("Opened Redis store: {} with near cache", storeName);
+    }
+
+    private NearCacheRedisStore(String storeName, RLocalCachedMap<String, Object> store) {
+        super(storeName, store);
+        this.store = store;
+    }
+
+    static LocalCachedMapOptions<String, Object> buildOptions(NearCacheConfig nearCacheConfig) {
+        final LocalCachedMapOptions<String, Object> options = LocalCachedMapOptions.<String, Object>defaults()
+                .cacheSize(ofNullable(nearCacheConfig.getMaxItems()).orElse(0))
+                .evictionPolicy(ofNullable(nearCacheConfig.getEvictionPolicy())
+                        .map(policy -> EvictionPolicy.valueOf(policy.toUpperCase(Locale.ROOT)))
+                        .orElse(EvictionPolicy.LRU))
+                .syncStrategy(ofNullable(nearCacheConfig.getSyncStrategy())
+                        .map(strategy -> SyncStrategy.valueOf(strategy.toUpperCase(Locale.ROOT)))
+                        .orElse(SyncStrategy.INVALIDATE))
+                .reconnectionStrategy(ReconnectionStrategy.CLEAR);
+
+        ofNullable(nearCacheConfig.getTimeToLive()).ifPresent(ttl -> options.timeToLive(ttl, TimeUnit.SECONDS));
+        ofNullable(nearCacheConfig.getMaxIdle()).ifPresent(maxIdle -> options.maxIdle(maxIdle, TimeUnit.SECONDS));
+        return options;
+    }
+
+    @Override
+    public String getTypeDescription() {
+        return STORE_TYPE;
+    }
+
+    @Override
+    protected RFuture<?> saveInternal(String key, Object value) {
+        LOGGER.trace("Saving item with key: {} to store: {}", key, storeName);
+        return store.fastPutAsync(key, value);
+    }
+
+    @Override
+    protected RFuture<Object> putIfAbsentInternal(String key, Object value) {
+        return store.putIfAbsentAsync(key, value);
+    }
+
+    @Override
+    protected RFuture<?> saveChunkInternal(Map<String, Object> chunk) {
+        return store.putAllAsync(chunk);
+    }
+}
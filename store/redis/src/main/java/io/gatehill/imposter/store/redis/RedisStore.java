@@ -43,10 +43,10 @@
 
 package io.gatehill.imposter.store.redis;
 
-import io.gatehill.imposter.store.model.Store;
 import io.gatehill.imposter.util.EnvVars;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.redisson.api.RFuture;
 import org.redisson.api.RMapCache;
 import org.redisson.api.RedissonClient;
 
@@ -61,7 +61,7 @@ import static java.util.Optional.ofNullable;
  *
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
-class RedisStore implements Store {
+class RedisStore extends AbstractRedisStore {
     private static final String STORE_TYPE = "redis";
     private static final String ENV_VAR_EXPIRY = "IMPOSTER_STORE_REDIS_EXPIRY";
     private static final Logger LOGGER = LogManager.getLogger(RedisStore.class);
@@ -71,14 +71,16 @@ class RedisStore implements Store {
      */
     private static final Integer DEFAULT_EXPIRY_SECS = 1800;
 
-    private final String storeName;
     private final RMapCache<String, Object> store;
     private final int expirationSecs;
 
     public RedisStore(String storeName, RedissonClient redisson) {
-        this.storeName = storeName;
+        this(storeName, redisson.getMapCache(storeName));
+    }
 
-        store = redisson.getMapCache(storeName);
+    private RedisStore(String storeName, RMapCache<String, Object> store) {
+        super(storeName, store);
+        this.store = store;
 
         final int expiration = ofNullable(EnvVars.getEnv(ENV_VAR_EXPIRY))
                 .map(Integer::parseInt)
@@ -93,51 +95,24 @@ class RedisStore implements Store {
         }
     }
 
-    @Override
-    public String getStoreName() {
-        return storeName;
-    }
-
     @Override
     public String getTypeDescription() {
         return STORE_TYPE;
     }
 
     @Override
-    public void save(String key, Object value) {
+    protected RFuture<?> saveInternal(String key, Object value) {
         LOGGER.trace("Saving item with key: {} to store: {}", key, storeName);
-        store.put(key, value, expirationSecs, TimeUnit.SECONDS);
-    }
-
-    @SuppressWarnings("unchecked")
-    @Override
-    public <T> T load(String key) {
-        LOGGER.trace("Loading item with key: {} from store: {}", key, storeName);
-        return (T) store.get(key);
-    }
-
-    @Override
-    public void delete(String key) {
-        LOGGER.trace("Deleting item with key: {} from store: {}", key, storeName);
-        store.remove(key);
-    }
-
-    @Override
-    public Map<String, Object> loadAll() {
-        LOGGER.trace("Loading all items in store: {}", storeName);
-        return store;
+        return store.putAsync(key, value, expirationSecs, TimeUnit.SECONDS);
     }
 
     @Override
-    public boolean hasItemWithKey(String key) {
-        LOGGER.trace("Checking for item with key: {} in store: {}", key, storeName);
-        return store.containsKey(key);
+    protected RFuture<Object> putIfAbsentInternal(String key, Object value) {
+        return store.putIfAbsentAsync(key, value, expirationSecs, TimeUnit.SECONDS);
     }
 
     @Override
-    public int count() {
-        final int count = store.size();
-        LOGGER.trace("Returning item count {} from store: {}", count, storeName);
-        return count;
+    protected RFuture<?> saveChunkInternal(Map<String, Object> chunk) {
+        return store.putAllAsync(chunk, expirationSecs, TimeUnit.SECONDS);
     }
 }
@@ -45,6 +45,8 @@ package io.gatehill.imposter.store.redis;
 
 import com.google.inject.Inject;
 import io.gatehill.imposter.ImposterConfig;
+import io.gatehill.imposter.plugin.config.system.NearCacheConfig;
+import io.gatehill.imposter.plugin.config.system.StoreConfig;
 import io.gatehill.imposter.store.factory.AbstractStoreFactory;
 import io.gatehill.imposter.store.model.Store;
 import org.apache.logging.log4j.LogManager;
@@ -57,6 +59,9 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+
 /**
  * @author Pete Cornish {@literal <outofcoffee@gmail.com>}
  */
@@ -93,6 +98,22 @@ public class RedisStoreFactoryImpl extends AbstractStoreFactory {
 
     @Override
     public Store buildNewStore(String storeName) {
+        final NearCacheConfig nearCacheConfig = ofNullable(getStoreConfig(storeName))
+                .map(StoreConfig::getNearCache)
+                .orElse(null);
+
+        if (nonNull(nearCacheConfig)) {
+            return new NearCacheRedisStore(storeName, redisson, nearCacheConfig);
+        }
         return new RedisStore(storeName, redisson);
     }
+
+    /**
+     * Operations are sent to Redis asynchronously, so the asynchronous
+     * store operations do not block the calling thread.
+     */
+    @Override
+    public boolean isAsyncSupported() {
+        return true;
+    }
 }
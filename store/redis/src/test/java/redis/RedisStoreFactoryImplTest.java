@@ -45,8 +45,10 @@ package redis;
 
 import com.google.common.base.Charsets;
 import io.gatehill.imposter.ImposterConfig;
+import io.gatehill.imposter.plugin.config.system.StoreConfig;
 import io.gatehill.imposter.store.model.Store;
 import io.gatehill.imposter.store.redis.RedisStoreFactoryImpl;
+import io.gatehill.imposter.util.MapUtil;
 import io.gatehill.imposter.util.TestEnvironmentUtil;
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
@@ -60,6 +62,8 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import static java.util.Objects.nonNull;
@@ -74,6 +78,7 @@ public class RedisStoreFactoryImplTest {
     private RedisStoreFactoryImpl factory;
 
     private GenericContainer redis;
+    private ImposterConfig imposterConfig;
 
     @Before
     public void setUp() throws Exception {
@@ -85,7 +90,7 @@ public class RedisStoreFactoryImplTest {
         final Path configDir = Files.createTempDirectory("imposter");
         writeRedissonConfig(configDir);
 
-        final ImposterConfig imposterConfig = new ImposterConfig();
+        imposterConfig = new ImposterConfig();
         imposterConfig.setConfigDirs(new String[]{configDir.toString()});
 
         factory = new RedisStoreFactoryImpl(imposterConfig);
@@ -135,6 +140,21 @@ public class RedisStoreFactoryImplTest {
         assertEquals(1, store.count());
     }
 
+    @Test
+    public void testSaveAllItems() {
+        final Store store = factory.buildNewStore("sai");
+
+        // more than a single chunk
+        final Map<String, Object> items = new HashMap<>();
+        for (int i = 0; i < 2500; i++) {
+            items.put("key" + i, "value" + i);
+        }
+        store.saveAll(items);
+
+        assertEquals(2500, store.count());
+        assertEquals("value1234", store.load("key1234"));
+    }
+
     @Test
     public void testDeleteItem() {
         final Store store = factory.buildNewStore("di");
@@ -147,4 +167,39 @@ public class RedisStoreFactoryImplTest {
         store.delete("foo");
         assertFalse("Item should not exist", store.hasItemWithKey("foo"));
     }
+
+    @Test
+    public void testNearCacheStore() throws Exception {
+        final Map<String, Object> nearCache = new HashMap<>();
+        nearCache.put("maxItems", 100);
+        nearCache.put("syncStrategy", "invalidate");
+        final StoreConfig storeConfig = MapUtil.JSON_MAPPER.convertValue(
+                Collections.singletonMap("nearCache", nearCache), StoreConfig.class
+        );
+
+        // simulate two Imposter instances sharing the same Redis
+        final RedisStoreFactoryImpl otherFactory = new RedisStoreFactoryImpl(imposterConfig);
+        factory.configureStore("nc", storeConfig);
+        otherFactory.configureStore("nc", storeConfig);
+
+        final Store store = factory.getStoreByName("nc", false);
+        final Store otherStore = otherFactory.getStoreByName("nc", false);
+        assertEquals("redis-near-cache", store.getTypeDescription());
+
+        store.save("foo", "bar");
+        assertEquals("bar", otherStore.load("foo"));
+
+        // change is propagated to the cached copy on the other instance
+        store.save("foo", "baz");
+        for (int i = 0; i < 50 && !"baz".equals(otherStore.load("foo")); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals("baz", otherStore.load("foo"));
+
+        store.delete("foo");
+        for (int i = 0; i < 50 && otherStore.hasItemWithKey("foo"); i++) {
+            Thread.sleep(100);
+        }
+        assertFalse("Item should not exist", otherStore.hasItemWithKey("foo"));
+    }
 }
@@ -47,6 +47,7 @@ import com.google.common.collect.Lists;
 import io.gatehill.imposter.ImposterConfig;
 import io.gatehill.imposter.plugin.Plugin;
 import io.gatehill.imposter.util.MetricsUtil;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.VertxOptions;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -82,7 +83,8 @@ public abstract class BaseVerticleTest {
         ConfigHolder.resetConfig();
         configure(ConfigHolder.getConfig());
 
-        rule.vertx().deployVerticle(ImposterVerticle.class.getCanonicalName(), completion -> {
+        final DeploymentOptions deploymentOptions = new DeploymentOptions().setInstances(getInstances());
+        rule.vertx().deployVerticle(ImposterVerticle.class.getCanonicalName(), deploymentOptions, completion -> {
             if (completion.succeeded()) {
                 async.complete();
             } else {
@@ -116,6 +118,13 @@ public abstract class BaseVerticleTest {
         );
     }
 
+    /**
+     * @return the number of verticle instances to deploy
+     */
+    protected int getInstances() {
+        return 1;
+    }
+
     private int findFreePort() throws IOException {
         try (ServerSocket socket = new ServerSocket(0)) {
             return socket.getLocalPort();